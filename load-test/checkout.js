@@ -0,0 +1,62 @@
+// Charge "checkout" sur ms-order : POST /api/v1/orders en boucle fermée.
+// Utilisé par compare.sh (threads plateforme vs threads virtuels), voir LOAD_TEST.md.
+//
+//   k6 run -e VUS=400 -e DURATION=60s checkout.js
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const ORDER_URL = __ENV.ORDER_URL || 'http://localhost:8083';
+const PRODUCT_URL = __ENV.PRODUCT_URL || 'http://localhost:8082';
+const PRODUCTS = parseInt(__ENV.PRODUCTS || '20');
+const USERS = [1, 2, 3]; // utilisateurs de ms-membership/data.sql
+
+export const options = {
+    scenarios: {
+        checkout: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '400'),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+// Catalogue de test : stock assez grand pour ne jamais refuser une commande pendant le tir
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < PRODUCTS; i++) {
+        const res = http.post(`${PRODUCT_URL}/api/v1/products`, JSON.stringify({
+            name: `Produit charge ${i}`,
+            description: 'Produit créé par le test de charge',
+            price: 9.99,
+            stock: 100000000,
+            category: 'OTHER',
+            active: true,
+        }), JSON_HEADERS);
+        check(res, { 'produit créé': (r) => r.status === 201 });
+        ids.push(res.json('id'));
+    }
+    return { ids };
+}
+
+export default function (data) {
+    const items = [];
+    const lines = 1 + Math.floor(Math.random() * 3);
+    for (let i = 0; i < lines; i++) {
+        items.push({
+            productId: data.ids[Math.floor(Math.random() * data.ids.length)],
+            quantity: 1,
+        });
+    }
+
+    const res = http.post(`${ORDER_URL}/api/v1/orders`, JSON.stringify({
+        userId: USERS[Math.floor(Math.random() * USERS.length)],
+        shippingAddress: '1 rue de la Charge, Paris',
+        items,
+    }), JSON_HEADERS);
+
+    check(res, { 'commande créée': (r) => r.status === 201 });
+}
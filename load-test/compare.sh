@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Comparaison threads plateforme / threads virtuels sur le parcours de commande.
+#
+# Pour chaque mode (VIRTUAL_THREADS=false puis true) :
+#   1. démarre ms-membership, ms-product et ms-order (jars construits au préalable) ;
+#   2. lance load-test/checkout.js avec k6 ;
+#   3. arrête les services et conserve le résumé k6 + les traces d'épinglage (pinning).
+#
+# Prérequis : mvn package dans chaque service, k6 et jq dans le PATH.
+# Variables : VUS (400), DURATION (60s), PRODUCTS (20), JAVA_OPTS (vide).
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/load-test/results/$(date +%Y%m%d-%H%M%S)"
+VUS="${VUS:-400}"
+DURATION="${DURATION:-60s}"
+mkdir -p "$OUT"
+
+PIDS=()
+
+start() {
+    local name="$1" port="$2" mode="$3"
+    local jar
+    jar="$(ls "$ROOT/$name"/target/"$name"-*.jar | grep -v original | head -1)"
+    # jdk.tracePinnedThreads : trace chaque thread virtuel bloqué dans un synchronized
+    VIRTUAL_THREADS="$mode" APP_PORT="$port" \
+        java ${JAVA_OPTS:-} -Djdk.tracePinnedThreads=short -jar "$jar" \
+        > "$OUT/$name-virtual-$mode.log" 2>&1 &
+    PIDS+=("$!")
+    until curl -sf "http://localhost:$port/actuator/health/liveness" > /dev/null; do sleep 1; done
+}
+
+stop() {
+    kill "${PIDS[@]}" 2> /dev/null || true
+    wait "${PIDS[@]}" 2> /dev/null || true
+    PIDS=()
+}
+trap stop EXIT
+
+for mode in false true; do
+    echo "=== VIRTUAL_THREADS=$mode ==="
+    start ms-membership 8081 "$mode"
+    start ms-product 8082 "$mode"
+    start ms-order 8083 "$mode"
+
+    k6 run --quiet -e VUS="$VUS" -e DURATION="$DURATION" -e PRODUCTS="${PRODUCTS:-20}" \
+        --summary-export "$OUT/k6-virtual-$mode.json" "$ROOT/load-test/checkout.js"
+
+    stop
+done
+
+# Tableau comparatif (débit, latences, erreurs, épinglages observés)
+{
+    echo "| Mode | Requêtes/s | p50 (ms) | p95 (ms) | p99 (ms) | Échecs | Épinglages tracés |"
+    echo "|------|-----------:|---------:|---------:|---------:|-------:|------------------:|"
+    for mode in false true; do
+        summary="$OUT/k6-virtual-$mode.json"
+        pinned=$(cat "$OUT"/*-virtual-"$mode".log | grep -c "<== monitors" || true)
+        jq -r --arg mode "$([ "$mode" = true ] && echo virtuels || echo plateforme)" --arg pinned "$pinned" '
+            [ $mode,
+              (.metrics.http_reqs.rate | floor | tostring),
+              (.metrics.http_req_duration.med | floor | tostring),
+              (.metrics.http_req_duration["p(95)"] | floor | tostring),
+              (.metrics.http_req_duration["p(99)"] | floor | tostring),
+              ((.metrics.http_req_failed.value * 100 | floor | tostring) + " %"),
+              $pinned ]
+            | "| " + join(" | ") + " |"' "$summary"
+    done
+} | tee "$OUT/comparison.md"
+
+echo "Résultats : $OUT"
@@ -0,0 +1,27 @@
+package com.membership.users.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.membership.users.domain.entity.UserChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO pour un changement d'utilisateur du flux GET /api/v1/users/changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeDTO {
+
+    private Long position;
+    private Long userId;
+    private UserChangeType type;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,26 @@
+package com.membership.users.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour une page du flux des changements d'utilisateurs.
+ * - position : à renvoyer dans "since" à l'appel suivant ; elle peut rester en deçà du dernier
+ *              changement renvoyé (trou récent), qui sera alors renvoyé de nouveau
+ * - reset    : des changements postérieurs à "since" ont été purgés ; le consommateur
+ *              doit invalider tout ce qu'il a en cache avant de reprendre à "position"
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeFeedDTO {
+
+    private Long position;
+    private boolean reset;
+    private List<UserChangeDTO> changes;
+}
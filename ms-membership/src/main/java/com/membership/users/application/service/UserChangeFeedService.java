@@ -0,0 +1,152 @@
+package com.membership.users.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.membership.users.application.dto.UserChangeDTO;
+import com.membership.users.application.dto.UserChangeFeedDTO;
+import com.membership.users.domain.entity.UserChangeEvent;
+import com.membership.users.domain.entity.UserChangeType;
+import com.membership.users.domain.repository.UserChangeEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service pour le flux des changements d'utilisateurs.
+ * Best practices :
+ * - Les changements sont enregistrés dans la transaction de UserService (cohérence garantie)
+ * - Lecture par position croissante et pages bornées (pas de scan complet)
+ * - La position ne dépasse pas un trou récent : un ID plus petit peut encore être validé
+ *   par une transaction plus lente (les ID IDENTITY sont attribués à l'insertion, pas au commit)
+ * - Purge périodique des anciens événements, signalée aux consommateurs en retard (reset)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserChangeFeedService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final UserChangeEventRepository changeEventRepository;
+
+    @Value("${app.users.changes.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.users.changes.commit-grace:10s}")
+    private Duration commitGrace;
+
+    /**
+     * Enregistre un changement (à appeler dans la transaction qui modifie l'utilisateur)
+     */
+    @Transactional
+    public void record(Long userId, UserChangeType type) {
+        changeEventRepository.save(UserChangeEvent.builder()
+                .userId(userId)
+                .type(type)
+                .build());
+    }
+
+    /**
+     * Changements postérieurs à "since".
+     * Sans "since", renvoie seulement la position courante (point de départ d'un nouveau consommateur).
+     *
+     * Tous les changements lus sont renvoyés, mais la position s'arrête avant le premier trou
+     * d'ID suivi d'un événement plus récent que app.users.changes.commit-grace : l'appel suivant
+     * relit à partir du trou (changements renvoyés deux fois, sans effet pour une invalidation).
+     * Passé ce délai, le trou est considéré comme une transaction annulée et la position l'enjambe.
+     */
+    public UserChangeFeedDTO getChanges(Long since, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("La taille de page doit être comprise entre 1 et %d", MAX_PAGE_SIZE));
+        }
+
+        Long lastId = changeEventRepository.findLastId();
+        long head = lastId == null ? 0L : lastId;
+
+        if (since == null) {
+            return UserChangeFeedDTO.builder()
+                    .position(head)
+                    .changes(List.of())
+                    .build();
+        }
+
+        // position inconnue (base réinitialisée) : le consommateur repart de la position courante
+        if (since > head) {
+            return UserChangeFeedDTO.builder()
+                    .position(head)
+                    .reset(true)
+                    .changes(List.of())
+                    .build();
+        }
+
+        // des événements postérieurs à "since" ont été purgés : le consommateur a pu en manquer
+        Long firstId = changeEventRepository.findFirstId();
+        boolean reset = since < head && firstId != null && since < firstId - 1;
+
+        List<UserChangeEvent> events = changeEventRepository
+                .findByIdGreaterThanOrderByIdAsc(since, PageRequest.of(0, limit));
+
+        List<UserChangeDTO> changes = events.stream()
+                .map(event -> UserChangeDTO.builder()
+                        .position(event.getId())
+                        .userId(event.getUserId())
+                        .type(event.getType())
+                        .occurredAt(event.getOccurredAt())
+                        .build())
+                .toList();
+
+        long position = settledPosition(Math.max(since, 0L), events, reset);
+
+        return UserChangeFeedDTO.builder()
+                .position(position)
+                .reset(reset)
+                .changes(changes)
+                .build();
+    }
+
+    /**
+     * Dernière position contiguë, ou dont les trous sont assez anciens pour ne plus être comblés.
+     * Après une purge (reset), le premier trou est attendu et n'arrête pas la position.
+     */
+    private long settledPosition(long since, List<UserChangeEvent> events, boolean reset) {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(commitGrace);
+        long position = since;
+        boolean first = true;
+        for (UserChangeEvent event : events) {
+            boolean gap = event.getId() != position + 1 && !(first && reset);
+            if (gap && event.getOccurredAt().isAfter(settledBefore)) {
+                log.debug("Flux des utilisateurs : trou récent avant la position {}, position maintenue à {}",
+                        event.getId(), position);
+                break;
+            }
+            position = event.getId();
+            first = false;
+        }
+        return position;
+    }
+
+    /**
+     * Purge des événements plus anciens que app.users.changes.retention
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.users.changes.purge-interval-ms:3600000}")
+    public void purge() {
+        Long lastId = changeEventRepository.findLastId();
+        if (lastId == null) {
+            return;
+        }
+        int purged = changeEventRepository.deleteOlderThan(LocalDateTime.now().minus(retention), lastId);
+        if (purged > 0) {
+            log.info("Flux des utilisateurs : {} événement(s) purgé(s)", purged);
+        }
+    }
+}
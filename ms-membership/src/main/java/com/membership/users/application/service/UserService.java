@@ -1,7 +1,5 @@
 package com.membership.users.application.service;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,9 +9,11 @@ import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
 import com.membership.users.application.mapper.UserMapper;
 import com.membership.users.domain.entity.User;
+import com.membership.users.domain.entity.UserChangeType;
 import com.membership.users.domain.repository.UserRepository;
 import com.membership.users.infrastructure.exception.ResourceAlreadyExistsException;
 import com.membership.users.infrastructure.exception.ResourceNotFoundException;
+import com.membership.users.infrastructure.metrics.UserMetrics;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
  * - Métriques personnalisées avec Micrometer
  * - Gestion d'erreurs explicite avec exceptions métier
  * - Séparation de la logique métier du contrôleur
+ * - Chaque modification/suppression est publiée dans le flux des changements (caches des autres services)
  */
 @Slf4j
 @Service
@@ -35,7 +36,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final MeterRegistry meterRegistry;
+    private final UserMetrics userMetrics;
+    private final UserChangeFeedService changeFeedService;
 
     /**
      * Récupère tous les utilisateurs
@@ -84,11 +86,7 @@ public class UserService {
         User savedUser = userRepository.save(user);
         
         // Métrique personnalisée
-        Counter.builder("users.created")
-                .description("Nombre d'utilisateurs créés")
-                .tag("type", "user")
-                .register(meterRegistry)
-                .increment();
+        userMetrics.incrementUserCreated();
         
         log.info("Utilisateur créé avec succès: ID={}, Email={}", savedUser.getId(), savedUser.getEmail());
         
@@ -114,13 +112,10 @@ public class UserService {
         
         userMapper.updateEntityFromDto(userRequestDTO, user);
         User updatedUser = userRepository.save(user);
+        changeFeedService.record(updatedUser.getId(), UserChangeType.UPDATED);
         
         // Métrique personnalisée
-        Counter.builder("users.updated")
-                .description("Nombre d'utilisateurs mis à jour")
-                .tag("type", "user")
-                .register(meterRegistry)
-                .increment();
+        userMetrics.incrementUserUpdated();
         
         log.info("Utilisateur mis à jour avec succès: ID={}, Email={}", 
                 updatedUser.getId(), updatedUser.getEmail());
@@ -139,13 +134,10 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
         
         userRepository.delete(user);
+        changeFeedService.record(id, UserChangeType.DELETED);
         
         // Métrique personnalisée
-        Counter.builder("users.deleted")
-                .description("Nombre d'utilisateurs supprimés")
-                .tag("type", "user")
-                .register(meterRegistry)
-                .increment();
+        userMetrics.incrementUserDeleted();
         
         log.info("Utilisateur supprimé avec succès: ID={}, Email={}", id, user.getEmail());
     }
@@ -192,6 +184,7 @@ public class UserService {
         
         user.setActive(false);
         User deactivatedUser = userRepository.save(user);
+        changeFeedService.record(id, UserChangeType.DEACTIVATED);
         
         log.info("Utilisateur désactivé avec succès: ID={}, Email={}", id, user.getEmail());
         
@@ -29,8 +29,10 @@ import java.time.LocalDateTime;
 @Builder
 public class User {
 
+    /** Séquence users_seq par blocs de 50 (pooled-lo) : INSERT groupés par JDBC batch */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le prénom ne peut pas être vide")
@@ -0,0 +1,42 @@
+package com.membership.users.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité UserChangeEvent : un changement d'utilisateur, pour les services qui le gardent en cache.
+ * Best practices :
+ * - Écrit dans la même transaction que le changement (jamais de changement sans événement)
+ * - L'ID croissant sert de position de lecture (les consommateurs lisent "depuis l'ID n")
+ * - Index sur occurred_at pour la purge des anciens événements
+ */
+@Entity
+@Table(name = "user_change_events",
+       indexes = @Index(name = "idx_user_change_events_occurred_at", columnList = "occurred_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private UserChangeType type;
+
+    @CreationTimestamp
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,10 @@
+package com.membership.users.domain.entity;
+
+/**
+ * Types de changement publiés dans le flux des utilisateurs (GET /api/v1/users/changes).
+ */
+public enum UserChangeType {
+    UPDATED,
+    DEACTIVATED,
+    DELETED
+}
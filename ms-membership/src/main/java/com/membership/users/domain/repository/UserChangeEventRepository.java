@@ -0,0 +1,44 @@
+package com.membership.users.domain.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.membership.users.domain.entity.UserChangeEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour l'entité UserChangeEvent (flux des changements d'utilisateurs).
+ */
+@Repository
+public interface UserChangeEventRepository extends JpaRepository<UserChangeEvent, Long> {
+
+    /**
+     * Changements postérieurs à une position, dans l'ordre (page bornée par le Pageable)
+     */
+    List<UserChangeEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Position courante du flux (null si aucun événement)
+     */
+    @Query("SELECT MAX(e.id) FROM UserChangeEvent e")
+    Long findLastId();
+
+    /**
+     * Plus ancienne position encore disponible (null si aucun événement)
+     */
+    @Query("SELECT MIN(e.id) FROM UserChangeEvent e")
+    Long findFirstId();
+
+    /**
+     * Purge des événements anciens ; le dernier est conservé pour garder la position du flux
+     */
+    @Modifying
+    @Query("DELETE FROM UserChangeEvent e WHERE e.occurredAt < :before AND e.id < :lastId")
+    int deleteOlderThan(@Param("before") LocalDateTime before, @Param("lastId") Long lastId);
+}
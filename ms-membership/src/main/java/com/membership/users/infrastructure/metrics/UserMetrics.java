@@ -0,0 +1,50 @@
+package com.membership.users.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Compteurs Micrometer de ms-membership, enregistrés une seule fois au démarrage.
+ *
+ * Les services incrémentent directement les compteurs gardés ici : pas de builder,
+ * de tableau de tags ni de recherche dans le registre à chaque requête.
+ */
+@Component
+public class UserMetrics {
+
+    private final Counter usersCreated;
+    private final Counter usersUpdated;
+    private final Counter usersDeleted;
+
+    public UserMetrics(MeterRegistry meterRegistry) {
+
+        this.usersCreated = Counter.builder("users.created")
+                .description("Nombre d'utilisateurs créés")
+                .tag("type", "user")
+                .register(meterRegistry);
+
+        this.usersUpdated = Counter.builder("users.updated")
+                .description("Nombre d'utilisateurs mis à jour")
+                .tag("type", "user")
+                .register(meterRegistry);
+
+        this.usersDeleted = Counter.builder("users.deleted")
+                .description("Nombre d'utilisateurs supprimés")
+                .tag("type", "user")
+                .register(meterRegistry);
+    }
+
+    public void incrementUserCreated() {
+        usersCreated.increment();
+    }
+
+    public void incrementUserUpdated() {
+        usersUpdated.increment();
+    }
+
+    public void incrementUserDeleted() {
+        usersDeleted.increment();
+    }
+}
@@ -16,8 +16,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.membership.users.application.dto.UserChangeFeedDTO;
 import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
+import com.membership.users.application.service.UserChangeFeedService;
 import com.membership.users.application.service.UserService;
 
 import java.net.URI;
@@ -45,6 +47,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserChangeFeedService changeFeedService;
     /**
      * GET /api/v1/users
      * Récupère la liste de tous les utilisateurs
@@ -226,6 +229,35 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/v1/users/changes?since={position}&limit={limit}
+     * Flux des changements d'utilisateurs (modification, désactivation, suppression)
+     * 
+     * @param since Dernière position lue (absente : renvoie seulement la position courante)
+     * @param limit Nombre maximal de changements renvoyés
+     * @return Les changements postérieurs à since, dans l'ordre, et la position à relire
+     */
+    @Operation(summary = "Flux des changements d'utilisateurs", 
+               description = "Permet aux autres services d'invalider leurs caches. Relire avec since = position renvoyée")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changements récupérés avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                     schema = @Schema(implementation = UserChangeFeedDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Taille de page invalide",
+                    content = @Content)
+    })
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserChangeFeedDTO> getChanges(
+            @Parameter(description = "Dernière position lue")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Nombre maximal de changements (1 à 1000)")
+            @RequestParam(defaultValue = "500") int limit) {
+        
+        log.debug("GET /api/v1/users/changes?since={} - Flux des changements", since);
+        
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+
     /**
      * GET /api/v1/users/active
      * Récupère tous les utilisateurs actifs
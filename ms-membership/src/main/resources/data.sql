@@ -1,8 +1,9 @@
 -- Données initiales pour la base de données H2
 -- Ce script est exécuté automatiquement au démarrage de l'application
--- Création de la table users
+-- Séquence des ids (pooled-lo, blocs de 50) et création de la table users
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     first_name VARCHAR(50) NOT NULL,
     last_name VARCHAR(50) NOT NULL,
     email VARCHAR(100) NOT NULL UNIQUE,
@@ -11,9 +12,12 @@ CREATE TABLE IF NOT EXISTS users (
     updated_at TIMESTAMP
 );
 
--- Insertion des utilisateurs initiaux
-INSERT INTO users (first_name, last_name, email, active, created_at, updated_at)
+-- Insertion des utilisateurs initiaux (ids 1 à 3, utilisés par load-test/checkout.js)
+INSERT INTO users (id, first_name, last_name, email, active, created_at, updated_at)
 VALUES
-('Alice', 'Dupont', 'alice.dupont@example.com', TRUE, CURRENT_TIMESTAMP, NULL),
-('Bob', 'Martin', 'bob.martin@example.com', TRUE, CURRENT_TIMESTAMP, NULL),
-('Charlie', 'Durand', 'charlie.durand@example.com', TRUE, CURRENT_TIMESTAMP, NULL);
\ No newline at end of file
+(1, 'Alice', 'Dupont', 'alice.dupont@example.com', TRUE, CURRENT_TIMESTAMP, NULL),
+(2, 'Bob', 'Martin', 'bob.martin@example.com', TRUE, CURRENT_TIMESTAMP, NULL),
+(3, 'Charlie', 'Durand', 'charlie.durand@example.com', TRUE, CURRENT_TIMESTAMP, NULL);
+
+-- Premier bloc d'ids après les utilisateurs initiaux (51 à 100) : pas de collision
+ALTER SEQUENCE users_seq RESTART WITH 51;
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.membership.users.application.service;
+
+import com.membership.users.application.dto.UserChangeFeedDTO;
+import com.membership.users.domain.entity.UserChangeEvent;
+import com.membership.users.domain.entity.UserChangeType;
+import com.membership.users.domain.repository.UserChangeEventRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeFeedServiceTest {
+
+    @Mock private UserChangeEventRepository changeEventRepository;
+
+    @InjectMocks private UserChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(changeFeedService, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(changeFeedService, "commitGrace", Duration.ofSeconds(10));
+        when(changeEventRepository.findLastId()).thenReturn(13L);
+        when(changeEventRepository.findFirstId()).thenReturn(1L);
+    }
+
+    // Trou récent (ID 12 pas encore validé) : tout est renvoyé, mais la position reste avant le trou
+    @Test
+    void getChanges_shouldHoldPositionBeforeRecentGap() {
+        when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any())).thenReturn(List.of(
+                event(11L, LocalDateTime.now().minusMinutes(1)),
+                event(13L, LocalDateTime.now())));
+
+        UserChangeFeedDTO feed = changeFeedService.getChanges(10L, 100);
+
+        assertEquals(11L, feed.getPosition());
+        assertEquals(2, feed.getChanges().size());
+        assertFalse(feed.isReset());
+    }
+
+    // Trou plus ancien que commit-grace : transaction annulée, la position l'enjambe
+    @Test
+    void getChanges_shouldSkipGapOlderThanCommitGrace() {
+        when(changeEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any())).thenReturn(List.of(
+                event(11L, LocalDateTime.now().minusMinutes(2)),
+                event(13L, LocalDateTime.now().minusMinutes(1))));
+
+        UserChangeFeedDTO feed = changeFeedService.getChanges(10L, 100);
+
+        assertEquals(13L, feed.getPosition());
+    }
+
+    private static UserChangeEvent event(Long id, LocalDateTime occurredAt) {
+        return UserChangeEvent.builder()
+                .id(id)
+                .userId(id * 100)
+                .type(UserChangeType.DEACTIVATED)
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.episen.order.application.dto;
+
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Événement de commande transmis aux consommateurs (bus interne, webhook, fichier).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEventDto {
+
+    /** Identifiant croissant de l'événement : un consommateur ignore ceux déjà reçus */
+    private Long eventId;
+
+    private OrderEventType type;
+    private Long orderId;
+    private Long userId;
+
+    /** Statut après l'événement (absent pour ORDER_DELETED) */
+    private OrderStatus status;
+
+    /** Statut avant l'événement (absent pour ORDER_CREATED) */
+    private OrderStatus previousStatus;
+
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+}
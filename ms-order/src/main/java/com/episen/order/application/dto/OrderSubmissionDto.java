@@ -0,0 +1,32 @@
+package com.episen.order.application.dto;
+
+import com.episen.order.domain.enums.SubmissionStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de suivi d'une soumission asynchrone de commande.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSubmissionDto {
+
+    /** Identifiant de suivi (GET /api/v1/orders/submissions/{trackingId}) */
+    private String trackingId;
+
+    private SubmissionStatus status;
+    private int attempts;
+
+    /** Commande créée, renseignée quand le statut est COMPLETED */
+    private Long orderId;
+
+    /** Motif du refus quand le statut est FAILED (mêmes codes que l'API synchrone) */
+    private String errorCode;
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
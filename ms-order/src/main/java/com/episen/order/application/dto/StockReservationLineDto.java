@@ -0,0 +1,20 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne d'une réservation de stock envoyée à ms-product
+ * (POST /api/v1/products/stock/reservations).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLineDto {
+
+    private Long productId;
+    private Integer quantity;
+}
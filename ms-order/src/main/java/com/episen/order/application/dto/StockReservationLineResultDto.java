@@ -0,0 +1,25 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'une ligne de réservation tel que renvoyé par ms-product.
+ *
+ * status : RESERVED, ROLLED_BACK, INSUFFICIENT_STOCK ou PRODUCT_NOT_FOUND
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLineResultDto {
+
+    public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+    public static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
+
+    private Long productId;
+    private Integer quantity;
+    private String status;
+}
@@ -0,0 +1,26 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO utilisé par ms-order pour appeler l'endpoint POST /api/v1/products/stock/reservations
+ * du microservice ms-product : toutes les lignes de la commande en un seul appel.
+ *
+ * JSON envoyé :
+ * {
+ *   "lines": [ { "productId": 1, "quantity": 2 } ]
+ * }
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequestDto {
+
+    private List<StockReservationLineDto> lines;
+}
@@ -0,0 +1,26 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Réponse de ms-product à une réservation de stock.
+ * reserved = false => aucune ligne n'a été décrémentée (tout ou rien).
+ * reserved = true  => le stock est réservé jusqu'à expiresAt, sauf confirmation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResponseDto {
+
+    private boolean reserved;
+    private String reservationId;
+    private LocalDateTime expiresAt;
+    private List<StockReservationLineResultDto> lines;
+}
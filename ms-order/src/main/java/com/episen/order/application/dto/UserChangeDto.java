@@ -0,0 +1,20 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changement d'utilisateur publié par ms-membership (UPDATED, DEACTIVATED, DELETED).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeDto {
+
+    private Long position;
+    private Long userId;
+    private String type;
+}
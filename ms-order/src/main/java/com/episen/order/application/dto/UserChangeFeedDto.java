@@ -0,0 +1,23 @@
+package com.episen.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page du flux GET /api/v1/users/changes de ms-membership.
+ * reset = true => des changements ont pu être manqués : tout le cache est à invalider.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangeFeedDto {
+
+    private Long position;
+    private boolean reset;
+    private List<UserChangeDto> changes;
+}
@@ -0,0 +1,31 @@
+package com.episen.order.application.dto;
+
+import com.episen.order.domain.enums.OrderStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO du résumé des commandes d'un utilisateur (page compte).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOrderSummaryDto {
+
+    private Long userId;
+    private long orderCount;
+
+    /** Montant cumulé des commandes non annulées */
+    private BigDecimal totalSpent;
+
+    private Map<OrderStatus, Long> countsByStatus;
+    private LocalDateTime lastOrderAt;
+
+    /** Dernières commandes, de la plus récente à la plus ancienne */
+    private List<OrderResponseDto> recentOrders;
+}
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 import com.episen.order.application.dto.OrderItemRequestDto;
 import com.episen.order.application.dto.OrderItemResponseDto;
 import com.episen.order.domain.entity.OrderItem;
+import com.episen.order.domain.projection.OrderItemRow;
 
 /**
  * Mapper pour convertir entre OrderItem et ses DTOs.
@@ -26,6 +27,20 @@ public class OrderItemMapper {
                 .build();
     }
 
+    /**
+     * Ligne de lecture (projection) -> DTO de réponse.
+     */
+    public OrderItemResponseDto toDto(OrderItemRow row) {
+        return OrderItemResponseDto.builder()
+                .id(row.id())
+                .productId(row.productId())
+                .productName(row.productName())
+                .quantity(row.quantity())
+                .unitPrice(row.unitPrice())
+                .subtotal(row.subtotal())
+                .build();
+    }
+
     /**
      * DTO de requête -> entité (mapper pauvre, sans logique métier).
      * - on ne met pas l'Order
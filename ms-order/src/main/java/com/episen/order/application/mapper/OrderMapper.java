@@ -1,6 +1,7 @@
 package com.episen.order.application.mapper;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
@@ -9,6 +10,8 @@ import com.episen.order.application.dto.OrderItemResponseDto;
 import com.episen.order.application.dto.OrderRequestDto;
 import com.episen.order.application.dto.OrderResponseDto;
 import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.projection.OrderItemRow;
+import com.episen.order.domain.projection.OrderRow;
 
 /**
  * Mapper pour convertir entre Order et ses DTOs.
@@ -46,6 +49,35 @@ public class OrderMapper {
                 .build();
     }
 
+    /**
+     * Convertit des lignes de lecture (projections) en DTOs, avec leurs items
+     * regroupés par id de commande.
+     */
+    public List<OrderResponseDto> toDtos(List<OrderRow> rows, Map<Long, List<OrderItemRow>> itemsByOrder) {
+        return rows.stream()
+                .map(row -> toDto(row, itemsByOrder.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
+
+    private OrderResponseDto toDto(OrderRow row, List<OrderItemRow> itemRows) {
+
+        List<OrderItemResponseDto> items = itemRows.stream()
+                .map(orderItemMapper::toDto)
+                .collect(Collectors.toList());
+
+        return OrderResponseDto.builder()
+                .id(row.id())
+                .userId(row.userId())
+                .orderDate(row.orderDate())
+                .status(row.status())
+                .totalAmount(row.totalAmount())
+                .shippingAddress(row.shippingAddress())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .items(items)
+                .build();
+    }
+
 
     /**
      * Mapper "pauvre" : Request DTO -> Order sans logique métier.
@@ -0,0 +1,84 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OutboxEvent;
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OutboxEventRepository;
+import com.episen.order.infrastructure.web.stream.OrderEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Écriture des événements de commande dans l'outbox (table order_outbox).
+ *
+ * Appelé dans la transaction qui écrit la commande (MANDATORY) : l'événement est
+ * enregistré si et seulement si la commande l'est. La publication est faite ensuite
+ * par OutboxRelay.
+ *
+ * Après le commit, l'événement est aussi transmis aux flux SSE ouverts
+ * (OrderEventBroadcaster), sans attendre le relais.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        append(OrderEventType.ORDER_CREATED, order, null, order.getStatus());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Order order, OrderStatus previousStatus) {
+        append(OrderEventType.ORDER_STATUS_CHANGED, order, previousStatus, order.getStatus());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderDeleted(Order order) {
+        append(OrderEventType.ORDER_DELETED, order, order.getStatus(), null);
+    }
+
+    static OrderEventDto toDto(OutboxEvent event) {
+        return OrderEventDto.builder()
+                .eventId(event.getId())
+                .type(event.getEventType())
+                .orderId(event.getOrderId())
+                .userId(event.getUserId())
+                .status(event.getStatus())
+                .previousStatus(event.getPreviousStatus())
+                .totalAmount(event.getTotalAmount())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+
+    private void append(OrderEventType type, Order order, OrderStatus previousStatus, OrderStatus status) {
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(type)
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(status)
+                .previousStatus(previousStatus)
+                .totalAmount(order.getTotalAmount())
+                .occurredAt(LocalDateTime.now())
+                .build());
+
+        // flux SSE : seulement si la transaction de la commande est validée
+        OrderEventDto dto = toDto(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderEventBroadcaster.publish(dto);
+            }
+        });
+    }
+}
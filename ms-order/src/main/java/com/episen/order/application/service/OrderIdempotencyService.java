@@ -0,0 +1,193 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderRequestDto;
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.infrastructure.exception.IdempotencyKeyInProgressException;
+import com.episen.order.infrastructure.exception.IdempotencyKeyReusedException;
+import com.episen.order.infrastructure.idempotency.IdempotencyRecord;
+import com.episen.order.infrastructure.idempotency.IdempotencyStore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Création de commande idempotente (en-tête Idempotency-Key de POST /api/v1/orders, et
+ * soumissions asynchrones traitées par OrderSubmissionWorker avec leur identifiant de suivi).
+ *
+ * Pour une même clé :
+ *  - la première requête crée la commande, la réponse est enregistrée (IdempotencyStore) ;
+ *  - une répétition reçoit la commande déjà créée, sans nouvelle réservation de stock ;
+ *  - des répétitions simultanées attendent la création en cours sur cette instance
+ *    au lieu d'en lancer une autre ;
+ *  - une clé réutilisée avec un autre corps de requête est refusée (422).
+ *
+ * Une création en échec n'est pas mémorisée : la clé est libérée et une nouvelle tentative
+ * recrée la commande (l'échec n'a rien réservé, ou sa réservation est compensée).
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+    private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    // créations en cours sur cette instance, par clé
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter coalesced;
+
+    public OrderIdempotencyService(OrderService orderService,
+                                   IdempotencyStore idempotencyStore,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Commande créée (ou déjà créée) pour la clé ; sans clé, création simple.
+     */
+    public Result createOrder(String key, OrderRequestDto request) {
+        if (key == null) {
+            return new Result(orderService.createOrder(request), false);
+        }
+
+        String fingerprint = fingerprint(request);
+
+        Optional<IdempotencyRecord> stored = idempotencyStore.find(key);
+        if (stored.isPresent() && stored.get().completed()) {
+            return replay(key, stored.get(), fingerprint);
+        }
+
+        // une seule création par clé sur l'instance : les doublons simultanés attendent son résultat
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+            coalesced.increment();
+            return new Result(await(running.result()), true);
+        }
+
+        try {
+            Result result = execute(key, fingerprint, request);
+            mine.result().complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Result execute(String key, String fingerprint, OrderRequestDto request) {
+        // une création terminée entre la première lecture et la réservation de la clé
+        Optional<IdempotencyRecord> stored = idempotencyStore.find(key);
+        if (stored.isPresent() && stored.get().completed()) {
+            return replay(key, stored.get(), fingerprint);
+        }
+
+        Optional<String> owner = idempotencyStore.begin(key, fingerprint);
+        if (owner.isEmpty()) {
+            // clé réservée par une autre instance
+            stored = idempotencyStore.find(key);
+            if (stored.isPresent() && stored.get().completed()) {
+                return replay(key, stored.get(), fingerprint);
+            }
+            if (stored.isPresent() && !stored.get().fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+            throw new IdempotencyKeyInProgressException(key);
+        }
+
+        OrderResponseDto created;
+        try {
+            created = orderService.createOrder(request);
+        } catch (RuntimeException e) {
+            idempotencyStore.abandon(key, owner.get());
+            throw e;
+        }
+        executed.increment();
+
+        try {
+            idempotencyStore.complete(key, owner.get(), new IdempotencyRecord(fingerprint, created));
+        } catch (RuntimeException e) {
+            // commande créée : la réponse est rendue, une répétition ultérieure ne sera pas reconnue
+            log.error("Clé d'idempotence {} non enregistrée pour la commande {}", key, created.getId(), e);
+        }
+        return new Result(created, false);
+    }
+
+    private Result replay(String key, IdempotencyRecord record, String fingerprint) {
+        if (!record.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        replayed.increment();
+        log.debug("Répétition de la clé d'idempotence {} : commande {}", key, record.response().getId());
+        return new Result(record.response(), true);
+    }
+
+    private static OrderResponseDto await(CompletableFuture<OrderResponseDto> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Empreinte SHA-256 du corps de la requête (JSON).
+     */
+    private String fingerprint(OrderRequestDto request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Empreinte de la requête impossible", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order_idempotency_requests_total")
+                .description("Créations de commande avec Idempotency-Key (exécutées, rejouées, regroupées)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Commande rendue au client ; replayed = true si elle avait déjà été créée pour la clé.
+     */
+    public record Result(OrderResponseDto order, boolean replayed) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<OrderResponseDto> result) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.episen.order.application.service;
+
+import com.episen.order.domain.projection.OrderItemRow;
+import com.episen.order.domain.projection.OrderRow;
+import com.episen.order.domain.repository.OrderReadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Chargement groupé des items d'une page de commandes.
+ *
+ * Au lieu d'un SELECT d'items par commande, on charge les items de toute la page
+ * en une requête IN (...) puis on les regroupe par commande. Une jointure sur les
+ * items n'est pas compatible avec la limite d'une page ni avec un export en flux.
+ *
+ * Les listes non paginées (par utilisateur, par statut) peuvent dépasser la limite de
+ * paramètres liés de la base : les ids sont envoyés par tranches de `in-batch-size`.
+ */
+@Component
+public class OrderItemBatchLoader {
+
+    private final OrderReadRepository orderReadRepository;
+    private final int inBatchSize;
+
+    public OrderItemBatchLoader(OrderReadRepository orderReadRepository,
+                                @Value("${app.orders.items.in-batch-size:500}") int inBatchSize) {
+        this.orderReadRepository = orderReadRepository;
+        this.inBatchSize = inBatchSize;
+    }
+
+    /**
+     * Items des commandes données, regroupés par id de commande
+     * (une commande sans item est absente de la map).
+     */
+    public Map<Long, List<OrderItemRow>> loadItems(Collection<OrderRow> orders) {
+
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> orderIds = orders.stream()
+                .map(OrderRow::id)
+                .toList();
+
+        List<OrderItemRow> items = new ArrayList<>();
+        for (int from = 0; from < orderIds.size(); from += inBatchSize) {
+            items.addAll(orderReadRepository.findItemsByOrderIds(
+                    orderIds.subList(from, Math.min(from + inBatchSize, orderIds.size()))));
+        }
+
+        return items.stream()
+                .collect(Collectors.groupingBy(OrderItemRow::orderId));
+    }
+}
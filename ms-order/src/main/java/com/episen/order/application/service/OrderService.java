@@ -2,6 +2,7 @@ package com.episen.order.application.service;
 
 import com.episen.order.application.dto.*;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service métier pour la gestion des commandes.
@@ -13,7 +14,16 @@ public interface OrderService {
 
     OrderResponseDto getOrderById(Long id);
 
-    List<OrderResponseDto> getAllOrders();
+    /**
+     * Page de commandes triées par id croissant, à partir du curseur after (exclu).
+     */
+    List<OrderResponseDto> getOrdersPage(Long after, int limit);
+
+    /**
+     * Transmet au consommateur, une par une, les commandes d'id supérieur à after
+     * (triées par id), sans jamais les charger toutes en mémoire.
+     */
+    void streamOrders(Long after, Consumer<OrderResponseDto> consumer);
 
     List<OrderResponseDto> getOrdersByUser(Long userId);
 
@@ -8,48 +8,97 @@ import com.episen.order.application.mapper.OrderMapper;
 import com.episen.order.domain.entity.Order;
 import com.episen.order.domain.entity.OrderItem;
 import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.projection.OrderRow;
+import com.episen.order.domain.repository.OrderReadRepository;
 import com.episen.order.domain.repository.OrderRepository;
+import com.episen.order.infrastructure.cache.ProductCatalogCache;
+import com.episen.order.infrastructure.cache.UserExistenceCache;
+import com.episen.order.infrastructure.client.ClientCallExecutor;
 import com.episen.order.infrastructure.client.ProductClient;
-import com.episen.order.infrastructure.client.UserClient;
 import com.episen.order.application.dto.ProductDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationLineResultDto;
+import com.episen.order.application.dto.StockReservationResponseDto;
 import com.episen.order.application.dto.UserDto;
 import com.episen.order.infrastructure.exception.UserNotFoundException;
 import com.episen.order.infrastructure.exception.ProductNotFoundException;
 import com.episen.order.infrastructure.exception.InsufficientStockException;
+import com.episen.order.infrastructure.exception.ReservationExpiredException;
 import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.episen.order.infrastructure.exception.OrderNotFoundException;
 import com.episen.order.infrastructure.exception.OrderNotModifiableException;
 
 import com.episen.order.infrastructure.metrics.OrderMetrics;
+import com.episen.order.infrastructure.metrics.OrderMetrics.CreatePhase;
 
 import com.episen.order.application.dto.UpdateOrderStatusRequestDto;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.http.HttpStatus;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.client.RestClientException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    /** Commandes transmises en flux par paquet : une requête d'items par paquet */
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
+    private final OrderReadRepository orderReadRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
-    private final UserClient userClient;
+    private final OrderItemBatchLoader orderItemBatchLoader;
+    private final UserExistenceCache userExistenceCache;
     private final ProductClient productClient;
+    private final ProductCatalogCache productCatalogCache;
     private final OrderMetrics orderMetrics;
-
-   @Override
+    private final UserOrderSummaryService userOrderSummaryService;
+    private final OrderEventOutbox orderEventOutbox;
+    private final ReservationCompensator reservationCompensator;
+    private final TransactionOperations transactionOperations;
+    private final ClientCallExecutor clientCallExecutor;
+    private final EntityManager entityManager;
+
+    /**
+     * Création de commande, mesurée de bout en bout (order_create, par résultat) ;
+     * chaque phase est mesurée séparément (order_create_phase).
+     */
+    @Override
     public OrderResponseDto createOrder(OrderRequestDto request) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            OrderResponseDto created = placeOrder(request);
+            success = true;
+            return created;
+        } finally {
+            orderMetrics.recordOrderCreate(success, System.nanoTime() - start);
+        }
+    }
+
+    private OrderResponseDto placeOrder(OrderRequestDto request) {
 
         // ─────────────────────────────────────────────
         // 1) VALIDATION DE BASE : au moins un article
@@ -59,22 +108,48 @@ public class OrderServiceImpl implements OrderService {
         }
 
         // ─────────────────────────────────────────────
-        // 2) VALIDATION : vérifier que l'utilisateur existe (ms-user)
+        // 2) APPELS DISTANTS EN PARALLÈLE : utilisateur (ms-user) + produits (ms-product)
+        //    -> la latence est bornée par l'appel le plus lent, plus par la taille du panier
+        //    -> variantes asynchrones des clients (non bloquantes si app.clients.mode=async)
         // ─────────────────────────────────────────────
-        UserDto user;
+        long lookupStart = System.nanoTime();
+        long deadline = lookupStart + clientCallExecutor.getTimeout().toNanos();
+
+        CompletableFuture<UserDto> userFuture = fetchUser(request.getUserId());
+
+        // catalogue (nom, prix) : cache local, puis une seule lecture groupée pour les absents
+        List<Long> productIds = request.getItems().stream()
+                .map(OrderItemRequestDto::getProductId)
+                .distinct()
+                .toList();
+
+        CompletableFuture<List<ProductDto>> productsFuture = fetchProducts(productIds);
+
+        // l'utilisateur est vérifié en premier pour conserver la priorité des erreurs
+        Map<Long, ProductDto> products = new HashMap<>();
         try {
-            user = userClient.getUserById(request.getUserId());
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+            UserDto user = await(userFuture, deadline, "USER_SERVICE");
+            if (user == null) {
                 throw new UserNotFoundException(request.getUserId());
             }
-            throw new ServiceUnavailableException("USER_SERVICE");
-        } catch (RestClientException e) {
-            throw new ServiceUnavailableException("USER_SERVICE");
+
+            for (ProductDto product : await(productsFuture, deadline, "PRODUCT_SERVICE")) {
+                products.put(product.getId(), product);
+            }
+        } catch (RuntimeException e) {
+            // une erreur suffit à rejeter la commande : inutile d'attendre l'autre appel
+            userFuture.cancel(true);
+            productsFuture.cancel(true);
+            throw e;
+        } finally {
+            orderMetrics.recordOrderCreatePhase(CreatePhase.LOOKUP, System.nanoTime() - lookupStart);
         }
 
-        if (user == null) {
-            throw new UserNotFoundException(request.getUserId());
+        // un produit absent de la réponse groupée n'existe pas (ordre du panier conservé)
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ProductNotFoundException(productId);
+            }
         }
 
         // ─────────────────────────────────────────────
@@ -90,75 +165,78 @@ public class OrderServiceImpl implements OrderService {
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         // ─────────────────────────────────────────────
-        // 4) POUR CHAQUE ITEM : vérifier le produit, le stock, calculer le sous-total
+        // 4) POUR CHAQUE ITEM : cumuler les quantités, calculer le sous-total
         // ─────────────────────────────────────────────
-       for (OrderItemRequestDto itemDto : request.getItems()) {
-
-    // 4.1) Récupérer le produit sur ms-product
-    ProductDto product;
-    try {
-        product = productClient.getProductById(itemDto.getProductId());
-    } catch (HttpClientErrorException e) {
-        if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-            throw new ProductNotFoundException(itemDto.getProductId());
-        }
-        throw new ServiceUnavailableException("PRODUCT_SERVICE");
-    } catch (RestClientException e) {
-        throw new ServiceUnavailableException("PRODUCT_SERVICE");
-    }
+        // quantités cumulées par produit (un produit peut apparaître sur plusieurs lignes)
+        Map<Long, Integer> requestedQuantities = new LinkedHashMap<>();
 
-    if (product == null) {
-        throw new ProductNotFoundException(itemDto.getProductId());
-    }
-
-    // 4.2) Vérifier le stock disponible
-    if (product.getStock() == null || product.getStock() < itemDto.getQuantity()) {
-        throw new InsufficientStockException(itemDto.getProductId());
-    }
+        for (OrderItemRequestDto itemDto : request.getItems()) {
 
-    // 4.3) Mapper le DTO -> entité OrderItem (mapper pauvre)
-    OrderItem orderItem = orderItemMapper.toEntity(itemDto);
+            // 4.1) Produit déjà récupéré (étape 2) : nom et prix, pas de stock (peut venir du cache)
+            ProductDto product = products.get(itemDto.getProductId());
 
-    // 4.4) Enrichir l’item avec les infos produit + relation vers la commande
-    orderItem.setOrder(order);
-    orderItem.setProductName(product.getName());
-    orderItem.setUnitPrice(product.getPrice());
+            // 4.2) Le stock est vérifié par ms-product lors de la réservation (seule source qui fait foi)
+            requestedQuantities.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
 
-    // 4.5) Calculer le subtotal : unitPrice * quantity
-    BigDecimal lineTotal = product.getPrice()
-            .multiply(BigDecimal.valueOf(itemDto.getQuantity()));
-    orderItem.setSubtotal(lineTotal);
+            // 4.3) Mapper le DTO -> entité OrderItem (mapper pauvre)
+            OrderItem orderItem = orderItemMapper.toEntity(itemDto);
 
-    // 4.6) Accumuler le total de la commande
-    totalAmount = totalAmount.add(lineTotal);
+            // 4.4) Enrichir l’item avec les infos produit + relation vers la commande
+            orderItem.setOrder(order);
+            orderItem.setProductName(product.getName());
+            orderItem.setUnitPrice(product.getPrice());
 
-    // 4.7) Ajouter l’item à la liste
-    orderItems.add(orderItem);
+            // 4.5) Calculer le subtotal : unitPrice * quantity
+            BigDecimal lineTotal = product.getPrice()
+                    .multiply(BigDecimal.valueOf(itemDto.getQuantity()));
+            orderItem.setSubtotal(lineTotal);
 
-    // 4.8) BUSINESS RULE : à la création, déduire les quantités du stock
-    Integer currentStock = product.getStock();
-    int requestedQty = itemDto.getQuantity();
-    int newStock = currentStock - requestedQty;
+            // 4.6) Accumuler le total de la commande
+            totalAmount = totalAmount.add(lineTotal);
 
-    productClient.updateProductStock(product.getId(), newStock);
+            // 4.7) Ajouter l’item à la liste
+            orderItems.add(orderItem);
+        }
 
-    log.debug("Stock mis à jour pour productId={} : {} -> {}",
-            product.getId(), currentStock, newStock);
-}
+        // 4.8) BUSINESS RULE : à la création, réserver les quantités du stock
+        //      -> une seule réservation atomique côté ms-product pour toutes les lignes
+        //      -> la réservation expire (stock rendu) si la commande n'est pas confirmée à temps
+        StockReservationResponseDto reservation = reserveStock(requestedQuantities);
 
         // ─────────────────────────────────────────────
-        // 5) Finaliser l’entité Order (items + totalAmount)
+        // 5) Finaliser l’entité Order (items + totalAmount + réservation)
         // ─────────────────────────────────────────────
         order.setItems(orderItems);
         order.setTotalAmount(totalAmount);
+        order.setReservationId(reservation.getReservationId());
 
         // ─────────────────────────────────────────────
-        // 6) PERSISTENCE : sauvegarder la commande (cascade => sauvegarde aussi les items)
+        // 6) PERSISTENCE : sauvegarder la commande (cascade => sauvegarde aussi les items),
+        //    mettre à jour le résumé de l'utilisateur et écrire l'événement OrderCreated
+        //    (outbox) dans la même transaction
+        //    -> en cas d'échec, compensation de la saga : la libération de la réservation est
+        //       journalisée puis rejouée en arrière-plan (pas d'attente de ms-product ici)
         // ─────────────────────────────────────────────
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        long persistenceStart = System.nanoTime();
+        try {
+            userOrderSummaryService.ensureExists(order.getUserId());
+            savedOrder = transactionOperations.execute(status -> {
+                Order saved = save(order);
+                userOrderSummaryService.onOrderCreated(saved);
+                orderEventOutbox.orderCreated(saved);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            reservationCompensator.schedule(reservation.getReservationId(), "ORDER_NOT_SAVED");
+            throw e;
+        } finally {
+            orderMetrics.recordOrderCreatePhase(CreatePhase.PERSISTENCE, System.nanoTime() - persistenceStart);
+        }
 
-        // métrique : 1 commande créée dans le statut initial
+        // métrique : 1 commande créée dans le statut initial, montant ajouté au montant du jour
         orderMetrics.incrementOrdersCreated(savedOrder.getStatus());
+        orderMetrics.addToAmountToday(savedOrder.getCreatedAt(), savedOrder.getTotalAmount());
 
         // ─────────────────────────────────────────────
         // 7) MAPPING : entité -> DTO de réponse
@@ -166,45 +244,226 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(savedOrder);
     }
 
+    /**
+     * Sauvegarde mesurée (order_db_save). Identifiants par séquence (pooled-lo) : aucun INSERT
+     * ici, la commande puis ses items partent par lots JDBC au commit (mesuré dans la phase persistence).
+     */
+    private Order save(Order order) {
+        long start = System.nanoTime();
+        try {
+            return orderRepository.save(order);
+        } finally {
+            orderMetrics.recordOrderDbSave(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Récupère l'utilisateur (cache local, sinon ms-user) en traduisant les erreurs en exceptions métier.
+     */
+    private CompletableFuture<UserDto> fetchUser(Long userId) {
+        return userExistenceCache.getUser(userId)
+                .exceptionally(e -> {
+                    throw new ServiceUnavailableException("USER_SERVICE");
+                })
+                .thenApply(user -> user.orElseThrow(() -> new UserNotFoundException(userId)));
+    }
+
+    /**
+     * Récupère les produits (cache local, sinon ms-product en une lecture groupée).
+     * Les produits inconnus sont absents du résultat (pas de 404 sur une lecture groupée).
+     */
+    private CompletableFuture<List<ProductDto>> fetchProducts(List<Long> productIds) {
+        return productCatalogCache.getProductsByIdsAsync(productIds)
+                .exceptionally(e -> {
+                    throw new ServiceUnavailableException("PRODUCT_SERVICE");
+                });
+    }
+
+    /**
+     * Réserve le stock de toutes les lignes en un seul appel (tout ou rien côté ms-product).
+     * Une ligne refusée est traduite en exception métier, dans l'ordre du panier.
+     */
+    private StockReservationResponseDto reserveStock(Map<Long, Integer> requestedQuantities) {
+        List<StockReservationLineDto> lines = requestedQuantities.entrySet().stream()
+                .map(entry -> StockReservationLineDto.builder()
+                        .productId(entry.getKey())
+                        .quantity(entry.getValue())
+                        .build())
+                .toList();
+
+        StockReservationResponseDto reservation;
+        long reservationStart = System.nanoTime();
+        try {
+            reservation = productClient.reserveStock(lines);
+        } catch (RestClientException e) {
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        } finally {
+            orderMetrics.recordOrderCreatePhase(CreatePhase.RESERVATION, System.nanoTime() - reservationStart);
+        }
+
+        if (reservation == null) {
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }
+        if (reservation.isReserved()) {
+            log.debug("Stock réservé pour les produits {} (réservation {})",
+                    requestedQuantities.keySet(), reservation.getReservationId());
+            return reservation;
+        }
+
+        Map<Long, String> refused = new HashMap<>();
+        for (StockReservationLineResultDto line : reservation.getLines()) {
+            if (StockReservationLineResultDto.PRODUCT_NOT_FOUND.equals(line.getStatus())
+                    || StockReservationLineResultDto.INSUFFICIENT_STOCK.equals(line.getStatus())) {
+                refused.put(line.getProductId(), line.getStatus());
+            }
+        }
+        // produits refusés : le catalogue local a pu changer (suppression, mise à jour)
+        productCatalogCache.evict(refused.keySet());
+        for (Long productId : requestedQuantities.keySet()) {
+            String status = refused.get(productId);
+            if (StockReservationLineResultDto.PRODUCT_NOT_FOUND.equals(status)) {
+                throw new ProductNotFoundException(productId);
+            }
+            if (StockReservationLineResultDto.INSUFFICIENT_STOCK.equals(status)) {
+                throw new InsufficientStockException(productId);
+            }
+        }
+        throw new ServiceUnavailableException("PRODUCT_SERVICE");
+    }
+
+    /**
+     * Confirme la réservation de stock d'une commande qui quitte PENDING.
+     * Une réservation expirée a déjà rendu son stock : la commande ne peut plus être confirmée.
+     */
+    private void confirmReservation(Order order) {
+        if (order.getReservationId() == null) {
+            return; // commande antérieure aux réservations : stock déjà décrémenté
+        }
+        try {
+            productClient.confirmReservation(order.getReservationId());
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new ReservationExpiredException(order.getId(), order.getReservationId());
+        } catch (RestClientException e) {
+            throw new ServiceUnavailableException("PRODUCT_SERVICE");
+        }
+    }
+
+    /**
+     * Libère la réservation d'une commande dont l'annulation ou la suppression est enregistrée.
+     * ms-product indisponible : la libération passe par le journal de compensation.
+     * Idempotent côté ms-product : rejouer la libération ne rend pas le stock deux fois.
+     */
+    private void releaseAfterCommit(Order order, String reason) {
+        if (order.getReservationId() == null) {
+            return;
+        }
+        try {
+            productClient.releaseReservation(order.getReservationId());
+        } catch (RestClientException e) {
+            log.warn("Libération de la réservation {} reportée (commande {}, {}): {}",
+                    order.getReservationId(), order.getId(), reason, e.getMessage());
+            reservationCompensator.schedule(order.getReservationId(), reason);
+        }
+    }
+
+    /**
+     * Attend le résultat d'un appel distant sans dépasser la deadline de la commande.
+     * Les exceptions métier levées dans l'appel sont propagées telles quelles.
+     */
+    private <T> T await(CompletableFuture<T> future, long deadline, String serviceName) {
+        long remaining = Math.max(deadline - System.nanoTime(), 0L);
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Délai dépassé en attendant {}", serviceName);
+            throw new ServiceUnavailableException(serviceName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(serviceName);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServiceUnavailableException(serviceName);
+        }
+    }
+
     @Override
 public OrderResponseDto getOrderById(Long id) {
 
-    Order order = orderRepository.findById(id)
+    // Commande + items en une seule requête
+    Order order = orderRepository.findWithItemsById(id)
             .orElseThrow(() -> new OrderNotFoundException(id));
 
     return orderMapper.toDto(order);
 }
 
     @Override
-    public List<OrderResponseDto> getAllOrders() {
+    @Transactional(readOnly = true)
+    public List<OrderResponseDto> getOrdersPage(Long after, int limit) {
 
-        // 1) Charger toutes les commandes depuis la base
-        List<Order> orders = orderRepository.findAll();
+        // 1) Lecture d'une seule page à partir du curseur (id exclu), triée par id
+        List<OrderRow> orders = orderReadRepository.findPage(after == null ? 0L : after, Limit.of(limit));
 
-        // 2) Mapper les entités -> DTO de réponse
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .toList();
+        // 2) Items de toute la page en une requête IN (...), puis mapping -> DTO de réponse
+        return toDtos(orders);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(Long after, Consumer<OrderResponseDto> consumer) {
+
+        // Curseur JDBC ouvert pendant toute la transaction : les lignes arrivent par paquets
+        try (Stream<OrderRow> orders = orderReadRepository.streamAfter(after == null ? 0L : after)) {
+            int count = 0;
+            List<OrderRow> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            for (OrderRow order : (Iterable<OrderRow>) orders::iterator) {
+                chunk.add(order);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    count += emitChunk(chunk, consumer);
+                }
+            }
+            count += emitChunk(chunk, consumer);
+            log.debug("{} commandes transmises en flux", count);
+        }
+    }
+
+    /**
+     * Transmet un paquet de commandes lues par le curseur (items chargés en une requête).
+     * Les projections ne sont pas gérées par le contexte de persistance : une fois
+     * transmises, plus rien ne les référence.
+     */
+    private int emitChunk(List<OrderRow> chunk, Consumer<OrderResponseDto> consumer) {
+
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        toDtos(chunk).forEach(consumer);
+
+        int size = chunk.size();
+        chunk.clear();
+        return size;
     }
 
    @Override
+    @Transactional(readOnly = true)
     public List<OrderResponseDto> getOrdersByUser(Long userId) {
 
         // (Optionnel) validation user existe via ms-user si tu veux
         // userClient.getUserById(userId);
 
-        List<Order> orders = orderRepository.findByUserId(userId);
+        List<OrderRow> orders = orderReadRepository.findByUserId(userId);
 
-        if (orders == null || orders.isEmpty()) {
+        if (orders.isEmpty()) {
             return List.of(); //  jamais null
         }
 
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .toList();
+        return toDtos(orders);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrderResponseDto> getOrdersByStatus(String status) {
 
         OrderStatus orderStatus;
@@ -219,17 +478,22 @@ public OrderResponseDto getOrderById(Long id) {
         }
 
         // 2) Récupération des commandes
-        List<Order> orders = orderRepository.findByStatus(orderStatus);
+        List<OrderRow> orders = orderReadRepository.findByStatus(orderStatus);
 
         // 3) Jamais null → liste vide si rien
-        if (orders == null || orders.isEmpty()) {
+        if (orders.isEmpty()) {
             return List.of();
         }
 
-        // 4) Mapping entités -> DTOs
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .toList();
+        // 4) Mapping lignes -> DTOs
+        return toDtos(orders);
+    }
+
+    /**
+     * Lignes de commandes -> DTOs, avec les items de toutes les commandes lus en une requête.
+     */
+    private List<OrderResponseDto> toDtos(List<OrderRow> orders) {
+        return orderMapper.toDtos(orders, orderItemBatchLoader.loadItems(orders));
     }
 
     @Override
@@ -251,19 +515,48 @@ public OrderResponseDto getOrderById(Long id) {
             throw new IllegalArgumentException("Statut invalide : " + request.getStatus());
         }
 
-        // garder l'ancien statut pour la métrique
-        OrderStatus oldStatus = order.getStatus();
-
-        // 4) Mise à jour
-        order.setStatus(newStatus);
+        // 4) Réservation de stock : confirmée quand la commande quitte PENDING
+        //    (idempotent côté ms-product : une transition concurrente peut l'avoir déjà confirmée)
+        if (newStatus != OrderStatus.CANCELLED
+                && order.getStatus() == OrderStatus.PENDING && newStatus != OrderStatus.PENDING) {
+            confirmReservation(order);
+        }
 
-        // 5) Sauvegarde
-        Order savedOrder = orderRepository.save(order);
+        // 5) Mise à jour et sauvegarde (+ résumé de l'utilisateur et événement OrderStatusChanged,
+        //    dans la même transaction), sur la ligne verrouillée : l'ancien statut et les variations
+        //    sont ceux de la base, pas ceux de la lecture du 1)
+        userOrderSummaryService.ensureExists(order.getUserId());
+        StatusTransition transition = transactionOperations.execute(status -> {
+            Order locked = lockOrder(id);
+            OrderStatus oldStatus = locked.getStatus();
+            if (oldStatus == OrderStatus.DELIVERED || oldStatus == OrderStatus.CANCELLED) {
+                throw new OrderNotModifiableException(oldStatus);
+            }
+            locked.setStatus(newStatus);
+            Order saved = save(locked);
+            userOrderSummaryService.onStatusChanged(saved, oldStatus, saved.getStatus());
+            if (oldStatus != saved.getStatus()) {
+                orderEventOutbox.statusChanged(saved, oldStatus);
+            }
+            return new StatusTransition(saved, oldStatus);
+        });
+        Order savedOrder = transition.order();
+        OrderStatus oldStatus = transition.oldStatus();
+
+        // 6) Stock rendu une fois l'annulation d'une commande non expédiée enregistrée ; en cas
+        //    d'échec, la libération est journalisée et rejouée en arrière-plan (compensation)
+        if (newStatus == OrderStatus.CANCELLED
+                && (oldStatus == OrderStatus.PENDING || oldStatus == OrderStatus.CONFIRMED)) {
+            releaseAfterCommit(savedOrder, "ORDER_CANCELLED");
+        }
 
-        // métrique : changement de statut (old -> new)
+        // métrique : changement de statut (old -> new) ; une annulation sort du montant du jour
         orderMetrics.incrementOrderStatusChanged(oldStatus, newStatus);
+        if (newStatus == OrderStatus.CANCELLED) {
+            orderMetrics.removeFromAmountToday(savedOrder.getCreatedAt(), savedOrder.getTotalAmount());
+        }
 
-        // 6) Mapping
+        // 7) Mapping
         return orderMapper.toDto(savedOrder);
     }
     @Override
@@ -279,16 +572,60 @@ public OrderResponseDto getOrderById(Long id) {
         // 2) BUSINESS RULE : une commande DELIVERED/CANCELLED ne peut plus être modifiée
         //    -> suppression = modification => interdite
         // ─────────────────────────────────────────────
+        checkDeletable(order);
+
+        // ─────────────────────────────────────────────
+        // 3) Suppression (+ résumé de l'utilisateur et événement OrderDeleted, dans la même transaction)
+        //    -> sur la ligne verrouillée : une suppression concurrente déjà validée donne 404,
+        //       le résumé et l'outbox ne voient la commande disparaître qu'une fois
+        // ─────────────────────────────────────────────
+        userOrderSummaryService.ensureExists(order.getUserId());
+        Order deleted = transactionOperations.execute(status -> {
+            Order locked = lockOrder(id);
+            checkDeletable(locked);
+            orderRepository.delete(locked);
+            userOrderSummaryService.onOrderDeleted(locked);
+            orderEventOutbox.orderDeleted(locked);
+            return locked;
+        });
+
+        // ─────────────────────────────────────────────
+        // 4) Rendre le stock d'une commande non expédiée (réservation HELD ou CONFIRMED)
+        //    -> après le commit : une suppression en échec garde son stock ; si ms-product
+        //       est indisponible, la libération est journalisée (compensation)
+        // ─────────────────────────────────────────────
+        if (deleted.getStatus() == OrderStatus.PENDING
+                || deleted.getStatus() == OrderStatus.CONFIRMED) {
+            releaseAfterCommit(deleted, "ORDER_DELETED");
+        }
+
+        // métrique : la commande supprimée sort du montant du jour
+        orderMetrics.removeFromAmountToday(deleted.getCreatedAt(), deleted.getTotalAmount());
+    }
+
+    /**
+     * Commande verrouillée jusqu'à la fin de la transaction en cours, relue en base : l'entité
+     * lue avant la transaction peut être la même instance (open-in-view) avec un état périmé.
+     */
+    private Order lockOrder(Long id) {
+        Order locked = orderRepository.findForUpdate(id)
+                .orElseThrow(() -> new OrderNotFoundException(id));
+        entityManager.refresh(locked);
+        return locked;
+    }
+
+    private static void checkDeletable(Order order) {
         if (order.getStatus() == OrderStatus.DELIVERED
                 || order.getStatus() == OrderStatus.CANCELLED) {
             throw new IllegalStateException(
                     "Impossible de supprimer une commande " + order.getStatus()
             );
         }
+    }
 
-        // ─────────────────────────────────────────────
-        // 3) Suppression
-        // ─────────────────────────────────────────────
-        orderRepository.delete(order);
+    /**
+     * Commande enregistrée et statut qu'elle avait sur la ligne verrouillée.
+     */
+    private record StatusTransition(Order order, OrderStatus oldStatus) {
     }
 }
\ No newline at end of file
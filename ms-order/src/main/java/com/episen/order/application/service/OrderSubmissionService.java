@@ -0,0 +1,166 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderRequestDto;
+import com.episen.order.application.dto.OrderSubmissionDto;
+import com.episen.order.domain.entity.OrderSubmission;
+import com.episen.order.domain.enums.SubmissionStatus;
+import com.episen.order.domain.repository.OrderSubmissionRepository;
+import com.episen.order.infrastructure.exception.OrderSubmissionNotFoundException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * File locale (table order_submissions) des commandes soumises en asynchrone.
+ *
+ * Rôles :
+ *  - enregistrer une soumission (le client reçoit tout de suite un identifiant de suivi) ;
+ *  - réserver des lots de soumissions pour OrderSubmissionWorker ;
+ *  - enregistrer le résultat (commande créée, refus, nouvelle tentative plus tard) ;
+ *  - exposer l'état d'une soumission (GET /api/v1/orders/submissions/{trackingId}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderSubmissionService {
+
+    private final OrderSubmissionRepository orderSubmissionRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Enregistre la commande à créer ; aucun appel distant n'est fait ici.
+     */
+    @Transactional
+    public OrderSubmissionDto submit(OrderRequestDto request) {
+        LocalDateTime now = LocalDateTime.now();
+
+        OrderSubmission submission = OrderSubmission.builder()
+                .id(UUID.randomUUID().toString())
+                .payload(write(request))
+                .status(SubmissionStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .build();
+
+        // persist (et non save/merge) : identifiant attribué ici, pas de SELECT préalable
+        entityManager.persist(submission);
+        entityManager.flush(); // createdAt / updatedAt renseignés pour la réponse
+        log.debug("Soumission {} enregistrée pour userId={}", submission.getId(), request.getUserId());
+        return toDto(submission);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderSubmissionDto getSubmission(String trackingId) {
+        return orderSubmissionRepository.findById(trackingId)
+                .map(this::toDto)
+                .orElseThrow(() -> new OrderSubmissionNotFoundException(trackingId));
+    }
+
+    /**
+     * Réserve jusqu'à `batchSize` soumissions prêtes (PENDING -> PROCESSING).
+     */
+    @Transactional
+    public List<OrderSubmission> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<String> ids = orderSubmissionRepository.findReadyIds(now, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        orderSubmissionRepository.claim(ids, claimToken, now);
+        return orderSubmissionRepository.findByClaimToken(claimToken);
+    }
+
+    @Transactional
+    public void complete(String trackingId, Long orderId) {
+        orderSubmissionRepository.findById(trackingId).ifPresent(submission -> {
+            submission.setStatus(SubmissionStatus.COMPLETED);
+            submission.setOrderId(orderId);
+            submission.setClaimToken(null);
+            submission.setErrorCode(null);
+            submission.setErrorMessage(null);
+        });
+    }
+
+    @Transactional
+    public void fail(String trackingId, String errorCode, String errorMessage) {
+        orderSubmissionRepository.findById(trackingId).ifPresent(submission -> {
+            submission.setStatus(SubmissionStatus.FAILED);
+            submission.setClaimToken(null);
+            submission.setErrorCode(errorCode);
+            submission.setErrorMessage(truncate(errorMessage));
+        });
+    }
+
+    /**
+     * Erreur transitoire (service distant indisponible) : la soumission repart en file, traitée à partir de nextAttemptAt.
+     */
+    @Transactional
+    public void retryLater(String trackingId, String errorCode, String errorMessage, LocalDateTime nextAttemptAt) {
+        orderSubmissionRepository.findById(trackingId).ifPresent(submission -> {
+            submission.setStatus(SubmissionStatus.PENDING);
+            submission.setClaimToken(null);
+            submission.setNextAttemptAt(nextAttemptAt);
+            submission.setErrorCode(errorCode);
+            submission.setErrorMessage(truncate(errorMessage));
+        });
+    }
+
+    /**
+     * Remet en file les soumissions PROCESSING depuis plus longtemps que `staleBefore`.
+     */
+    @Transactional
+    public int requeueStale(LocalDateTime staleBefore) {
+        return orderSubmissionRepository.requeueStale(staleBefore, LocalDateTime.now());
+    }
+
+    public OrderRequestDto readRequest(OrderSubmission submission) {
+        try {
+            return objectMapper.readValue(submission.getPayload(), OrderRequestDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Soumission illisible : " + submission.getId(), e);
+        }
+    }
+
+    private String write(OrderRequestDto request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Commande non sérialisable", e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 500) {
+            return message;
+        }
+        return message.substring(0, 500);
+    }
+
+    private OrderSubmissionDto toDto(OrderSubmission submission) {
+        return OrderSubmissionDto.builder()
+                .trackingId(submission.getId())
+                .status(submission.getStatus())
+                .attempts(submission.getAttempts())
+                .orderId(submission.getOrderId())
+                .errorCode(submission.getErrorCode())
+                .errorMessage(submission.getErrorMessage())
+                .createdAt(submission.getCreatedAt())
+                .updatedAt(submission.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,260 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderItemRequestDto;
+import com.episen.order.application.dto.OrderRequestDto;
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.domain.entity.OrderSubmission;
+import com.episen.order.infrastructure.cache.ProductCatalogCache;
+import com.episen.order.infrastructure.cache.UserExistenceCache;
+import com.episen.order.infrastructure.exception.IdempotencyKeyInProgressException;
+import com.episen.order.infrastructure.exception.InsufficientStockException;
+import com.episen.order.infrastructure.exception.ProductNotFoundException;
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.exception.UserNotFoundException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Traitement des commandes soumises en asynchrone (POST /api/v1/orders/submissions).
+ *
+ * Fonctionnement :
+ *  - toutes les `poll-interval-ms`, réserve un lot de soumissions prêtes (au plus `batch-size`) ;
+ *  - appels distants groupés pour le lot : une lecture groupée du catalogue pour tous les produits
+ *    du lot, une lecture par utilisateur distinct ; les créations trouvent ensuite nom, prix et
+ *    utilisateur dans les caches locaux ;
+ *  - chaque commande est créée par OrderIdempotencyService, avec l'identifiant de suivi comme
+ *    clé d'idempotence, sur le pool de workers ; la réservation de stock reste une par commande
+ *    (tout ou rien) ;
+ *  - au plus `workers` créations simultanées : pool fixe en threads plateforme, sémaphore en
+ *    threads virtuels (un thread virtuel par création) ;
+ *  - le lot suivant n'est réservé qu'une fois le lot courant terminé : le débit vers ms-product
+ *    et ms-membership est borné, quel que soit le pic de soumissions.
+ *
+ * Résultat d'une soumission :
+ *  - COMPLETED : commande créée (orderId) ;
+ *  - FAILED    : refus métier, avec le code de l'API synchrone (USER_NOT_FOUND, PRODUCT_NOT_FOUND,
+ *                INSUFFICIENT_STOCK, INVALID_REQUEST) ;
+ *  - PENDING   : service distant indisponible, nouvelle tentative après `retry-delay`
+ *                (FAILED SERVICE_UNAVAILABLE après `max-attempts`).
+ *
+ * Une soumission restée PROCESSING plus de `processing-timeout` (instance arrêtée en cours
+ * de traitement) est remise en file. Si la commande avait déjà été créée, la clé d'idempotence
+ * rend cette commande au lieu d'en créer une seconde. Cela suppose le store d'idempotence jpa
+ * (app.orders.idempotency.store) quand plusieurs instances tournent ou après un redémarrage.
+ */
+@Slf4j
+@Component
+public class OrderSubmissionWorker {
+
+    /** Clés d'idempotence des soumissions, séparées de celles des clients (en-tête Idempotency-Key) */
+    static final String IDEMPOTENCY_KEY_PREFIX = "submission:";
+
+    private final OrderSubmissionService orderSubmissionService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final UserExistenceCache userExistenceCache;
+    private final ProductCatalogCache productCatalogCache;
+
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration processingTimeout;
+    private final Duration prefetchTimeout;
+
+    public OrderSubmissionWorker(OrderSubmissionService orderSubmissionService,
+                                 OrderIdempotencyService orderIdempotencyService,
+                                 UserExistenceCache userExistenceCache,
+                                 ProductCatalogCache productCatalogCache,
+                                 @Value("${app.orders.submissions.workers:8}") int workerCount,
+                                 @Value("${app.orders.submissions.batch-size:50}") int batchSize,
+                                 @Value("${app.orders.submissions.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.orders.submissions.retry-delay:5s}") Duration retryDelay,
+                                 @Value("${app.orders.submissions.processing-timeout:5m}") Duration processingTimeout,
+                                 @Value("${app.clients.fan-out.timeout:5s}") Duration prefetchTimeout,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderSubmissionService = orderSubmissionService;
+        this.orderIdempotencyService = orderIdempotencyService;
+        this.userExistenceCache = userExistenceCache;
+        this.productCatalogCache = productCatalogCache;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.processingTimeout = processingTimeout;
+        this.prefetchTimeout = prefetchTimeout;
+
+        if (virtualThreads) {
+            this.workers = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("order-submission-", 1).factory());
+            this.permits = new Semaphore(workerCount);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+                Thread thread = new Thread(runnable, "order-submission-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.permits = null;
+        }
+    }
+
+    /**
+     * Traite les soumissions en attente, lot par lot, jusqu'à vider la file.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.submissions.poll-interval-ms:200}")
+    public void drain() {
+        List<OrderSubmission> batch;
+        do {
+            batch = orderSubmissionService.claimBatch(batchSize);
+            if (!batch.isEmpty()) {
+                processBatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Remet en file les soumissions dont le traitement a été interrompu.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.submissions.requeue-interval-ms:60000}")
+    public void requeueStale() {
+        int requeued = orderSubmissionService.requeueStale(LocalDateTime.now().minus(processingTimeout));
+        if (requeued > 0) {
+            log.warn("{} soumission(s) interrompue(s) remise(s) en file", requeued);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void processBatch(List<OrderSubmission> batch) {
+        log.debug("Traitement d'un lot de {} soumission(s)", batch.size());
+
+        List<Submitted> submitted = new ArrayList<>(batch.size());
+        for (OrderSubmission submission : batch) {
+            try {
+                submitted.add(new Submitted(submission, orderSubmissionService.readRequest(submission)));
+            } catch (IllegalStateException e) {
+                orderSubmissionService.fail(submission.getId(), "INVALID_REQUEST", e.getMessage());
+            }
+        }
+
+        prefetch(submitted);
+
+        CompletableFuture<?>[] tasks = submitted.stream()
+                .map(entry -> CompletableFuture.runAsync(() -> processBounded(entry), workers))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).join();
+    }
+
+    /**
+     * Appels distants groupés pour tout le lot (caches locaux) ; une erreur ici est ignorée :
+     * chaque création refait ses propres lectures et traite l'erreur elle-même.
+     */
+    private void prefetch(List<Submitted> submitted) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (Submitted entry : submitted) {
+            userIds.add(entry.request().getUserId());
+            for (OrderItemRequestDto item : entry.request().getItems()) {
+                productIds.add(item.getProductId());
+            }
+        }
+
+        List<CompletableFuture<?>> lookups = new ArrayList<>();
+        lookups.add(productCatalogCache.getProductsByIdsAsync(productIds));
+        for (Long userId : userIds) {
+            lookups.add(userExistenceCache.getUser(userId));
+        }
+
+        try {
+            CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                    .get(prefetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Pré-chargement du lot incomplet : {}", e.getMessage());
+        }
+    }
+
+    private void processBounded(Submitted entry) {
+        if (permits == null) {
+            process(entry);
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            // arrêt en cours : la soumission reste PROCESSING et sera remise en file
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            process(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void process(Submitted entry) {
+        String trackingId = entry.submission().getId();
+        try {
+            OrderResponseDto order = orderIdempotencyService
+                    .createOrder(IDEMPOTENCY_KEY_PREFIX + trackingId, entry.request())
+                    .order();
+            orderSubmissionService.complete(trackingId, order.getId());
+            log.debug("Soumission {} traitée : commande {}", trackingId, order.getId());
+        } catch (UserNotFoundException e) {
+            orderSubmissionService.fail(trackingId, "USER_NOT_FOUND", e.getMessage());
+        } catch (ProductNotFoundException e) {
+            orderSubmissionService.fail(trackingId, "PRODUCT_NOT_FOUND", e.getMessage());
+        } catch (InsufficientStockException e) {
+            orderSubmissionService.fail(trackingId, "INSUFFICIENT_STOCK", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            orderSubmissionService.fail(trackingId, "INVALID_REQUEST", e.getMessage());
+        } catch (ServiceUnavailableException | RestClientException | IdempotencyKeyInProgressException e) {
+            // IdempotencyKeyInProgressException : création encore en cours sur une autre instance
+            retryOrFail(entry.submission(), e);
+        } catch (RuntimeException e) {
+            log.error("Soumission {} en échec", trackingId, e);
+            orderSubmissionService.fail(trackingId, "INTERNAL_ERROR", e.getMessage());
+        }
+    }
+
+    private void retryOrFail(OrderSubmission submission, RuntimeException error) {
+        // attempts compte déjà la tentative en cours (incrémenté à la réservation du lot)
+        if (submission.getAttempts() >= maxAttempts) {
+            log.warn("Soumission {} abandonnée après {} tentatives : {}",
+                    submission.getId(), submission.getAttempts(), error.getMessage());
+            orderSubmissionService.fail(submission.getId(), "SERVICE_UNAVAILABLE", error.getMessage());
+            return;
+        }
+        // attente croissante avec le nombre de tentatives
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(retryDelay.multipliedBy(submission.getAttempts()));
+        orderSubmissionService.retryLater(submission.getId(), "SERVICE_UNAVAILABLE", error.getMessage(), nextAttemptAt);
+    }
+
+    private record Submitted(OrderSubmission submission, OrderRequestDto request) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.domain.entity.OutboxEvent;
+import com.episen.order.domain.repository.OutboxEventRepository;
+import com.episen.order.infrastructure.outbox.OrderEventSink;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publication des événements de l'outbox (order_outbox) vers l'OrderEventSink configuré.
+ *
+ * Toutes les `poll-interval-ms` : lit les `batch-size` événements les plus anciens,
+ * les publie en un lot, puis les supprime (un DELETE ... IN). Les lots s'enchaînent
+ * tant que la table est pleine ; un lot en échec est rejoué au passage suivant.
+ *
+ * Livraison au moins une fois et dans l'ordre des eventId : un arrêt entre la publication
+ * et la suppression fait republier le lot. Le relais suppose une seule instance active
+ * (deux instances publieraient les mêmes événements en double).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventSink orderEventSink;
+    private final int batchSize;
+
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderEventSink orderEventSink,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.batch-size:100}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderEventSink = orderEventSink;
+        this.batchSize = batchSize;
+
+        this.published = Counter.builder("order_outbox_published_total")
+                .description("Événements de commande publiés depuis l'outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("order_outbox_publish_failures_total")
+                .description("Lots d'événements dont la publication a échoué (rejoués)")
+                .register(meterRegistry);
+        log.info("Outbox : événements publiés via {}", orderEventSink.getClass().getSimpleName());
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findOldest(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<OrderEventDto> events = batch.stream().map(OrderEventOutbox::toDto).toList();
+            try {
+                orderEventSink.publish(events);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Publication de {} événement(s) impossible, nouvelle tentative au prochain passage : {}",
+                        events.size(), e.getMessage());
+                return;
+            }
+
+            outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+            published.increment(events.size());
+        } while (batch.size() == batchSize);
+    }
+}
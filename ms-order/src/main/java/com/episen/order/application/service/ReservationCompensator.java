@@ -0,0 +1,168 @@
+package com.episen.order.application.service;
+
+import com.episen.order.domain.entity.ReservationCompensation;
+import com.episen.order.domain.enums.CompensationStatus;
+import com.episen.order.domain.repository.ReservationCompensationRepository;
+import com.episen.order.infrastructure.client.ProductClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Compensation de la saga de création de commande : libérer la réservation de stock
+ * d'une commande qui n'a pas pu être enregistrée.
+ *
+ * Étapes de la saga (createOrder) :
+ *  1. réservation du stock de toutes les lignes (un appel, tout ou rien côté ms-product) ;
+ *  2. enregistrement de la commande (la commande porte reservationId : fin de la saga).
+ * Si l'étape 2 échoue, schedule() inscrit la compensation dans le journal
+ * (reservation_compensations) et rend la main : la commande est refusée sans attendre ms-product.
+ * Une annulation enregistrée alors que ms-product est indisponible (updateOrderStatus)
+ * passe aussi par ce journal.
+ * compensate() rejoue ensuite les libérations en attente, avec une attente croissante
+ * entre deux tentatives, jusqu'à `max-attempts`.
+ *
+ * La libération est idempotente côté ms-product : rejouer une compensation (plusieurs
+ * instances, arrêt après l'appel) ne rend jamais le stock deux fois. Une réservation
+ * inconnue (404) n'a rien à rendre. En dernier recours, l'expiration de la réservation
+ * côté ms-product rend le stock (arrêt entre réservation et journal, journal indisponible).
+ */
+@Slf4j
+@Component
+public class ReservationCompensator {
+
+    private final ReservationCompensationRepository compensationRepository;
+    private final ProductClient productClient;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+
+    private final Counter scheduled;
+    private final Counter released;
+    private final Counter abandoned;
+
+    public ReservationCompensator(ReservationCompensationRepository compensationRepository,
+                                  ProductClient productClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.orders.compensations.batch-size:50}") int batchSize,
+                                  @Value("${app.orders.compensations.max-attempts:10}") int maxAttempts,
+                                  @Value("${app.orders.compensations.base-delay:1s}") Duration baseDelay,
+                                  @Value("${app.orders.compensations.max-delay:5m}") Duration maxDelay) {
+        this.compensationRepository = compensationRepository;
+        this.productClient = productClient;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+
+        this.scheduled = counter(meterRegistry, "scheduled");
+        this.released = counter(meterRegistry, "released");
+        this.abandoned = counter(meterRegistry, "abandoned");
+    }
+
+    /**
+     * Inscrit la libération d'une réservation dans le journal ; elle sera faite en arrière-plan.
+     * Si le journal est indisponible (base en erreur), une libération immédiate est tentée.
+     */
+    public void schedule(String reservationId, String reason) {
+        try {
+            compensationRepository.save(ReservationCompensation.builder()
+                    .reservationId(reservationId)
+                    .reason(reason)
+                    .status(CompensationStatus.PENDING)
+                    .attempts(0)
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build());
+            scheduled.increment();
+            log.info("Libération de la réservation {} planifiée ({})", reservationId, reason);
+        } catch (DataAccessException e) {
+            log.warn("Journal de compensation indisponible, libération immédiate de la réservation {}: {}",
+                    reservationId, e.getMessage());
+            releaseQuietly(reservationId);
+        }
+    }
+
+    /**
+     * Rejoue les compensations arrivées à échéance.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.compensations.poll-interval-ms:1000}")
+    public void compensate() {
+        List<ReservationCompensation> due;
+        do {
+            due = compensationRepository.findDue(LocalDateTime.now(), Limit.of(batchSize));
+            due.forEach(this::attempt);
+        } while (due.size() == batchSize);
+    }
+
+    private void attempt(ReservationCompensation compensation) {
+        compensation.setAttempts(compensation.getAttempts() + 1);
+        try {
+            productClient.releaseReservation(compensation.getReservationId());
+            compensation.setStatus(CompensationStatus.DONE);
+            compensation.setLastError(null);
+            released.increment();
+            log.info("Réservation {} libérée (compensation, tentative {})",
+                    compensation.getReservationId(), compensation.getAttempts());
+        } catch (HttpClientErrorException.NotFound e) {
+            // réservation inconnue de ms-product : aucun stock à rendre
+            compensation.setStatus(CompensationStatus.DONE);
+            compensation.setLastError("Réservation inconnue");
+        } catch (RestClientException e) {
+            compensation.setLastError(truncate(e.getMessage()));
+            if (compensation.getAttempts() >= maxAttempts) {
+                compensation.setStatus(CompensationStatus.FAILED);
+                abandoned.increment();
+                log.error("Compensation abandonnée après {} tentatives, réservation {} (stock rendu à expiration) : {}",
+                        compensation.getAttempts(), compensation.getReservationId(), e.getMessage());
+            } else {
+                compensation.setNextAttemptAt(LocalDateTime.now().plus(delay(compensation.getAttempts())));
+            }
+        }
+        compensationRepository.save(compensation);
+    }
+
+    private void releaseQuietly(String reservationId) {
+        try {
+            productClient.releaseReservation(reservationId);
+        } catch (RestClientException e) {
+            log.warn("Libération de la réservation {} impossible, elle expirera: {}", reservationId, e.getMessage());
+        }
+    }
+
+    /**
+     * Attente avant la tentative suivante : base x 2^(n-1), plafonnée.
+     */
+    private Duration delay(int attempts) {
+        Duration delay = baseDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 500) {
+            return message;
+        }
+        return message.substring(0, 500);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order_reservation_compensations_total")
+                .description("Compensations de réservation de stock (planifiées, libérées, abandonnées)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,227 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.dto.UserOrderSummaryDto;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.UserOrderSummary;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.projection.OrderRow;
+import com.episen.order.domain.projection.OrderStatusTotals;
+import com.episen.order.domain.repository.OrderReadRepository;
+import com.episen.order.domain.repository.UserOrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintien et lecture du résumé des commandes par utilisateur (UserOrderSummary).
+ *
+ * Principe :
+ *  - avant une écriture, ensureExists() crée le résumé s'il manque, dans sa propre
+ *    transaction, à partir des commandes déjà en base ;
+ *  - chaque création / changement de statut / suppression applique ensuite sa variation
+ *    par un UPDATE atomique, dans la transaction de la commande ;
+ *  - la lecture ne touche qu'une ligne (+ les N dernières commandes via l'index user_id).
+ *
+ * Toute commande est enregistrée après l'existence du résumé : elle est comptée
+ * par sa variation et jamais par l'agrégat initial (pas de double comptage).
+ */
+@Slf4j
+@Service
+public class UserOrderSummaryService {
+
+    private final UserOrderSummaryRepository summaryRepository;
+    private final OrderReadRepository orderReadRepository;
+    private final OrderItemBatchLoader orderItemBatchLoader;
+    private final OrderMapper orderMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate requiresNew;
+
+    public UserOrderSummaryService(UserOrderSummaryRepository summaryRepository,
+                                   OrderReadRepository orderReadRepository,
+                                   OrderItemBatchLoader orderItemBatchLoader,
+                                   OrderMapper orderMapper,
+                                   EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.orderReadRepository = orderReadRepository;
+        this.orderItemBatchLoader = orderItemBatchLoader;
+        this.orderMapper = orderMapper;
+        this.entityManager = entityManager;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Crée le résumé de l'utilisateur s'il n'existe pas encore.
+     * A appeler avant la transaction qui écrit la commande.
+     */
+    public void ensureExists(Long userId) {
+
+        if (summaryRepository.existsById(userId)) {
+            return;
+        }
+
+        try {
+            // persist (et non save/merge) : un résumé créé entre-temps provoque un conflit
+            // de clé au commit au lieu d'être écrasé
+            requiresNew.executeWithoutResult(status -> entityManager.persist(build(userId)));
+            log.debug("Résumé des commandes créé pour l'utilisateur {}", userId);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Résumé des commandes de l'utilisateur {} déjà créé par une autre requête", userId);
+        }
+    }
+
+    /**
+     * Nouvelle commande : +1 commande, +1 dans son statut, montant ajouté (sauf annulée).
+     */
+    @Transactional
+    public void onOrderCreated(Order order) {
+        Map<OrderStatus, Long> statusDelta = new EnumMap<>(OrderStatus.class);
+        statusDelta.put(order.getStatus(), 1L);
+
+        LocalDateTime orderedAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+
+        apply(order.getUserId(), 1, spentAmount(order.getStatus(), order.getTotalAmount()), statusDelta, orderedAt);
+    }
+
+    /**
+     * Changement de statut : la commande passe d'un compteur à l'autre ; une annulation
+     * retire son montant du cumul.
+     */
+    @Transactional
+    public void onStatusChanged(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+
+        Map<OrderStatus, Long> statusDelta = new EnumMap<>(OrderStatus.class);
+        statusDelta.put(oldStatus, -1L);
+        statusDelta.put(newStatus, 1L);
+
+        BigDecimal spent = spentAmount(newStatus, order.getTotalAmount())
+                .subtract(spentAmount(oldStatus, order.getTotalAmount()));
+
+        apply(order.getUserId(), 0, spent, statusDelta, null);
+    }
+
+    /**
+     * Suppression : -1 commande, -1 dans son statut, montant retiré (sauf annulée).
+     */
+    @Transactional
+    public void onOrderDeleted(Order order) {
+        Map<OrderStatus, Long> statusDelta = new EnumMap<>(OrderStatus.class);
+        statusDelta.put(order.getStatus(), -1L);
+
+        apply(order.getUserId(), -1, spentAmount(order.getStatus(), order.getTotalAmount()).negate(), statusDelta, null);
+    }
+
+    /**
+     * Résumé des commandes d'un utilisateur et ses dernières commandes.
+     * Sans résumé (aucune écriture depuis sa mise en place), il est calculé à la volée
+     * depuis la table orders, sans être enregistré.
+     */
+    @Transactional(readOnly = true)
+    public UserOrderSummaryDto getSummary(Long userId, int recentLimit) {
+
+        UserOrderSummary summary = summaryRepository.findById(userId)
+                .orElseGet(() -> build(userId));
+
+        List<OrderRow> recent = recentLimit > 0
+                ? orderReadRepository.findRecentByUserId(userId, Limit.of(recentLimit))
+                : List.of();
+        List<OrderResponseDto> recentOrders = orderMapper.toDtos(recent, orderItemBatchLoader.loadItems(recent));
+
+        Map<OrderStatus, Long> countsByStatus = new EnumMap<>(OrderStatus.class);
+        countsByStatus.put(OrderStatus.PENDING, summary.getPendingCount());
+        countsByStatus.put(OrderStatus.CONFIRMED, summary.getConfirmedCount());
+        countsByStatus.put(OrderStatus.SHIPPED, summary.getShippedCount());
+        countsByStatus.put(OrderStatus.DELIVERED, summary.getDeliveredCount());
+        countsByStatus.put(OrderStatus.CANCELLED, summary.getCancelledCount());
+
+        return UserOrderSummaryDto.builder()
+                .userId(userId)
+                .orderCount(summary.getOrderCount())
+                .totalSpent(summary.getTotalSpent())
+                .countsByStatus(countsByStatus)
+                .lastOrderAt(summary.getLastOrderAt())
+                .recentOrders(recentOrders)
+                .build();
+    }
+
+    private void apply(Long userId, long orderCount, BigDecimal spent,
+                       Map<OrderStatus, Long> statusDelta, LocalDateTime lastOrderAt) {
+
+        int updated = summaryRepository.applyDelta(
+                userId,
+                orderCount,
+                spent,
+                statusDelta.getOrDefault(OrderStatus.PENDING, 0L),
+                statusDelta.getOrDefault(OrderStatus.CONFIRMED, 0L),
+                statusDelta.getOrDefault(OrderStatus.SHIPPED, 0L),
+                statusDelta.getOrDefault(OrderStatus.DELIVERED, 0L),
+                statusDelta.getOrDefault(OrderStatus.CANCELLED, 0L),
+                lastOrderAt,
+                LocalDateTime.now());
+
+        // Résumé absent : la lecture le recalculera depuis la table orders
+        if (updated == 0) {
+            log.warn("Résumé des commandes absent pour l'utilisateur {} : variation ignorée", userId);
+        }
+    }
+
+    /**
+     * Résumé calculé depuis la table orders (agrégats par statut).
+     */
+    private UserOrderSummary build(Long userId) {
+
+        UserOrderSummary summary = UserOrderSummary.builder()
+                .userId(userId)
+                .totalSpent(BigDecimal.ZERO)
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        for (OrderStatusTotals totals : summaryRepository.aggregateByStatus(userId)) {
+            long count = totals.count();
+            summary.setOrderCount(summary.getOrderCount() + count);
+            summary.setTotalSpent(summary.getTotalSpent().add(spentAmount(totals.status(), totals.amount())));
+
+            switch (totals.status()) {
+                case PENDING -> summary.setPendingCount(count);
+                case CONFIRMED -> summary.setConfirmedCount(count);
+                case SHIPPED -> summary.setShippedCount(count);
+                case DELIVERED -> summary.setDeliveredCount(count);
+                case CANCELLED -> summary.setCancelledCount(count);
+            }
+
+            if (summary.getLastOrderAt() == null
+                    || (totals.lastOrderAt() != null && totals.lastOrderAt().isAfter(summary.getLastOrderAt()))) {
+                summary.setLastOrderAt(totals.lastOrderAt());
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Montant compté dans le cumul : celui de la commande, sauf si elle est annulée.
+     */
+    private static BigDecimal spentAmount(OrderStatus status, BigDecimal amount) {
+        if (status == OrderStatus.CANCELLED || amount == null) {
+            return BigDecimal.ZERO;
+        }
+        return amount;
+    }
+}
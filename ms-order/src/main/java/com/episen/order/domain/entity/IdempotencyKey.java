@@ -0,0 +1,40 @@
+package com.episen.order.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clé d'idempotence de POST /api/v1/orders (store jpa).
+- idempotencyKey: String (en-tête Idempotency-Key, clé primaire)
+- fingerprint: String (empreinte SHA-256 du corps de la requête)
+- owner: String (jeton de la requête qui a réservé la clé)
+- response: String (OrderResponseDto en JSON, null tant que la création est en cours)
+- createdAt: LocalDateTime (la clé expire après app.orders.idempotency.ttl)
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "owner_token", nullable = false, length = 36)
+    private String owner;
+
+    @Lob
+    @Column(name = "response")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
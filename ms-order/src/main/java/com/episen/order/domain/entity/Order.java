@@ -20,13 +20,14 @@ import java.util.List;
 - status: OrderStatus (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)
 - totalAmount: BigDecimal
 - shippingAddress: String (obligatoire)
+- reservationId: String (réservation de stock ms-product, confirmée ou libérée avec la commande)
 - createdAt: LocalDateTime
 - updatedAt: LocalDateTime
  */
 
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_id", columnList = "user_id, created_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,8 +35,10 @@ import java.util.List;
 
 public class Order {
 
+    /** Séquence orders_seq par blocs de 50 (pooled-lo) : INSERT groupés par JDBC batch */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     /** UserID --> Référence vers l'utilisateur (ms-Membership) */
@@ -60,6 +63,10 @@ public class Order {
     @Column(name = "shipping_address", nullable = false, length = 300)
     private String shippingAddress;
 
+    /** Réservation de stock (ms-product) : HELD tant que la commande est PENDING */
+    @Column(name = "reservation_id", length = 36)
+    private String reservationId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -31,8 +31,10 @@ import java.time.LocalDateTime;
 @Builder
 public class OrderItem {
 
+    /** Séquence order_items_seq par blocs de 50 (pooled-lo) : INSERT groupés par JDBC batch */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     /** Référence vers la commande  */
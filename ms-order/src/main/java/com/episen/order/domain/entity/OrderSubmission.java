@@ -0,0 +1,69 @@
+package com.episen.order.domain.entity;
+
+import com.episen.order.domain.enums.SubmissionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Soumission asynchrone de commande (file locale en base, traitée par OrderSubmissionWorker).
+- id: String (identifiant de suivi renvoyé au client, UUID)
+- payload: String (OrderRequestDto en JSON)
+- status: SubmissionStatus (PENDING, PROCESSING, COMPLETED, FAILED)
+- attempts: int (tentatives de traitement déjà faites)
+- nextAttemptAt: LocalDateTime (pas de traitement avant cette date)
+- claimToken: String (lot du worker qui traite la soumission)
+- orderId: Long (commande créée, si COMPLETED)
+- errorCode / errorMessage: String (motif du refus, si FAILED)
+- createdAt / updatedAt: LocalDateTime
+ */
+@Entity
+@Table(name = "order_submissions",
+        indexes = @Index(name = "idx_order_submissions_ready", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSubmission {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SubmissionStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "error_code", length = 50)
+    private String errorCode;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,58 @@
+package com.episen.order.domain.entity;
+
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Événement de commande en attente de publication (outbox transactionnelle).
+- id: Long (ordre d'écriture, identifiant de l'événement pour les consommateurs)
+- eventType: OrderEventType (ORDER_CREATED, ORDER_STATUS_CHANGED, ORDER_DELETED)
+- orderId / userId: Long
+- status: OrderStatus (statut après l'événement, null pour une suppression)
+- previousStatus: OrderStatus (statut avant l'événement, null pour une création)
+- totalAmount: BigDecimal
+- occurredAt: LocalDateTime
+ *
+ * Écrit dans la transaction de la commande, supprimé une fois publié (OutboxRelay).
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderEventType eventType;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private OrderStatus previousStatus;
+
+    @Column(name = "total_amount")
+    private BigDecimal totalAmount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,62 @@
+package com.episen.order.domain.entity;
+
+import com.episen.order.domain.enums.CompensationStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Étape de compensation de la saga de création de commande : rendre le stock réservé
+ * d'une commande qui n'a pas pu être enregistrée (journal persisté, rejoué par ReservationCompensator).
+- id: Long
+- reservationId: String (réservation ms-product à libérer, unique)
+- reason: String (étape de la saga en échec)
+- status: CompensationStatus (PENDING, DONE, FAILED)
+- attempts: int (libérations déjà tentées)
+- nextAttemptAt: LocalDateTime (pas de tentative avant cette date)
+- lastError: String (dernière erreur de libération)
+- createdAt / updatedAt: LocalDateTime
+ */
+@Entity
+@Table(name = "reservation_compensations",
+        indexes = @Index(name = "idx_reservation_compensations_due", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationCompensation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reservation_id", nullable = false, unique = true, length = 64)
+    private String reservationId;
+
+    @Column(name = "reason", nullable = false, length = 50)
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CompensationStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
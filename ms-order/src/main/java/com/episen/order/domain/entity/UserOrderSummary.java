@@ -0,0 +1,60 @@
+package com.episen.order.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Résumé des commandes d'un utilisateur (modèle de lecture matérialisé).
+- userId: Long (clé : une ligne par utilisateur)
+- orderCount: long (commandes existantes, tous statuts)
+- totalSpent: BigDecimal (montant cumulé des commandes non annulées)
+- pendingCount ... cancelledCount: long (commandes par statut)
+- lastOrderAt: LocalDateTime (date de la dernière commande passée)
+- updatedAt: LocalDateTime
+ *
+ * Maintenu de façon incrémentale, dans la même transaction que la commande
+ * (création, changement de statut, suppression) : la page compte d'un utilisateur
+ * lit une ligne au lieu de parcourir toutes ses commandes.
+ */
+@Entity
+@Table(name = "user_order_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOrderSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_spent", nullable = false)
+    private BigDecimal totalSpent;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "confirmed_count", nullable = false)
+    private long confirmedCount;
+
+    @Column(name = "shipped_count", nullable = false)
+    private long shippedCount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private long deliveredCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "last_order_at")
+    private LocalDateTime lastOrderAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
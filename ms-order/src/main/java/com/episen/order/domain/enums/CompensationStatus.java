@@ -0,0 +1,10 @@
+package com.episen.order.domain.enums;
+
+/**
+ * Statuts d'une compensation de réservation de stock (journal de saga).
+ */
+public enum CompensationStatus {
+    PENDING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.episen.order.domain.enums;
+
+/**
+ * Types d'événements de commande publiés par l'outbox.
+ */
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    ORDER_DELETED
+}
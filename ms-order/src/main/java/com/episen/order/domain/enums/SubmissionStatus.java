@@ -0,0 +1,11 @@
+package com.episen.order.domain.enums;
+
+/**
+ * Statuts d'une soumission asynchrone de commande (POST /api/v1/orders/submissions).
+ */
+public enum SubmissionStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
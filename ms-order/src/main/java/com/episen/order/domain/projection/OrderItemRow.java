@@ -0,0 +1,17 @@
+package com.episen.order.domain.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne de lecture d'un item de commande, avec l'id de sa commande pour le regroupement.
+ */
+public record OrderItemRow(
+        Long orderId,
+        Long id,
+        Long productId,
+        String productName,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal subtotal
+) {
+}
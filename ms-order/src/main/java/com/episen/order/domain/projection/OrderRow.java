@@ -0,0 +1,24 @@
+package com.episen.order.domain.projection;
+
+import com.episen.order.domain.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de lecture d'une commande (sans ses items).
+ *
+ * Construite directement par la requête (expression constructeur JPQL) : pas d'entité
+ * gérée, donc ni proxy, ni instantané pour le dirty checking, ni collection LAZY.
+ */
+public record OrderRow(
+        Long id,
+        Long userId,
+        LocalDateTime orderDate,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        String shippingAddress,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
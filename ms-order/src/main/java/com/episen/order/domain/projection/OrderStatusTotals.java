@@ -0,0 +1,18 @@
+package com.episen.order.domain.projection;
+
+import com.episen.order.domain.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégats des commandes d'un utilisateur pour un statut donné
+ * (reconstruction du résumé UserOrderSummary depuis la table orders).
+ */
+public record OrderStatusTotals(
+        OrderStatus status,
+        Long count,
+        BigDecimal amount,
+        LocalDateTime lastOrderAt
+) {
+}
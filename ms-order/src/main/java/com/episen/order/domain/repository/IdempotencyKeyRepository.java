@@ -0,0 +1,47 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Supprime une clé si elle a expiré, ou si sa création est restée en cours au-delà
+     * de inProgressBefore (instance arrêtée) : elle peut alors être réutilisée.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.idempotencyKey = :key"
+            + " AND (k.createdAt < :before OR (k.response IS NULL AND k.createdAt < :inProgressBefore))")
+    int deleteExpired(@Param("key") String key,
+                      @Param("before") LocalDateTime before,
+                      @Param("inProgressBefore") LocalDateTime inProgressBefore);
+
+    /**
+     * Enregistre la réponse si la clé appartient toujours à owner.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.response = :response"
+            + " WHERE k.idempotencyKey = :key AND k.owner = :owner")
+    int completeOwned(@Param("key") String key,
+                      @Param("owner") String owner,
+                      @Param("response") String response);
+
+    /**
+     * Supprime la clé si elle appartient toujours à owner.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.idempotencyKey = :key AND k.owner = :owner")
+    int deleteOwned(@Param("key") String key, @Param("owner") String owner);
+
+    /**
+     * Supprime toutes les clés expirées.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int purgeExpired(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,85 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.projection.OrderItemRow;
+import com.episen.order.domain.projection.OrderRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Lectures en masse des commandes (listes, export), côté lecture uniquement.
+ *
+ * Les requêtes sélectionnent directement les colonnes utiles dans des records
+ * (OrderRow, OrderItemRow) au lieu d'hydrater des entités Order / OrderItem :
+ * rien n'est ajouté au contexte de persistance. Les items sont lus à part,
+ * en une requête IN (...) par page.
+ *
+ * A appeler dans une transaction en lecture seule (pas de flush).
+ */
+public interface OrderReadRepository extends Repository<Order, Long> {
+
+    String ORDER_ROW = """
+        SELECT new com.episen.order.domain.projection.OrderRow(
+            o.id, o.userId, o.orderDate, o.status, o.totalAmount,
+            o.shippingAddress, o.createdAt, o.updatedAt)
+        FROM Order o
+        """;
+
+    /**
+     * Page de commandes par curseur (keyset) : id strictement supérieur à after, tri par id.
+     */
+    @Query(ORDER_ROW + "WHERE o.id > :after ORDER BY o.id")
+    List<OrderRow> findPage(@Param("after") Long after, Limit limit);
+
+    /**
+     * Commandes d'un utilisateur, triées par id.
+     */
+    @Query(ORDER_ROW + "WHERE o.userId = :userId ORDER BY o.id")
+    List<OrderRow> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Dernières commandes d'un utilisateur, de la plus récente à la plus ancienne
+     * (index orders(user_id, created_at)). Tri par date de création et non par id :
+     * les ids sont alloués par blocs de 50 par instance et ne suivent pas l'ordre de création.
+     */
+    @Query(ORDER_ROW + "WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderRow> findRecentByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Commandes d'un statut donné, triées par id.
+     */
+    @Query(ORDER_ROW + "WHERE o.status = :status ORDER BY o.id")
+    List<OrderRow> findByStatus(@Param("status") OrderStatus status);
+
+    /**
+     * Parcourt les commandes d'id strictement supérieur à after, triées par id, via un
+     * curseur JDBC (lignes lues par paquets de fetch size).
+     *
+     * A consommer dans une transaction, et à fermer (try-with-resources).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ORDER_ROW + "WHERE o.id > :after ORDER BY o.id")
+    Stream<OrderRow> streamAfter(@Param("after") Long after);
+
+    /**
+     * Items de plusieurs commandes en une seule requête, triés par commande puis par id.
+     */
+    @Query("""
+        SELECT new com.episen.order.domain.projection.OrderItemRow(
+            i.order.id, i.id, i.productId, i.productName, i.quantity, i.unitPrice, i.subtotal)
+        FROM OrderItem i
+        WHERE i.order.id IN :orderIds
+        ORDER BY i.order.id, i.id
+        """)
+    List<OrderItemRow> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -3,12 +3,16 @@ package com.episen.order.domain.repository;
 
 import com.episen.order.domain.entity.Order;
 import com.episen.order.domain.enums.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -23,6 +27,33 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findByStatus(OrderStatus status);
 
+    /*
+     * Variantes avec les items chargés dans la même requête (jointure via entity graph),
+     * pour éviter un SELECT par commande au moment du mapping.
+     * Les lectures de listes passent par OrderReadRepository (projections, sans entités).
+     */
+
+    /**
+     * Récupère une commande en verrouillant sa ligne (SELECT ... FOR UPDATE) jusqu'à la fin
+     * de la transaction : deux changements de statut ou suppressions simultanés de la même
+     * commande s'exécutent l'un après l'autre.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findForUpdate(@Param("id") Long id);
+
+    /**
+     * Récupère une commande avec ses items.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * Récupère toutes les commandes d'un utilisateur avec leurs items.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByUserId(Long userId);
+
    
      /**
      *  fais la somme des 
@@ -33,17 +64,19 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     /**
      * Calcule le montant total des commandes sur une période donnée.
      *
-     * Cette méthode est utilisée pour alimenter une métrique de type Gauge
+     * Cette méthode est utilisée pour initialiser et réconcilier une métrique de type Gauge
      * (ex : montant total des commandes du jour).
      *
      * Fonctionnement :
      * - On filtre les commandes dont la date de création est comprise
      *   entre deux bornes temporelles (start inclus, end exclu)
+     * - On écarte les commandes dans le statut exclu (ex : CANCELLED)
      * - On fait la somme du champ totalAmount côté base de données
      * - COALESCE permet d'éviter un retour null si aucune commande n'existe
      *
-     * @param start date/heure de début de la période
-     * @param end   date/heure de fin de la période
+     * @param start    date/heure de début de la période
+     * @param end      date/heure de fin de la période
+     * @param excluded statut des commandes à ne pas compter
      * @return somme des montants des commandes sur la période
      */
     @Query("""
@@ -51,8 +84,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         FROM Order o
         WHERE o.createdAt >= :start
         AND o.createdAt < :end
+        AND o.status <> :excluded
     """)
     Double sumTotalAmountBetween(@Param("start") LocalDateTime start,
-                                @Param("end") LocalDateTime end);
+                                @Param("end") LocalDateTime end,
+                                @Param("excluded") OrderStatus excluded);
 
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.OrderSubmission;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSubmissionRepository extends JpaRepository<OrderSubmission, String> {
+
+    /**
+     * Soumissions prêtes à être traitées, les plus anciennes d'abord.
+     */
+    @Query("""
+        SELECT s.id FROM OrderSubmission s
+        WHERE s.status = com.episen.order.domain.enums.SubmissionStatus.PENDING
+          AND s.nextAttemptAt <= :now
+        ORDER BY s.createdAt
+    """)
+    List<String> findReadyIds(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Réserve un lot pour un worker : seules les soumissions encore PENDING passent en PROCESSING
+     * (deux instances ne traitent jamais la même soumission).
+     *
+     * @return nombre de soumissions réservées
+     */
+    @Modifying
+    @Query("""
+        UPDATE OrderSubmission s
+        SET s.status = com.episen.order.domain.enums.SubmissionStatus.PROCESSING,
+            s.claimToken = :claimToken,
+            s.attempts = s.attempts + 1,
+            s.updatedAt = :now
+        WHERE s.id IN :ids
+          AND s.status = com.episen.order.domain.enums.SubmissionStatus.PENDING
+    """)
+    int claim(@Param("ids") Collection<String> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now);
+
+    List<OrderSubmission> findByClaimToken(String claimToken);
+
+    /**
+     * Remet en file les soumissions restées PROCESSING (worker arrêté en cours de traitement).
+     */
+    @Modifying
+    @Query("""
+        UPDATE OrderSubmission s
+        SET s.status = com.episen.order.domain.enums.SubmissionStatus.PENDING,
+            s.claimToken = NULL,
+            s.updatedAt = :now
+        WHERE s.status = com.episen.order.domain.enums.SubmissionStatus.PROCESSING
+          AND s.updatedAt < :staleBefore
+    """)
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("now") LocalDateTime now);
+}
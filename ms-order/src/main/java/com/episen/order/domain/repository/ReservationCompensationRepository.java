@@ -0,0 +1,24 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.ReservationCompensation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReservationCompensationRepository extends JpaRepository<ReservationCompensation, Long> {
+
+    /**
+     * Compensations à rejouer, les plus en retard d'abord.
+     */
+    @Query("""
+        SELECT c FROM ReservationCompensation c
+        WHERE c.status = com.episen.order.domain.enums.CompensationStatus.PENDING
+          AND c.nextAttemptAt <= :now
+        ORDER BY c.nextAttemptAt
+    """)
+    List<ReservationCompensation> findDue(@Param("now") LocalDateTime now, Limit limit);
+}
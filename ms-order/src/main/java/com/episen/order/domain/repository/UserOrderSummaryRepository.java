@@ -0,0 +1,61 @@
+package com.episen.order.domain.repository;
+
+import com.episen.order.domain.entity.UserOrderSummary;
+import com.episen.order.domain.projection.OrderStatusTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserOrderSummaryRepository extends JpaRepository<UserOrderSummary, Long> {
+
+    /**
+     * Applique une variation au résumé d'un utilisateur, en un seul UPDATE :
+     * la ligne est verrouillée par la base, deux commandes simultanées du même
+     * utilisateur ne perdent pas de mise à jour.
+     *
+     * @param lastOrderAt nouvelle date de dernière commande, ou null pour la conserver
+     * @return nombre de lignes modifiées (0 si le résumé n'existe pas)
+     */
+    @Modifying
+    @Query("""
+        UPDATE UserOrderSummary s
+        SET s.orderCount = s.orderCount + :orderCount,
+            s.totalSpent = s.totalSpent + :spent,
+            s.pendingCount = s.pendingCount + :pending,
+            s.confirmedCount = s.confirmedCount + :confirmed,
+            s.shippedCount = s.shippedCount + :shipped,
+            s.deliveredCount = s.deliveredCount + :delivered,
+            s.cancelledCount = s.cancelledCount + :cancelled,
+            s.lastOrderAt = COALESCE(:lastOrderAt, s.lastOrderAt),
+            s.updatedAt = :now
+        WHERE s.userId = :userId
+    """)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("orderCount") long orderCount,
+                   @Param("spent") BigDecimal spent,
+                   @Param("pending") long pending,
+                   @Param("confirmed") long confirmed,
+                   @Param("shipped") long shipped,
+                   @Param("delivered") long delivered,
+                   @Param("cancelled") long cancelled,
+                   @Param("lastOrderAt") LocalDateTime lastOrderAt,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Agrégats par statut des commandes d'un utilisateur, calculés sur la table orders
+     * (construction initiale du résumé).
+     */
+    @Query("""
+        SELECT new com.episen.order.domain.projection.OrderStatusTotals(
+            o.status, COUNT(o), SUM(o.totalAmount), MAX(o.createdAt))
+        FROM Order o
+        WHERE o.userId = :userId
+        GROUP BY o.status
+    """)
+    List<OrderStatusTotals> aggregateByStatus(@Param("userId") Long userId);
+}
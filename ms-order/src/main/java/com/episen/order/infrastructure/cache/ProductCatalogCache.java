@@ -0,0 +1,112 @@
+package com.episen.order.infrastructure.cache;
+
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.infrastructure.client.ProductClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Cache local (read-through) du catalogue ms-product devant ProductClient.
+ *
+ * Rôles :
+ *  - servir nom et prix des produits sans appel réseau pour les produits les plus commandés ;
+ *  - ne demander à ms-product que les produits absents du cache (une seule lecture groupée).
+ *
+ * Particularités :
+ *  - taille bornée (app.cache.products.max-size) et expiration après écriture (app.cache.products.ttl) :
+ *    un changement de prix est visible au plus tard après le TTL ;
+ *  - le stock n'est jamais mis en cache (stock = null dans les entrées) : il est vérifié
+ *    par ms-product au moment de la réservation, seule source qui fait foi ;
+ *  - un produit refusé à la réservation est évincé (produit supprimé ou modifié entre-temps) ;
+ *  - métriques Micrometer : cache.gets{result=hit|miss}, cache.evictions, cache.size (cache=products).
+ */
+
+@Slf4j
+@Component
+public class ProductCatalogCache {
+
+    private final ProductClient productClient;
+    private final Cache<Long, ProductDto> cache;
+
+    public ProductCatalogCache(ProductClient productClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.cache.products.max-size:50000}") long maxSize,
+                               @Value("${app.cache.products.ttl:5m}") Duration ttl) {
+        this.productClient = productClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Produit par ID (read-through) ; null si ms-product ne renvoie rien.
+     */
+    public ProductDto getProductById(Long productId) {
+        return cache.get(productId, id -> catalogFields(productClient.getProductById(id)));
+    }
+
+    /**
+     * Produits par IDs : entrées en cache + une lecture groupée pour les absents.
+     * Les IDs inconnus de ms-product sont absents du résultat.
+     */
+    public CompletableFuture<List<ProductDto>> getProductsByIdsAsync(Collection<Long> productIds) {
+        Map<Long, ProductDto> cached = cache.getAllPresent(productIds);
+
+        List<Long> missing = productIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .toList();
+
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(List.copyOf(cached.values()));
+        }
+
+        log.debug("Catalogue : {} produit(s) en cache, {} à lire sur ms-product", cached.size(), missing.size());
+
+        return productClient.getProductsByIdsAsync(missing)
+                .thenApply(fetched -> {
+                    List<ProductDto> products = new ArrayList<>(cached.values());
+                    for (ProductDto product : fetched) {
+                        ProductDto entry = catalogFields(product);
+                        cache.put(entry.getId(), entry);
+                        products.add(entry);
+                    }
+                    return products;
+                });
+    }
+
+    /**
+     * Évince des produits (ex : refusés par ms-product lors de la réservation).
+     */
+    public void evict(Collection<Long> productIds) {
+        cache.invalidateAll(productIds);
+    }
+
+    // copie sans le stock : seuls les champs stables du catalogue sont conservés
+    private static ProductDto catalogFields(ProductDto product) {
+        if (product == null) {
+            return null;
+        }
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .build();
+    }
+}
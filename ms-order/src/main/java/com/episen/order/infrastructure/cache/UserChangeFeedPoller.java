@@ -0,0 +1,75 @@
+package com.episen.order.infrastructure.cache;
+
+import com.episen.order.application.dto.UserChangeDto;
+import com.episen.order.application.dto.UserChangeFeedDto;
+import com.episen.order.infrastructure.client.UserClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Objects;
+
+
+/**
+ * Lecture périodique du flux des changements de ms-membership (GET /api/v1/users/changes)
+ * pour invalider UserExistenceCache.
+ *
+ * Fonctionnement :
+ *  - la position lue est conservée en mémoire ; au premier appel (position inconnue),
+ *    tout le cache est invalidé puis la lecture reprend à la position courante ;
+ *  - reset = true (événements purgés ou base ms-membership réinitialisée) => invalidation complète ;
+ *  - la position peut rester en deçà des changements reçus (trou récent côté ms-membership) :
+ *    ces changements sont alors relus au tour suivant, la lecture s'arrête dès qu'elle n'avance plus ;
+ *  - en cas d'erreur, la position n'avance pas : aucun changement n'est perdu,
+ *    et les entrées restent bornées par leur TTL.
+ */
+
+@Slf4j
+@Component
+public class UserChangeFeedPoller {
+
+    private final UserClient userClient;
+    private final UserExistenceCache userExistenceCache;
+
+    // seul le thread du planificateur lit et écrit la position
+    private volatile Long position;
+
+    public UserChangeFeedPoller(UserClient userClient, UserExistenceCache userExistenceCache) {
+        this.userClient = userClient;
+        this.userExistenceCache = userExistenceCache;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.users.changes.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            UserChangeFeedDto feed;
+            Long previous;
+            do {
+                previous = position;
+                feed = userClient.getUserChanges(position);
+                if (feed == null) {
+                    return;
+                }
+                apply(feed);
+            } while (feed.getChanges() != null && !feed.getChanges().isEmpty()
+                    && !Objects.equals(position, previous));
+        } catch (RestClientException e) {
+            log.warn("Flux des utilisateurs indisponible (position {}): {}", position, e.getMessage());
+        }
+    }
+
+    private void apply(UserChangeFeedDto feed) {
+        if (position == null || feed.isReset()) {
+            log.info("Flux des utilisateurs : invalidation complète du cache, reprise à la position {}",
+                    feed.getPosition());
+            userExistenceCache.invalidateAll();
+        } else if (feed.getChanges() != null) {
+            for (UserChangeDto change : feed.getChanges()) {
+                log.debug("Utilisateur {} {} : invalidation du cache", change.getUserId(), change.getType());
+                userExistenceCache.invalidate(change.getUserId());
+            }
+        }
+        position = feed.getPosition();
+    }
+}
@@ -0,0 +1,88 @@
+package com.episen.order.infrastructure.cache;
+
+import com.episen.order.application.dto.UserDto;
+import com.episen.order.infrastructure.client.UserClient;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+
+/**
+ * Cache local de l'existence des utilisateurs ms-membership devant UserClient.
+ *
+ * Rôles :
+ *  - éviter un appel GET /api/v1/users/{id} par commande pour les utilisateurs qui commandent souvent ;
+ *  - mémoriser aussi les utilisateurs inexistants (404), avec une durée courte.
+ *
+ * Particularités :
+ *  - TTL distincts : app.cache.users.ttl (utilisateur trouvé), app.cache.users.negative-ttl (404) ;
+ *  - coalescence : les commandes simultanées d'un même utilisateur partagent le même appel en cours ;
+ *  - une erreur autre que 404 (service indisponible, timeout) n'est jamais mise en cache ;
+ *  - invalidation par le flux des changements de ms-membership (UserChangeFeedPoller) ;
+ *  - métriques Micrometer : cache.gets{result=hit|miss}, cache.evictions, cache.size (cache=users).
+ */
+
+@Slf4j
+@Component
+public class UserExistenceCache {
+
+    private final UserClient userClient;
+    private final AsyncCache<Long, Optional<UserDto>> cache;
+
+    public UserExistenceCache(UserClient userClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.users.max-size:100000}") long maxSize,
+                              @Value("${app.cache.users.ttl:10m}") Duration ttl,
+                              @Value("${app.cache.users.negative-ttl:30s}") Duration negativeTtl) {
+        this.userClient = userClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<Long, Optional<UserDto>>writing(
+                        (id, user) -> user.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "users");
+    }
+
+    /**
+     * Utilisateur par ID : vide si ms-membership répond 404.
+     * Le futur échoue avec l'exception du client pour toute autre erreur.
+     */
+    public CompletableFuture<Optional<UserDto>> getUser(Long userId) {
+        return cache.get(userId, (id, executor) -> userClient.getUserByIdAsync(id)
+                .handle((user, error) -> {
+                    if (error == null) {
+                        return Optional.ofNullable(user);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (cause instanceof HttpClientErrorException clientError
+                            && clientError.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Optional.empty();
+                    }
+                    throw new CompletionException(cause);
+                }));
+    }
+
+    public void invalidate(Long userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
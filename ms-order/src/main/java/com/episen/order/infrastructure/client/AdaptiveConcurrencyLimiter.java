@@ -0,0 +1,99 @@
+package com.episen.order.infrastructure.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concurrence adaptative (AIMD) vers un service distant.
+ *
+ * Principe :
+ *  - un appel n'est autorisé que si le nombre d'appels en cours est inférieur à la limite ;
+ *  - appel rapide et réussi alors que la limite est utilisée => limite + 1 (augmentation additive) ;
+ *  - appel en échec (5xx, réseau, timeout) ou plus lent que le seuil => limite x backoffRatio
+ *    (diminution multiplicative) ;
+ *  - 4xx : ni hausse ni baisse (le service distant a répondu normalement).
+ *
+ * Ainsi, quand le service distant ralentit, ms-order réduit de lui-même le nombre d'appels
+ * simultanés au lieu d'empiler des threads en attente ; la limite remonte quand il récupère.
+ * Sans verrou (CAS) : utilisable depuis des threads virtuels.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites invalides : min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio doit être dans ]0, 1[ : " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+    }
+
+    /**
+     * Réserve une place ; false si la limite courante est atteinte (l'appel doit être rejeté).
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Appel réussi : la limite augmente s'il a été rapide et que la limite était utilisée,
+     * baisse s'il a dépassé le seuil de latence.
+     */
+    void onSuccess(long latencyNanos) {
+        int used = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (used * 2 >= limit.get()) {
+            // n'augmente pas une limite que le trafic n'utilise pas
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Appel en échec côté service distant (5xx, réseau, timeout) : la limite baisse.
+     */
+    void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * Appel terminé sans information sur la santé du service distant (4xx, annulation).
+     */
+    void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void decrease() {
+        limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+    }
+}
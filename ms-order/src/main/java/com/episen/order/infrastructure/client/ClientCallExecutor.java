@@ -0,0 +1,115 @@
+package com.episen.order.infrastructure.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécuteur borné dédié aux appels sortants vers ms-membership et ms-product.
+ *
+ * Rôles :
+ *  - lancer en parallèle les appels indépendants d'une commande (user + produits) ;
+ *  - borner le nombre d'appels simultanés pour ne pas saturer les services distants ;
+ *  - fournir le délai maximal (deadline) accordé à l'ensemble des appels.
+ *
+ * Deux modes, selon spring.threads.virtual.enabled :
+ *  - threads plateforme : pool fixe + file bornée ; quand la file est pleine, l'appel est
+ *    exécuté par le thread appelant (CallerRunsPolicy) : on dégrade en séquentiel
+ *    plutôt que de rejeter la commande ;
+ *  - threads virtuels : un thread virtuel par appel, la concurrence est bornée par un
+ *    sémaphore (pas de synchronized : un thread virtuel en attente libère son porteur).
+ */
+@Slf4j
+@Component
+public class ClientCallExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public ClientCallExecutor(int maxConcurrency, int queueCapacity, Duration timeout) {
+        this(maxConcurrency, queueCapacity, timeout, false);
+    }
+
+    @Autowired
+    public ClientCallExecutor(@Value("${app.clients.fan-out.max-concurrency:32}") int maxConcurrency,
+                              @Value("${app.clients.fan-out.queue-capacity:256}") int queueCapacity,
+                              @Value("${app.clients.fan-out.timeout:5s}") Duration timeout,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("client-call-", 1).factory());
+            this.permits = new Semaphore(maxConcurrency);
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    maxConcurrency,
+                    maxConcurrency,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "client-call-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy()
+            );
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.permits = null;
+        }
+        this.timeout = timeout;
+        log.info("Exécuteur des appels clients : {} (max {} appels simultanés)",
+                virtualThreads ? "threads virtuels" : "threads plateforme", maxConcurrency);
+    }
+
+    /**
+     * Soumet un appel distant et retourne immédiatement son futur.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(permits == null ? call : bounded(call), executor);
+    }
+
+    /**
+     * Délai maximal accordé à l'ensemble des appels d'une même commande.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Arrêt de l'exécuteur des appels clients");
+        executor.shutdown();
+    }
+
+    private <T> Supplier<T> bounded(Supplier<T> call) {
+        return () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("Appel distant interrompu avant son envoi");
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.DownstreamRejectedException;
+import com.episen.order.infrastructure.metrics.ClientMetrics;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Protection des appels vers un service distant (une instance par service : ms-membership, ms-product).
+ *
+ * Avant l'envoi, trois contrôles, du moins coûteux au plus fin :
+ *  1) circuit breaker (resilience4j) : circuit ouvert => échec immédiat, sans appel réseau ;
+ *  2) bulkhead (resilience4j, sémaphore) : plafond fixe d'appels simultanés vers ce service ;
+ *  3) limite adaptative (AIMD) : plafond qui baisse quand le service ralentit ou échoue.
+ * Un appel refusé lève DownstreamRejectedException (=> 503) sans occuper de thread ni de connexion.
+ *
+ * Après l'appel, le résultat alimente le circuit breaker (4xx ignorés, voir application.yml)
+ * et la limite adaptative. Les appels asynchrones sont suivis jusqu'à la complétion du futur.
+ *
+ * Métriques : celles de resilience4j (état du circuit, permissions du bulkhead), plus
+ * order_client_concurrency_limit, order_client_in_flight et order_client_rejected_total{reason}.
+ */
+@Slf4j
+public class DownstreamGuard {
+
+    private final String client;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ClientMetrics clientMetrics;
+
+    private final Counter rejectedCircuitOpen;
+    private final Counter rejectedBulkheadFull;
+    private final Counter rejectedLimitExceeded;
+
+    public DownstreamGuard(String client,
+                           CircuitBreaker circuitBreaker,
+                           Bulkhead bulkhead,
+                           AdaptiveConcurrencyLimiter limiter,
+                           ClientMetrics clientMetrics,
+                           MeterRegistry meterRegistry) {
+        this.client = client;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.limiter = limiter;
+        this.clientMetrics = clientMetrics;
+
+        this.rejectedCircuitOpen = rejectedCounter(meterRegistry, "circuit_open");
+        this.rejectedBulkheadFull = rejectedCounter(meterRegistry, "bulkhead_full");
+        this.rejectedLimitExceeded = rejectedCounter(meterRegistry, "limit_exceeded");
+
+        Gauge.builder("order_client_concurrency_limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Limite adaptative d'appels simultanés vers le service distant")
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("order_client_in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Appels en cours vers le service distant")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appel bloquant protégé (et mesuré par ClientMetrics).
+     */
+    public <T> T call(Operation operation, Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        try {
+            T result = clientMetrics.record(operation, call);
+            onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onError(System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Appel bloquant protégé, sans résultat.
+     */
+    public void run(Operation operation, Runnable call) {
+        call(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Appel asynchrone protégé : un refus donne un futur en échec, jamais une exception levée.
+     */
+    public <T> CompletableFuture<T> callAsync(Operation operation, Supplier<CompletableFuture<T>> call) {
+        try {
+            acquire();
+        } catch (DownstreamRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = clientMetrics.recordAsync(operation, call);
+        } catch (RuntimeException e) {
+            onError(System.nanoTime() - start, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error == null) {
+                onSuccess(elapsed);
+            } else {
+                onError(elapsed, error);
+            }
+        });
+    }
+
+    private void acquire() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejectedCircuitOpen.increment();
+            throw new DownstreamRejectedException(client, "circuit ouvert");
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            rejectedBulkheadFull.increment();
+            throw new DownstreamRejectedException(client, "trop d'appels simultanés");
+        }
+        if (!limiter.tryAcquire()) {
+            bulkhead.releasePermission();
+            circuitBreaker.releasePermission();
+            rejectedLimitExceeded.increment();
+            log.debug("Appel vers {} refusé : limite adaptative atteinte ({})", client, limiter.getLimit());
+            throw new DownstreamRejectedException(client, "limite de concurrence atteinte");
+        }
+    }
+
+    private void onSuccess(long nanos) {
+        bulkhead.onComplete();
+        limiter.onSuccess(nanos);
+        circuitBreaker.onSuccess(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void onError(long nanos, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        bulkhead.onComplete();
+        if (cause instanceof CancellationException) {
+            // appel abandonné par l'appelant : aucune information sur le service distant
+            limiter.onIgnored();
+            circuitBreaker.releasePermission();
+            return;
+        }
+        if (cause instanceof HttpClientErrorException) {
+            limiter.onIgnored();
+        } else {
+            limiter.onDropped();
+        }
+        // le circuit breaker décide lui-même des exceptions ignorées (ignore-exceptions)
+        circuitBreaker.onError(nanos, TimeUnit.NANOSECONDS, cause);
+    }
+
+    private Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("order_client_rejected_total")
+                .description("Appels vers le service distant refusés avant envoi")
+                .tag("client", client)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
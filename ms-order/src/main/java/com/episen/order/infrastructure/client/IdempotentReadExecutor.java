@@ -0,0 +1,301 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.metrics.ClientMetrics;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Lectures idempotentes vers ms-membership et ms-product (GET utilisateur, GET produit(s)).
+ *
+ * Deux mécanismes contre la latence de queue (p99) :
+ *  - requête doublée (hedging, optionnel) : sans réponse après le p95 observé de l'opération,
+ *    une seconde tentative part ; la première réponse reçue est retenue (variantes asynchrones) ;
+ *  - nouvelles tentatives après erreur réseau ou 5xx, avec attente exponentielle aléatoire
+ *    (full jitter) pour ne pas resynchroniser les clients.
+ *
+ * Toute tentative supplémentaire consomme le budget du service distant (RetryBudget) :
+ * sans budget, l'erreur ou l'attente est rendue telle quelle. Les refus du DownstreamGuard
+ * (circuit ouvert, bulkhead plein) ne sont jamais réessayés.
+ *
+ * Chaque tentative passe par le DownstreamGuard et est mesurée par ClientMetrics.
+ */
+@Slf4j
+@Component
+public class IdempotentReadExecutor {
+
+    /** Nombre de latences conservées par opération pour estimer le p95 */
+    private static final int WINDOW_SIZE = 256;
+    /** En dessous, le p95 n'est pas fiable : pas de doublon */
+    private static final int MIN_SAMPLES = 50;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ClientMetrics clientMetrics;
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayNanos;
+    private final long maxHedgeDelayNanos;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final Map<String, RetryBudget> budgets = new HashMap<>();
+    private final Map<Operation, LatencyWindow> latencies = new EnumMap<>(Operation.class);
+
+    public IdempotentReadExecutor(ClientMetrics clientMetrics,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.clients.reads.hedging.enabled:false}") boolean hedgingEnabled,
+                                  @Value("${app.clients.reads.hedging.min-delay:20ms}") Duration minHedgeDelay,
+                                  @Value("${app.clients.reads.hedging.max-delay:1s}") Duration maxHedgeDelay,
+                                  @Value("${app.clients.reads.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${app.clients.reads.retry.base-backoff:50ms}") Duration baseBackoff,
+                                  @Value("${app.clients.reads.retry.max-backoff:500ms}") Duration maxBackoff,
+                                  @Value("${app.clients.reads.budget.ratio:0.1}") double budgetRatio,
+                                  @Value("${app.clients.reads.budget.max-tokens:10}") int budgetMaxTokens) {
+        this.clientMetrics = clientMetrics;
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.maxHedgeDelayNanos = maxHedgeDelay.toNanos();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+
+        for (Operation operation : Operation.values()) {
+            budgets.computeIfAbsent(operation.client(), client -> new RetryBudget(budgetRatio, budgetMaxTokens));
+            latencies.put(operation, new LatencyWindow());
+
+            Gauge.builder("order_client_hedge_delay", this, executor -> executor.hedgeDelaySeconds(operation))
+                    .description("Délai avant doublement d'une lecture (p95 observé, 0 si inactif)")
+                    .baseUnit("seconds")
+                    .tag("client", operation.client())
+                    .tag("operation", operation.tagValue())
+                    .register(meterRegistry);
+        }
+        budgets.forEach((client, budget) -> Gauge.builder("order_client_retry_budget_tokens", budget, RetryBudget::getTokens)
+                .description("Jetons disponibles pour les doublons et nouvelles tentatives")
+                .tag("client", client)
+                .register(meterRegistry));
+        log.info("Lectures idempotentes : doublement {}, {} tentative(s) max, budget {} %",
+                hedgingEnabled ? "actif" : "inactif", this.maxAttempts, Math.round(budgetRatio * 100));
+    }
+
+    /**
+     * Lecture bloquante : nouvelles tentatives dans le thread appelant (pas de doublon).
+     */
+    public <T> T read(Operation operation, Supplier<T> attempt) {
+        RetryBudget budget = budgets.get(operation.client());
+        budget.deposit();
+
+        for (int attemptNo = 1; ; attemptNo++) {
+            long start = System.nanoTime();
+            try {
+                T result = attempt.get();
+                latencies.get(operation).record(System.nanoTime() - start);
+                return result;
+            } catch (RuntimeException e) {
+                if (!canRetry(operation, budget, e, attemptNo)) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoff(attemptNo));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lecture asynchrone : doublée après le p95 observé si activé, réessayée après erreur.
+     */
+    public <T> CompletableFuture<T> readAsync(Operation operation, Supplier<CompletableFuture<T>> attempt) {
+        RetryBudget budget = budgets.get(operation.client());
+        budget.deposit();
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(operation, budget, attempt, 1, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(Operation operation, RetryBudget budget, Supplier<CompletableFuture<T>> attempt,
+                                  int attemptNo, CompletableFuture<T> result) {
+        hedged(operation, budget, attempt).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (result.isDone() || !canRetry(operation, budget, cause, attemptNo)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            CompletableFuture.delayedExecutor(backoff(attemptNo), TimeUnit.NANOSECONDS)
+                    .execute(() -> attemptAsync(operation, budget, attempt, attemptNo + 1, result));
+        });
+    }
+
+    /**
+     * Une tentative, doublée si elle n'a pas répondu après le p95 observé.
+     * Échoue seulement quand toutes les requêtes parties ont échoué.
+     */
+    private <T> CompletableFuture<T> hedged(Operation operation, RetryBudget budget,
+                                            Supplier<CompletableFuture<T>> attempt) {
+        long delay = hedgeDelayNanos(operation);
+        if (delay <= 0) {
+            return timed(operation, attempt);
+        }
+
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        launch(operation, attempt, first, outstanding, false);
+
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (first.isDone()) {
+                return;
+            }
+            if (!budget.tryWithdraw()) {
+                clientMetrics.incrementRetryBudgetExhausted(operation);
+                return;
+            }
+            outstanding.incrementAndGet();
+            if (first.isDone()) {
+                // la requête initiale a échoué entre-temps : l'erreur est déjà rendue
+                outstanding.decrementAndGet();
+                return;
+            }
+            clientMetrics.incrementHedge(operation);
+            launch(operation, attempt, first, outstanding, true);
+        });
+        return first;
+    }
+
+    private <T> void launch(Operation operation, Supplier<CompletableFuture<T>> attempt,
+                            CompletableFuture<T> first, AtomicInteger outstanding, boolean hedge) {
+        timed(operation, attempt).whenComplete((value, error) -> {
+            if (error == null) {
+                if (first.complete(value) && hedge) {
+                    clientMetrics.incrementHedgeWin(operation);
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                first.completeExceptionally(unwrap(error));
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> timed(Operation operation, Supplier<CompletableFuture<T>> attempt) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((value, error) -> {
+            if (error == null) {
+                latencies.get(operation).record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * Erreur réseau ou 5xx, tentatives restantes et budget disponible.
+     */
+    private boolean canRetry(Operation operation, RetryBudget budget, Throwable error, int attemptNo) {
+        boolean retryable = error instanceof ResourceAccessException || error instanceof HttpServerErrorException;
+        if (!retryable || attemptNo >= maxAttempts) {
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            clientMetrics.incrementRetryBudgetExhausted(operation);
+            return false;
+        }
+        clientMetrics.incrementRetry(operation);
+        log.debug("Nouvelle tentative {} de {} : {}", attemptNo + 1, operation.tagValue(), error.getMessage());
+        return true;
+    }
+
+    /**
+     * Attente aléatoire dans [0, min(max, base x 2^(n-1))] (full jitter).
+     */
+    private long backoff(int attemptNo) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attemptNo - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private long hedgeDelayNanos(Operation operation) {
+        if (!hedgingEnabled) {
+            return 0;
+        }
+        long p95 = latencies.get(operation).p95();
+        return p95 <= 0 ? 0 : Math.clamp(p95, minHedgeDelayNanos, maxHedgeDelayNanos);
+    }
+
+    private double hedgeDelaySeconds(Operation operation) {
+        return hedgeDelayNanos(operation) / 1e9;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Dernières latences réussies d'une opération (tampon circulaire) ; p95 recalculé au plus
+     * une fois par seconde, 0 tant que l'échantillon est trop petit.
+     */
+    private static final class LatencyWindow {
+
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicLong count = new AtomicLong();
+
+        private volatile long p95;
+        private volatile long computedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+
+        void record(long nanos) {
+            samples.set((int) (count.getAndIncrement() % WINDOW_SIZE), nanos);
+        }
+
+        long p95() {
+            long now = System.nanoTime();
+            if (now - computedAt >= DELAY_REFRESH_NANOS) {
+                computedAt = now;
+                p95 = compute();
+            }
+            return p95;
+        }
+
+        private long compute() {
+            int size = (int) Math.min(count.get(), WINDOW_SIZE);
+            if (size < MIN_SAMPLES) {
+                return 0;
+            }
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(size * 0.95) - 1];
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationRequestDto;
+import com.episen.order.application.dto.StockReservationResponseDto;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Client non bloquant (java.net.http.HttpClient) vers ms-product, activé par app.clients.mode=async.
+ *
+ * Particularités :
+ *  - même contrat que RestTemplateProductClient (URLs, découpage des lectures groupées, erreurs) ;
+ *  - les lectures groupées découpées partent en parallèle puis sont recombinées dans l'ordre ;
+ *  - les variantes bloquantes attendent simplement le futur ;
+ *  - chaque appel est protégé et mesuré par le DownstreamGuard du service jusqu'à la complétion de son futur.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.clients.mode", havingValue = "async")
+public class JdkHttpProductClient implements ProductClient {
+
+    private final JdkHttpTransport transport;
+    private final DownstreamGuard guard;
+    private final IdempotentReadExecutor reads;
+    private final String productBaseUrl;
+    private final int batchSize;
+
+    public JdkHttpProductClient(JdkHttpTransport transport,
+                                @Qualifier("productClientGuard") DownstreamGuard guard,
+                                IdempotentReadExecutor reads,
+                                @Value("${app.clients.product.base-url}") String productBaseUrl,
+                                @Value("${app.clients.product.batch-size:100}") int batchSize) {
+        this.transport = transport;
+        this.guard = guard;
+        this.reads = reads;
+        this.productBaseUrl = productBaseUrl;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ProductDto getProductById(Long productId) {
+        return JdkHttpTransport.join(getProductByIdAsync(productId));
+    }
+
+    // GET /api/v1/products/{id} (lecture idempotente : doublée, réessayée)
+    @Override
+    public CompletableFuture<ProductDto> getProductByIdAsync(Long productId) {
+        URI uri = URI.create(productBaseUrl + "/api/v1/products/" + productId);
+        log.info("GET {} - Récupération produit {}", uri, productId);
+        return reads.readAsync(Operation.GET_PRODUCT, () -> guard.callAsync(Operation.GET_PRODUCT,
+                () -> transport.send(transport.get(uri), ProductDto.class)));
+    }
+
+    @Override
+    public List<ProductDto> getProductsByIds(Collection<Long> productIds) {
+        return JdkHttpTransport.join(getProductsByIdsAsync(productIds));
+    }
+
+    // GET /api/v1/products?ids=1&ids=2... (lecture idempotente : doublée, réessayée)
+    @Override
+    public CompletableFuture<List<ProductDto>> getProductsByIdsAsync(Collection<Long> productIds) {
+        return reads.readAsync(Operation.GET_PRODUCTS,
+                () -> guard.callAsync(Operation.GET_PRODUCTS, () -> fetchProductsByIds(productIds)));
+    }
+
+    private CompletableFuture<List<ProductDto>> fetchProductsByIds(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        List<CompletableFuture<ProductDto[]>> pages = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            URI uri = UriComponentsBuilder.fromUriString(productBaseUrl)
+                    .path("/api/v1/products")
+                    .queryParam("ids", chunk.toArray())
+                    .build()
+                    .toUri();
+
+            log.info("GET {} - Récupération groupée de {} produits", uri, chunk.size());
+            pages.add(transport.send(transport.get(uri), ProductDto[].class));
+        }
+
+        return CompletableFuture.allOf(pages.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<ProductDto> products = new ArrayList<>(ids.size());
+                    for (CompletableFuture<ProductDto[]> page : pages) {
+                        ProductDto[] content = page.join();
+                        if (content != null) {
+                            products.addAll(Arrays.asList(content));
+                        }
+                    }
+                    return products;
+                });
+    }
+
+    @Override
+    public StockReservationResponseDto reserveStock(List<StockReservationLineDto> lines) {
+        return JdkHttpTransport.join(reserveStockAsync(lines));
+    }
+
+    // POST /api/v1/products/stock/reservations
+    // 409 => corps lu comme un refus ligne par ligne (reserved = false)
+    @Override
+    public CompletableFuture<StockReservationResponseDto> reserveStockAsync(List<StockReservationLineDto> lines) {
+        URI uri = URI.create(productBaseUrl + "/api/v1/products/stock/reservations");
+
+        StockReservationRequestDto body = StockReservationRequestDto.builder()
+                .lines(lines)
+                .build();
+
+        log.info("POST {} - Réservation de stock pour {} lignes", uri, lines.size());
+
+        return guard.callAsync(Operation.RESERVE_STOCK, () -> transport.exchange(transport.post(uri, body))
+                .thenApply(response -> {
+                    if (response.statusCode() == HttpStatus.CONFLICT.value()) {
+                        StockReservationResponseDto refused =
+                                transport.readBody(response, StockReservationResponseDto.class);
+                        if (refused != null) {
+                            log.warn("Réservation de stock refusée par ms-product : {}", refused.getLines());
+                            return refused;
+                        }
+                    }
+                    return transport.read(response, StockReservationResponseDto.class);
+                }));
+    }
+
+    // POST /api/v1/products/stock/reservations/{id}/confirm
+    @Override
+    public void confirmReservation(String reservationId) {
+        URI uri = URI.create(productBaseUrl + "/api/v1/products/stock/reservations/" + reservationId + "/confirm");
+        log.info("POST {} - Confirmation de la réservation {}", uri, reservationId);
+        JdkHttpTransport.join(guard.callAsync(Operation.CONFIRM_RESERVATION,
+                () -> transport.send(transport.post(uri, null), Void.class)));
+    }
+
+    // DELETE /api/v1/products/stock/reservations/{id}
+    @Override
+    public void releaseReservation(String reservationId) {
+        URI uri = URI.create(productBaseUrl + "/api/v1/products/stock/reservations/" + reservationId);
+        log.info("DELETE {} - Libération de la réservation {}", uri, reservationId);
+        JdkHttpTransport.join(guard.callAsync(Operation.RELEASE_RESERVATION,
+                () -> transport.send(transport.delete(uri), Void.class)));
+    }
+}
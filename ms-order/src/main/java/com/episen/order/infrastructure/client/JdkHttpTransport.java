@@ -0,0 +1,154 @@
+package com.episen.order.infrastructure.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+
+/**
+ * Transport HTTP non bloquant partagé par JdkHttpUserClient et JdkHttpProductClient.
+ *
+ * Rôles :
+ *  - envoyer les requêtes JSON avec HttpClient.sendAsync (aucun thread bloqué par appel) ;
+ *  - (dé)sérialiser les corps avec l'ObjectMapper de Spring ;
+ *  - traduire les erreurs dans les exceptions de RestTemplate (même contrat que le mode bloquant) :
+ *    4xx => HttpClientErrorException, 5xx => HttpServerErrorException, réseau => ResourceAccessException.
+ */
+
+@Component
+@ConditionalOnProperty(name = "app.clients.mode", havingValue = "async")
+class JdkHttpTransport {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration responseTimeout;
+
+    JdkHttpTransport(HttpClient httpClient,
+                     ObjectMapper objectMapper,
+                     @Value("${app.clients.http.response-timeout:3s}") Duration responseTimeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.responseTimeout = responseTimeout;
+    }
+
+    HttpRequest get(URI uri) {
+        return request(uri).GET().build();
+    }
+
+    HttpRequest post(URI uri, Object body) {
+        try {
+            return request(uri)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new RestClientException("Sérialisation impossible du corps de la requête", e);
+        }
+    }
+
+    HttpRequest delete(URI uri) {
+        return request(uri).DELETE().build();
+    }
+
+    /**
+     * Envoie la requête ; le futur échoue avec ResourceAccessException en cas d'erreur réseau.
+     */
+    CompletableFuture<HttpResponse<byte[]>> exchange(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    throw new ResourceAccessException(
+                            "Erreur d'E/S sur " + request.method() + " " + request.uri() + " : " + cause.getMessage(),
+                            cause instanceof IOException io ? io : new IOException(cause));
+                });
+    }
+
+    /**
+     * Envoie la requête et lit le corps d'une réponse 2xx (null si vide ou type Void).
+     */
+    <T> CompletableFuture<T> send(HttpRequest request, Class<T> type) {
+        return exchange(request).thenApply(response -> read(response, type));
+    }
+
+    <T> T read(HttpResponse<byte[]> response, Class<T> type) {
+        int status = response.statusCode();
+        if (status >= 400) {
+            throw toException(response);
+        }
+        return readBody(response, type);
+    }
+
+    <T> T readBody(HttpResponse<byte[]> response, Class<T> type) {
+        if (type == Void.class || response.body() == null || response.body().length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new RestClientException("Réponse illisible de " + response.uri(), e);
+        }
+    }
+
+    private RestClientResponseException toException(HttpResponse<byte[]> response) {
+        HttpStatusCode statusCode = HttpStatusCode.valueOf(response.statusCode());
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        byte[] body = response.body();
+
+        RestClientResponseException exception = statusCode.is4xxClientError()
+                ? HttpClientErrorException.create(statusCode, "", headers, body, StandardCharsets.UTF_8)
+                : HttpServerErrorException.create(statusCode, "", headers, body, StandardCharsets.UTF_8);
+
+        // getResponseBodyAs(...) utilisable comme avec RestTemplate
+        exception.setBodyConvertFunction(resolvableType -> {
+            try {
+                return objectMapper.readValue(body, objectMapper.constructType(resolvableType.getType()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return exception;
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(responseTimeout)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    /**
+     * Attend le résultat pour les méthodes bloquantes du contrat, en propageant l'exception d'origine.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.UserChangeFeedDto;
+import com.episen.order.application.dto.UserDto;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Client non bloquant (java.net.http.HttpClient) vers ms-users, activé par app.clients.mode=async.
+ * Même contrat que RestTemplateUserClient ; la variante bloquante attend simplement le futur.
+ * Chaque appel est protégé et mesuré par le DownstreamGuard du service jusqu'à la complétion de son futur.
+ */
+
+@Component
+@ConditionalOnProperty(name = "app.clients.mode", havingValue = "async")
+public class JdkHttpUserClient implements UserClient {
+
+    private final JdkHttpTransport transport;
+    private final DownstreamGuard guard;
+    private final IdempotentReadExecutor reads;
+    private final String userBaseUrl;
+
+    public JdkHttpUserClient(JdkHttpTransport transport,
+                             @Qualifier("userClientGuard") DownstreamGuard guard,
+                             IdempotentReadExecutor reads,
+                             @Value("${app.clients.user.base-url}") String userBaseUrl) {
+        this.transport = transport;
+        this.guard = guard;
+        this.reads = reads;
+        this.userBaseUrl = userBaseUrl;
+    }
+
+    @Override
+    public UserDto getUserById(Long id) {
+        return JdkHttpTransport.join(getUserByIdAsync(id));
+    }
+
+    // GET /api/v1/users/{id} (lecture idempotente : doublée, réessayée)
+    @Override
+    public CompletableFuture<UserDto> getUserByIdAsync(Long id) {
+        URI uri = URI.create(userBaseUrl + "/api/v1/users/" + id);
+        return reads.readAsync(Operation.GET_USER, () -> guard.callAsync(Operation.GET_USER,
+                () -> transport.send(transport.get(uri), UserDto.class)));
+    }
+
+    // GET /api/v1/users/changes?since={position}
+    @Override
+    public UserChangeFeedDto getUserChanges(Long since) {
+        URI uri = UriComponentsBuilder.fromUriString(userBaseUrl)
+                .path("/api/v1/users/changes")
+                .queryParamIfPresent("since", Optional.ofNullable(since))
+                .build()
+                .toUri();
+        return JdkHttpTransport.join(guard.callAsync(Operation.GET_USER_CHANGES,
+                () -> transport.send(transport.get(uri), UserChangeFeedDto.class)));
+    }
+}
@@ -1,69 +1,56 @@
 package com.episen.order.infrastructure.client;
 
 import com.episen.order.application.dto.ProductDto;
-import com.episen.order.application.dto.StockUpdateRequestDto;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationResponseDto;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
- * Client REST dédié à la communication avec le microservice ms-product.
+ * Client dédié à la communication avec le microservice ms-product.
  *
  * Rôles :
  *  - récupérer un produit par son identifiant (vérification d’existence, prix, stock) ;
- *  - mettre à jour le stock d’un produit lors de la création d'une commande.
+ *  - récupérer plusieurs produits en un seul aller-retour (lecture groupée) ;
+ *  - réserver en une seule transaction le stock de toutes les lignes d'une commande ;
+ *  - confirmer ou libérer cette réservation selon le devenir de la commande.
  *
- * Particularités :
- *  - n’expose aucune logique métier : simple façade réseau ;
- *  - l’URL de base est injectée via application.yml pour respecter les bonnes pratiques ;
- *  - gère et remonte proprement les erreurs réseau (RestClientException).
+ * Deux implémentations, choisies par app.clients.mode :
+ *  - blocking (défaut) : RestTemplateProductClient, RestTemplate + pool Apache HttpClient ;
+ *  - async             : JdkHttpProductClient, java.net.http.HttpClient non bloquant.
  *
- * Ce client permet d’isoler toutes les interactions HTTP, afin de garder
- * un service métier (OrderService) propre et indépendant du transport.
+ * Contrat commun des erreurs : voir UserClient.
+ * Les lectures (produit par ID, lecture groupée) sont idempotentes : réessayées après erreur
+ * réseau / 5xx, doublées si app.clients.reads.hedging.enabled (IdempotentReadExecutor).
+ * Réservation, confirmation et libération ne sont jamais rejouées par le client.
  */
+public interface ProductClient {
 
-@Slf4j
-@Component
-public class ProductClient {
+    // GET /api/v1/products/{id}
+    ProductDto getProductById(Long productId);
 
-    private final RestTemplate restTemplate;
-    private final String productBaseUrl;
+    CompletableFuture<ProductDto> getProductByIdAsync(Long productId);
 
-    public ProductClient(RestTemplate restTemplate,
-                         @Value("${app.clients.product.base-url}") String productBaseUrl) {
-        this.restTemplate = restTemplate;
-        this.productBaseUrl = productBaseUrl;
-    }
+    // GET /api/v1/products?ids=1&ids=2...
+    // Les IDs inconnus de ms-product sont absents du résultat.
+    List<ProductDto> getProductsByIds(Collection<Long> productIds);
 
-    // GET /api/v1/products/{id}
-    public ProductDto getProductById(Long productId) {
-        String url = productBaseUrl + "/api/v1/products/" + productId;
-        log.info("GET {} - Récupération produit {}", url, productId);
-        return restTemplate.getForObject(url, ProductDto.class);
-    }
+    CompletableFuture<List<ProductDto>> getProductsByIdsAsync(Collection<Long> productIds);
 
-    // PATCH /api/v1/products/{id}/stock
-    public void updateProductStock(Long productId, int newStock) {
-        String url = productBaseUrl + "/api/v1/products/" + productId + "/stock";
+    // POST /api/v1/products/stock/reservations
+    // Une réponse 409 n'est pas une erreur : elle porte le détail des lignes refusées (reserved = false).
+    StockReservationResponseDto reserveStock(List<StockReservationLineDto> lines);
 
-        StockUpdateRequestDto body = StockUpdateRequestDto.builder()
-                .newStock(newStock)
-                .build();
+    CompletableFuture<StockReservationResponseDto> reserveStockAsync(List<StockReservationLineDto> lines);
 
-        log.info("PATCH {} - Mise à jour stock produit {} -> {}", url, productId, newStock);
+    // POST /api/v1/products/stock/reservations/{id}/confirm
+    // 409 si la réservation a expiré (stock déjà rendu) ou a été libérée.
+    void confirmReservation(String reservationId);
 
-        try {
-            restTemplate.patchForObject(url, body, Void.class);
-        } catch (RestClientException ex) {
-            log.error("Erreur lors de la mise à jour du stock pour productId={}", productId, ex);
-            throw new IllegalStateException(
-                    "Impossible de mettre à jour le stock du produit (service Product indisponible).",
-                    ex
-            );
-        }
-    }
-}
\ No newline at end of file
+    // DELETE /api/v1/products/stock/reservations/{id}
+    // Idempotent : libérer une réservation déjà libérée ou expirée ne fait rien.
+    void releaseReservation(String reservationId);
+}
@@ -0,0 +1,168 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationRequestDto;
+import com.episen.order.application.dto.StockReservationResponseDto;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+
+
+/**
+ * Client REST (bloquant) dédié à la communication avec le microservice ms-product.
+ *
+ * Particularités :
+ *  - n’expose aucune logique métier : simple façade réseau ;
+ *  - l’URL de base est injectée via application.yml pour respecter les bonnes pratiques ;
+ *  - gère et remonte proprement les erreurs réseau (RestClientException) ;
+ *  - les variantes asynchrones exécutent l'appel bloquant sur le ClientCallExecutor ;
+ *  - chaque appel est protégé et mesuré par le DownstreamGuard du service
+ *    (circuit breaker, bulkhead, limite adaptative, latence).
+ *
+ * Ce client permet d’isoler toutes les interactions HTTP, afin de garder
+ * un service métier (OrderService) propre et indépendant du transport.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.clients.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateProductClient implements ProductClient {
+
+    private final RestTemplate restTemplate;
+    private final ClientCallExecutor clientCallExecutor;
+    private final DownstreamGuard guard;
+    private final IdempotentReadExecutor reads;
+    private final String productBaseUrl;
+    private final int batchSize;
+
+    public RestTemplateProductClient(RestTemplate restTemplate,
+                                     ClientCallExecutor clientCallExecutor,
+                                     @Qualifier("productClientGuard") DownstreamGuard guard,
+                                     IdempotentReadExecutor reads,
+                                     @Value("${app.clients.product.base-url}") String productBaseUrl,
+                                     @Value("${app.clients.product.batch-size:100}") int batchSize) {
+        this.restTemplate = restTemplate;
+        this.clientCallExecutor = clientCallExecutor;
+        this.guard = guard;
+        this.reads = reads;
+        this.productBaseUrl = productBaseUrl;
+        this.batchSize = batchSize;
+    }
+
+    // GET /api/v1/products/{id} (lecture idempotente : réessayée, doublée en asynchrone)
+    @Override
+    public ProductDto getProductById(Long productId) {
+        return reads.read(Operation.GET_PRODUCT, () -> fetchProduct(productId));
+    }
+
+    @Override
+    public CompletableFuture<ProductDto> getProductByIdAsync(Long productId) {
+        return reads.readAsync(Operation.GET_PRODUCT, () -> clientCallExecutor.submit(() -> fetchProduct(productId)));
+    }
+
+    private ProductDto fetchProduct(Long productId) {
+        String url = productBaseUrl + "/api/v1/products/" + productId;
+        log.info("GET {} - Récupération produit {}", url, productId);
+        return guard.call(Operation.GET_PRODUCT,
+                () -> restTemplate.getForObject(url, ProductDto.class));
+    }
+
+    // GET /api/v1/products?ids=1&ids=2... (lecture idempotente : réessayée, doublée en asynchrone)
+    // Au-delà de batchSize IDs, la lecture est découpée en plusieurs requêtes.
+    @Override
+    public List<ProductDto> getProductsByIds(Collection<Long> productIds) {
+        return reads.read(Operation.GET_PRODUCTS, () -> fetchProductsByIds(productIds));
+    }
+
+    private List<ProductDto> fetchProductsByIds(Collection<Long> productIds) {
+        return guard.call(Operation.GET_PRODUCTS, () -> fetchChunks(productIds));
+    }
+
+    private List<ProductDto> fetchChunks(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        List<ProductDto> products = new ArrayList<>(ids.size());
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            URI uri = UriComponentsBuilder.fromUriString(productBaseUrl)
+                    .path("/api/v1/products")
+                    .queryParam("ids", chunk.toArray())
+                    .build()
+                    .toUri();
+
+            log.info("GET {} - Récupération groupée de {} produits", uri, chunk.size());
+            ProductDto[] page = restTemplate.getForObject(uri, ProductDto[].class);
+            if (page != null) {
+                products.addAll(Arrays.asList(page));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public CompletableFuture<List<ProductDto>> getProductsByIdsAsync(Collection<Long> productIds) {
+        return reads.readAsync(Operation.GET_PRODUCTS,
+                () -> clientCallExecutor.submit(() -> fetchProductsByIds(productIds)));
+    }
+
+    // POST /api/v1/products/stock/reservations
+    @Override
+    public StockReservationResponseDto reserveStock(List<StockReservationLineDto> lines) {
+        String url = productBaseUrl + "/api/v1/products/stock/reservations";
+
+        StockReservationRequestDto body = StockReservationRequestDto.builder()
+                .lines(lines)
+                .build();
+
+        log.info("POST {} - Réservation de stock pour {} lignes", url, lines.size());
+
+        return guard.call(Operation.RESERVE_STOCK, () -> {
+            try {
+                return restTemplate.postForObject(url, body, StockReservationResponseDto.class);
+            } catch (HttpClientErrorException.Conflict ex) {
+                StockReservationResponseDto refused = ex.getResponseBodyAs(StockReservationResponseDto.class);
+                if (refused == null) {
+                    throw ex;
+                }
+                log.warn("Réservation de stock refusée par ms-product : {}", refused.getLines());
+                return refused;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<StockReservationResponseDto> reserveStockAsync(List<StockReservationLineDto> lines) {
+        return clientCallExecutor.submit(() -> reserveStock(lines));
+    }
+
+    // POST /api/v1/products/stock/reservations/{id}/confirm
+    @Override
+    public void confirmReservation(String reservationId) {
+        String url = productBaseUrl + "/api/v1/products/stock/reservations/" + reservationId + "/confirm";
+        log.info("POST {} - Confirmation de la réservation {}", url, reservationId);
+        guard.run(Operation.CONFIRM_RESERVATION, () -> restTemplate.postForLocation(url, null));
+    }
+
+    // DELETE /api/v1/products/stock/reservations/{id}
+    @Override
+    public void releaseReservation(String reservationId) {
+        String url = productBaseUrl + "/api/v1/products/stock/reservations/" + reservationId;
+        log.info("DELETE {} - Libération de la réservation {}", url, reservationId);
+        guard.run(Operation.RELEASE_RESERVATION, () -> restTemplate.delete(url));
+    }
+}
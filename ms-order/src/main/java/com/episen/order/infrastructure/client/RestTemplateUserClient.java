@@ -0,0 +1,77 @@
+package com.episen.order.infrastructure.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import com.episen.order.application.dto.UserChangeFeedDto;
+import com.episen.order.application.dto.UserDto;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Client REST (bloquant) responsable de la communication avec le microservice ms-users.
+ *
+ * Particularités :
+ *  - l’URL de base est injectée via application.yml (bonne pratique) ;
+ *  - ce client ne contient aucune logique métier, uniquement du transport HTTP ;
+ *  - les variantes asynchrones exécutent l'appel bloquant sur le ClientCallExecutor ;
+ *  - chaque appel est protégé et mesuré par le DownstreamGuard du service
+ *    (circuit breaker, bulkhead, limite adaptative, latence).
+ */
+
+@Component
+@ConditionalOnProperty(name = "app.clients.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateUserClient implements UserClient {
+
+    private final RestTemplate restTemplate;
+    private final ClientCallExecutor clientCallExecutor;
+    private final DownstreamGuard guard;
+    private final IdempotentReadExecutor reads;
+    private final String userBaseUrl;
+
+    public RestTemplateUserClient(RestTemplate restTemplate,
+                                  ClientCallExecutor clientCallExecutor,
+                                  @Qualifier("userClientGuard") DownstreamGuard guard,
+                                  IdempotentReadExecutor reads,
+                                  @Value("${app.clients.user.base-url}") String userBaseUrl) {
+        this.restTemplate = restTemplate;
+        this.clientCallExecutor = clientCallExecutor;
+        this.guard = guard;
+        this.reads = reads;
+        this.userBaseUrl = userBaseUrl;
+    }
+
+    // GET /api/v1/users/{id} (lecture idempotente : réessayée, doublée en asynchrone)
+    @Override
+    public UserDto getUserById(Long id) {
+        return reads.read(Operation.GET_USER, () -> fetchUser(id));
+    }
+
+    @Override
+    public CompletableFuture<UserDto> getUserByIdAsync(Long id) {
+        return reads.readAsync(Operation.GET_USER, () -> clientCallExecutor.submit(() -> fetchUser(id)));
+    }
+
+    private UserDto fetchUser(Long id) {
+        String url = userBaseUrl + "/api/v1/users/" + id;
+        return guard.call(Operation.GET_USER,
+                () -> restTemplate.getForObject(url, UserDto.class));
+    }
+
+    // GET /api/v1/users/changes?since={position}
+    @Override
+    public UserChangeFeedDto getUserChanges(Long since) {
+        String url = UriComponentsBuilder.fromUriString(userBaseUrl)
+                .path("/api/v1/users/changes")
+                .queryParamIfPresent("since", Optional.ofNullable(since))
+                .toUriString();
+        return guard.call(Operation.GET_USER_CHANGES,
+                () -> restTemplate.getForObject(url, UserChangeFeedDto.class));
+    }
+}
@@ -0,0 +1,56 @@
+package com.episen.order.infrastructure.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget de tentatives supplémentaires (doublons et nouvelles tentatives) vers un service distant.
+ *
+ * Seau de jetons : chaque première tentative dépose `ratio` jeton, chaque tentative
+ * supplémentaire en retire un ; le seau est plafonné à `maxTokens`.
+ * Les tentatives supplémentaires restent ainsi sous `ratio` x le trafic normal (ex : 10 %) :
+ * quand le service distant est surchargé, on ne double pas sa charge en réessayant.
+ *
+ * Jetons stockés en millièmes dans un AtomicLong (CAS, sans verrou).
+ */
+class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("Budget invalide : ratio=" + ratio + ", maxTokens=" + maxTokens);
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxTokens = maxTokens * SCALE;
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    /**
+     * Première tentative d'un appel : alimente le budget.
+     */
+    void deposit() {
+        tokens.accumulateAndGet(deposit, (current, added) -> Math.min(maxTokens, current + added));
+    }
+
+    /**
+     * Tentative supplémentaire : true si un jeton a pu être retiré.
+     */
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    double getTokens() {
+        return (double) tokens.get() / SCALE;
+    }
+}
@@ -1,38 +1,39 @@
 package com.episen.order.infrastructure.client;
 
-import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.beans.factory.annotation.Value;
+import com.episen.order.application.dto.UserChangeFeedDto;
 import com.episen.order.application.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 
 /**
- * Client REST responsable de la communication avec le microservice ms-users.
+ * Client responsable de la communication avec le microservice ms-users.
  *
  * Rôles :
  *  - interroger ms-users pour vérifier l'existence d’un utilisateur ;
+ *  - lire le flux des changements d'utilisateurs (invalidation du cache UserExistenceCache) ;
  *  - isoler la logique réseau hors du service métier (OrderService).
  *
- * Particularités :
- *  - l’URL de base est injectée via application.yml (bonne pratique) ;
- *  - ce client ne contient aucune logique métier, uniquement du transport HTTP.
+ * Deux implémentations, choisies par app.clients.mode :
+ *  - blocking (défaut) : RestTemplateUserClient, RestTemplate + pool Apache HttpClient ;
+ *  - async             : JdkHttpUserClient, java.net.http.HttpClient non bloquant.
+ *
+ * Contrat commun des erreurs (quel que soit le mode) :
+ *  - 4xx => HttpClientErrorException, 5xx => HttpServerErrorException ;
+ *  - erreur réseau / timeout => ResourceAccessException.
+ * Les variantes asynchrones complètent leur futur avec ces mêmes exceptions.
+ *
+ * La lecture d'un utilisateur par ID est idempotente : réessayée après erreur réseau / 5xx,
+ * doublée si app.clients.reads.hedging.enabled (IdempotentReadExecutor).
  */
+public interface UserClient {
 
-@Component
-public class UserClient {
-
-    private final RestTemplate restTemplate;
-    private final String userBaseUrl;
+    // GET /api/v1/users/{id}
+    UserDto getUserById(Long id);
 
-    public UserClient(RestTemplate restTemplate,
-                      @Value("${app.clients.user.base-url}") String userBaseUrl) {
-        this.restTemplate = restTemplate;
-        this.userBaseUrl = userBaseUrl;
-    }
+    CompletableFuture<UserDto> getUserByIdAsync(Long id);
 
-    // GET /api/v1/users/{id}
-    public UserDto getUserById(Long id) {
-        String url = userBaseUrl + "/api/v1/users/" + id;
-        return restTemplate.getForObject(url, UserDto.class);
-    }
-}
\ No newline at end of file
+    // GET /api/v1/users/changes?since={position}
+    // Sans position, renvoie seulement la position courante du flux.
+    UserChangeFeedDto getUserChanges(Long since);
+}
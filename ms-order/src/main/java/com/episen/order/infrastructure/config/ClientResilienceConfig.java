@@ -0,0 +1,71 @@
+package com.episen.order.infrastructure.config;
+
+import com.episen.order.infrastructure.client.AdaptiveConcurrencyLimiter;
+import com.episen.order.infrastructure.client.DownstreamGuard;
+import com.episen.order.infrastructure.metrics.ClientMetrics;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+
+/**
+ * Protection des appels sortants : un DownstreamGuard par service distant.
+ *
+ * Configuration par client :
+ *  - circuit breaker et bulkhead : resilience4j.circuitbreaker / resilience4j.bulkhead,
+ *    instances "ms-membership" et "ms-product" (registres créés par resilience4j-spring-boot3,
+ *    métriques resilience4j_* exportées automatiquement) ;
+ *  - limite adaptative : app.clients.user.limiter.* et app.clients.product.limiter.*.
+ */
+
+@Configuration
+public class ClientResilienceConfig {
+
+    public static final String USER_SERVICE = "ms-membership";
+    public static final String PRODUCT_SERVICE = "ms-product";
+
+    @Bean
+    public DownstreamGuard userClientGuard(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            ClientMetrics clientMetrics,
+            MeterRegistry meterRegistry,
+            @Value("${app.clients.user.limiter.initial-limit:20}") int initialLimit,
+            @Value("${app.clients.user.limiter.min-limit:2}") int minLimit,
+            @Value("${app.clients.user.limiter.max-limit:50}") int maxLimit,
+            @Value("${app.clients.user.limiter.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${app.clients.user.limiter.backoff-ratio:0.9}") double backoffRatio) {
+        return new DownstreamGuard(USER_SERVICE,
+                circuitBreakerRegistry.circuitBreaker(USER_SERVICE),
+                bulkheadRegistry.bulkhead(USER_SERVICE),
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio),
+                clientMetrics,
+                meterRegistry);
+    }
+
+    @Bean
+    public DownstreamGuard productClientGuard(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            ClientMetrics clientMetrics,
+            MeterRegistry meterRegistry,
+            @Value("${app.clients.product.limiter.initial-limit:20}") int initialLimit,
+            @Value("${app.clients.product.limiter.min-limit:2}") int minLimit,
+            @Value("${app.clients.product.limiter.max-limit:50}") int maxLimit,
+            @Value("${app.clients.product.limiter.latency-threshold:1s}") Duration latencyThreshold,
+            @Value("${app.clients.product.limiter.backoff-ratio:0.9}") double backoffRatio) {
+        return new DownstreamGuard(PRODUCT_SERVICE,
+                circuitBreakerRegistry.circuitBreaker(PRODUCT_SERVICE),
+                bulkheadRegistry.bulkhead(PRODUCT_SERVICE),
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio),
+                clientMetrics,
+                meterRegistry);
+    }
+}
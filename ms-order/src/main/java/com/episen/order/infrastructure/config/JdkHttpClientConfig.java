@@ -0,0 +1,55 @@
+package com.episen.order.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Configuration du client HTTP non bloquant (java.net.http.HttpClient) utilisé
+ * quand app.clients.mode=async (JdkHttpUserClient / JdkHttpProductClient).
+ *
+ * Objectif :
+ *  - aucune attente bloquante par appel : les réponses sont traitées par quelques threads
+ *    (app.clients.async.threads), quel que soit le nombre d'appels en cours ;
+ *  - avec spring.threads.virtual.enabled, un thread virtuel par tâche à la place du pool ;
+ *  - mêmes timeouts que le pool RestTemplate (app.clients.http.*).
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "app.clients.mode", havingValue = "async")
+public class JdkHttpClientConfig {
+
+    @Bean
+    public ExecutorService jdkHttpClientExecutor(@Value("${app.clients.async.threads:4}") int threads,
+                                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("client-async-", 1).factory());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "client-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public HttpClient jdkHttpClient(@Qualifier("jdkHttpClientExecutor") ExecutorService executor,
+                                    @Value("${app.clients.http.connect-timeout:1s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                // les services en aval sont en HTTP/1.1 : pas de tentative d'upgrade h2c
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+}
@@ -1,12 +1,34 @@
 package com.episen.order.infrastructure.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
 
 /**
  * Configuration du RestTemplate utilisé par les clients REST (UserClient / ProductClient).
@@ -15,22 +37,168 @@ import org.springframework.web.client.RestTemplate;
  *  - fournir un RestTemplate capable de supporter toutes les méthodes HTTP,
  *    notamment PATCH, grâce à HttpComponentsClientHttpRequestFactory.
  *  - centraliser la configuration pour ne pas dupliquer dans les services.
+ *
+ * Pool de connexions (Apache HttpClient 5) :
+ *  - taille globale et par route (ms-membership, ms-product) configurables (app.clients.*) ;
+ *  - timeouts séparés : connexion, attente d'une connexion du pool, réponse ;
+ *  - keep-alive plafonné et éviction des connexions inactives ou expirées ;
+ *  - pool dédié aux health checks pour qu'ils ne prennent pas les connexions des commandes ;
+ *  - métriques du pool (leased / pending / available) exportées vers Micrometer.
  */
 
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public PoolingHttpClientConnectionManager clientConnectionManager(
+            @Value("${app.clients.http.max-total:200}") int maxTotal,
+            @Value("${app.clients.http.max-per-route:50}") int maxPerRoute,
+            @Value("${app.clients.http.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${app.clients.http.response-timeout:3s}") Duration responseTimeout,
+            @Value("${app.clients.http.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            @Value("${app.clients.user.base-url}") String userBaseUrl,
+            @Value("${app.clients.user.max-connections:50}") int userMaxConnections,
+            @Value("${app.clients.product.base-url}") String productBaseUrl,
+            @Value("${app.clients.product.max-connections:50}") int productMaxConnections) {
+
+        PoolingHttpClientConnectionManager connectionManager = connectionManager(
+                maxTotal, maxPerRoute, connectTimeout, responseTimeout, validateAfterInactivity);
+
+        // limites par service distant : un service lent ne consomme pas tout le pool
+        connectionManager.setMaxPerRoute(route(userBaseUrl), userMaxConnections);
+        connectionManager.setMaxPerRoute(route(productBaseUrl), productMaxConnections);
+        return connectionManager;
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager healthConnectionManager(
+            @Value("${app.clients.health.max-connections:4}") int maxConnections,
+            @Value("${app.clients.health.connect-timeout:500ms}") Duration connectTimeout,
+            @Value("${app.clients.health.response-timeout:1s}") Duration responseTimeout) {
+
+        return connectionManager(maxConnections, maxConnections, connectTimeout, responseTimeout, Duration.ofSeconds(2));
+    }
+
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            @Qualifier("clientConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${app.clients.http.connection-request-timeout:500ms}") Duration connectionRequestTimeout,
+            @Value("${app.clients.http.response-timeout:3s}") Duration responseTimeout,
+            @Value("${app.clients.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${app.clients.http.idle-eviction:30s}") Duration idleEviction) {
 
         // Factory HTTP basée sur Apache HttpClient → nécessaire pour les requêtes PATCH
         HttpComponentsClientHttpRequestFactory requestFactory =
                 new HttpComponentsClientHttpRequestFactory(
-                        HttpClients.createDefault()
+                        httpClient(connectionManager, connectionRequestTimeout, responseTimeout, keepAlive, idleEviction)
                 );
 
         return builder
                 .requestFactory(() -> requestFactory)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * RestTemplate des health checks (ExternalServicesHealthIndicator) : pool et timeouts dédiés.
+     */
+    @Bean
+    public RestTemplate healthRestTemplate(
+            RestTemplateBuilder builder,
+            @Qualifier("healthConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${app.clients.health.response-timeout:1s}") Duration responseTimeout) {
+
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                new HttpComponentsClientHttpRequestFactory(
+                        httpClient(connectionManager, Duration.ofMillis(200), responseTimeout,
+                                Duration.ofSeconds(30), Duration.ofSeconds(30))
+                );
+
+        return builder
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    /**
+     * Métriques des pools : httpcomponents.httpclient.pool.* (total, leased, pending, available)
+     * et détail par service distant : http.client.pool.route.connections{route, state}.
+     */
+    @Bean
+    public MeterBinder httpClientPoolMetrics(
+            @Qualifier("clientConnectionManager") PoolingHttpClientConnectionManager clientConnectionManager,
+            @Qualifier("healthConnectionManager") PoolingHttpClientConnectionManager healthConnectionManager,
+            @Value("${app.clients.user.base-url}") String userBaseUrl,
+            @Value("${app.clients.product.base-url}") String productBaseUrl) {
+
+        return registry -> {
+            new PoolingHttpClientConnectionManagerMetricsBinder(clientConnectionManager, "clients").bindTo(registry);
+            new PoolingHttpClientConnectionManagerMetricsBinder(healthConnectionManager, "health").bindTo(registry);
+
+            Map<String, HttpRoute> routes = Map.of(
+                    "user", route(userBaseUrl),
+                    "product", route(productBaseUrl));
+            Map<String, ToIntFunction<PoolStats>> states = Map.of(
+                    "leased", PoolStats::getLeased,
+                    "pending", PoolStats::getPending,
+                    "available", PoolStats::getAvailable);
+
+            routes.forEach((name, route) -> states.forEach((state, value) ->
+                    Gauge.builder("http.client.pool.route.connections",
+                                    clientConnectionManager,
+                                    manager -> value.applyAsInt(manager.getStats(route)))
+                            .description("Connexions du pool HTTP par service distant")
+                            .tag("route", name)
+                            .tag("state", state)
+                            .register(registry)));
+        };
+    }
+
+    private static PoolingHttpClientConnectionManager connectionManager(int maxTotal,
+                                                                        int maxPerRoute,
+                                                                        Duration connectTimeout,
+                                                                        Duration responseTimeout,
+                                                                        Duration validateAfterInactivity) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+    }
+
+    private static CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                  Duration connectionRequestTimeout,
+                                                  Duration responseTimeout,
+                                                  Duration keepAlive,
+                                                  Duration idleEviction) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                // keep-alive annoncé par le serveur, plafonné par app.clients.http.keep-alive
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue announced = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(announced) && announced.compareTo(maxKeepAlive) < 0
+                            ? announced
+                            : maxKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    private static HttpRoute route(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(uri.getScheme()) ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port));
+    }
+}
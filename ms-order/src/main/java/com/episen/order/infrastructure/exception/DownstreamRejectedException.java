@@ -0,0 +1,13 @@
+package com.episen.order.infrastructure.exception;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Appel distant refusé sans être envoyé (circuit ouvert, bulkhead plein, limite de concurrence).
+ * Étend RestClientException : traité comme toute erreur du client (=> 503 SERVICE_UNAVAILABLE).
+ */
+public class DownstreamRejectedException extends RestClientException {
+    public DownstreamRejectedException(String client, String reason) {
+        super("Appel vers " + client + " refusé : " + reason);
+    }
+}
@@ -31,6 +31,13 @@ public class GlobalExceptionHandler {
                 .body("INSUFFICIENT_STOCK : Stock insuffisant");
     }
 
+    @ExceptionHandler(ReservationExpiredException.class)
+    public ResponseEntity<String> handleReservationExpired(ReservationExpiredException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("RESERVATION_EXPIRED : Réservation de stock expirée");
+    }
+
     @ExceptionHandler(ServiceUnavailableException.class)
     public ResponseEntity<String> handleServiceDown(ServiceUnavailableException ex) {
         return ResponseEntity
@@ -52,5 +59,33 @@ public class GlobalExceptionHandler {
                 .body("ORDER_NOT_MODIFIABLE : Commande non modifiable");
     }
 
+    @ExceptionHandler(OrderSubmissionNotFoundException.class)
+    public ResponseEntity<String> handleSubmissionNotFound(OrderSubmissionNotFoundException ex) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body("SUBMISSION_NOT_FOUND : Soumission introuvable");
+    }
+
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<String> handleTooManySubscribers(TooManySubscribersException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("STREAM_UNAVAILABLE : Trop de flux ouverts");
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body("IDEMPOTENCY_KEY_REUSED : Clé d'idempotence déjà utilisée pour une autre commande");
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("IDEMPOTENCY_KEY_IN_PROGRESS : Commande en cours de création, réessayer plus tard");
+    }
+
     
 }
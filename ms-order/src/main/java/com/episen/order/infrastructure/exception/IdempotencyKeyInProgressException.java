@@ -0,0 +1,8 @@
+package com.episen.order.infrastructure.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String key) {
+        super("Commande en cours de création pour la clé d'idempotence : " + key);
+    }
+}
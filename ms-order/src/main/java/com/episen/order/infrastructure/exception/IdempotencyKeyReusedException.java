@@ -0,0 +1,8 @@
+package com.episen.order.infrastructure.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Clé d'idempotence déjà utilisée pour une autre commande : " + key);
+    }
+}
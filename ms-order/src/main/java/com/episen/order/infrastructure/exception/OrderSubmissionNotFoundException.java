@@ -0,0 +1,8 @@
+package com.episen.order.infrastructure.exception;
+
+public class OrderSubmissionNotFoundException extends RuntimeException {
+
+    public OrderSubmissionNotFoundException(String trackingId) {
+        super("Soumission introuvable pour id=" + trackingId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.episen.order.infrastructure.exception;
+
+public class ReservationExpiredException extends RuntimeException {
+    public ReservationExpiredException(Long orderId, String reservationId) {
+        super("Réservation de stock expirée ou libérée pour la commande id=" + orderId
+                + " (réservation " + reservationId + ")");
+    }
+}
@@ -0,0 +1,8 @@
+package com.episen.order.infrastructure.exception;
+
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(int maxSubscribers) {
+        super("Nombre maximal de flux ouverts atteint : " + maxSubscribers);
+    }
+}
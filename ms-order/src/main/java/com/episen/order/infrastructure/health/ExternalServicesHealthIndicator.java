@@ -1,6 +1,7 @@
 package com.episen.order.infrastructure.health;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -19,6 +20,7 @@ import org.springframework.web.client.RestTemplate;
  * - Vérifie des dépendances réelles via HTTP
  * - Fournit des détails exploitables dans /actuator/health
  * - Gère proprement les erreurs
+ * - Utilise un pool HTTP dédié (healthRestTemplate) aux timeouts courts
  */
 @Slf4j
 @Component
@@ -32,7 +34,7 @@ public class ExternalServicesHealthIndicator implements HealthIndicator {
     @Value("${app.clients.user.actuator-url}")
     private String userHealthUrl;
 
-    public ExternalServicesHealthIndicator(RestTemplate restTemplate) {
+    public ExternalServicesHealthIndicator(@Qualifier("healthRestTemplate") RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
     }
 
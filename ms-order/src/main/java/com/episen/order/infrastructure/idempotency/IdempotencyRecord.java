@@ -0,0 +1,16 @@
+package com.episen.order.infrastructure.idempotency;
+
+import com.episen.order.application.dto.OrderResponseDto;
+
+/**
+ * Requête déjà reçue pour une clé d'idempotence.
+ *
+ * @param fingerprint empreinte du corps de la requête (une clé ne sert qu'à une seule commande)
+ * @param response    commande créée, null tant que la création est en cours
+ */
+public record IdempotencyRecord(String fingerprint, OrderResponseDto response) {
+
+    public boolean completed() {
+        return response != null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.episen.order.infrastructure.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Mémoire des clés d'idempotence de POST /api/v1/orders.
+ *
+ * Implémentation choisie par app.orders.idempotency.store :
+ *  - memory (défaut) : cache local borné avec TTL, propre à chaque instance ;
+ *  - jpa : table idempotency_keys, partagée par les instances et conservée au redémarrage.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Requête enregistrée pour la clé (terminée ou en cours), vide si inconnue ou expirée.
+     */
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * Réserve la clé avant la création de la commande.
+     *
+     * @return jeton du propriétaire de la réservation, vide si la clé est déjà réservée (autre instance)
+     */
+    Optional<String> begin(String key, String fingerprint);
+
+    /**
+     * Enregistre la commande créée pour la clé, si la réservation appartient toujours à owner.
+     */
+    void complete(String key, String owner, IdempotencyRecord record);
+
+    /**
+     * Libère la clé après un échec, si la réservation appartient toujours à owner :
+     * une nouvelle tentative recréera la commande.
+     */
+    void abandon(String key, String owner);
+}
@@ -0,0 +1,59 @@
+package com.episen.order.infrastructure.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Clés d'idempotence en mémoire : au plus `max-size` clés, oubliées après `ttl`.
+ *
+ * Les doublons simultanés sont regroupés en amont (OrderIdempotencyService) : la clé
+ * n'est enregistrée qu'une fois la commande créée.
+ * Métriques Micrometer : cache.gets, cache.evictions, cache.size (cache=idempotency_keys).
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(MeterRegistry meterRegistry,
+                                    @Value("${app.orders.idempotency.max-size:100000}") long maxSize,
+                                    @Value("${app.orders.idempotency.ttl:24h}") Duration ttl) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, records, "idempotency_keys");
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(records.getIfPresent(key));
+    }
+
+    @Override
+    public Optional<String> begin(String key, String fingerprint) {
+        // pas de réservation partagée : le regroupement local suffit, le jeton n'est pas vérifié
+        return Optional.of(key);
+    }
+
+    @Override
+    public void complete(String key, String owner, IdempotencyRecord record) {
+        records.put(key, record);
+    }
+
+    @Override
+    public void abandon(String key, String owner) {
+        records.invalidate(key);
+    }
+}
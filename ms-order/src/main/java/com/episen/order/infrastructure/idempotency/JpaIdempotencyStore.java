@@ -0,0 +1,145 @@
+package com.episen.order.infrastructure.idempotency;
+
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.domain.entity.IdempotencyKey;
+import com.episen.order.domain.repository.IdempotencyKeyRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Clés d'idempotence en base (table idempotency_keys), partagées par les instances.
+ *
+ * begin() insère la clé avant la création : la clé primaire garantit qu'une seule
+ * instance crée la commande, une requête en double sur une autre instance est refusée
+ * tant que la création est en cours. Les clés expirées sont purgées périodiquement.
+ *
+ * Une clé dont la création n'est pas terminée (réponse vide) après `in-progress-lease`
+ * est considérée abandonnée (instance arrêtée pendant la création) : une répétition
+ * peut la reprendre sans attendre le `ttl`. Le bail doit donc dépasser la durée
+ * maximale d'une création (appels ms-product et ms-membership compris).
+ *
+ * Chaque réservation reçoit un jeton (colonne owner_token) : complete() et abandon() ne
+ * modifient la clé que si elle appartient encore à la requête qui l'a réservée. Une
+ * création lente dont la clé a été reprise ne peut ni effacer ni écraser la réservation
+ * du nouveau propriétaire.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.orders.idempotency.store", havingValue = "jpa")
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration inProgressLease;
+
+    public JpaIdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                               EntityManager entityManager,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.orders.idempotency.ttl:24h}") Duration ttl,
+                               @Value("${app.orders.idempotency.in-progress-lease:2m}") Duration inProgressLease) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.inProgressLease = inProgressLease;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return idempotencyKeyRepository.findById(key)
+                .filter(row -> row.getCreatedAt().isAfter(expiredBefore()))
+                .filter(row -> row.getResponse() != null || row.getCreatedAt().isAfter(abandonedBefore()))
+                .map(row -> new IdempotencyRecord(row.getFingerprint(), read(row.getResponse())));
+    }
+
+    @Override
+    public Optional<String> begin(String key, String fingerprint) {
+        String owner = UUID.randomUUID().toString();
+        try {
+            // persist (et non save/merge) : une clé déjà réservée provoque un conflit au commit
+            transactionTemplate.executeWithoutResult(status -> {
+                idempotencyKeyRepository.deleteExpired(key, expiredBefore(), abandonedBefore());
+                entityManager.persist(IdempotencyKey.builder()
+                        .idempotencyKey(key)
+                        .fingerprint(fingerprint)
+                        .owner(owner)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            });
+            return Optional.of(owner);
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void complete(String key, String owner, IdempotencyRecord record) {
+        String response = write(record.response());
+        int updated = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.completeOwned(key, owner, response));
+        if (updated == 0) {
+            log.warn("Clé d'idempotence {} reprise par une autre requête : réponse non enregistrée", key);
+        }
+    }
+
+    @Override
+    public void abandon(String key, String owner) {
+        transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteOwned(key, owner));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:3600000}")
+    public void purge() {
+        int purged = transactionTemplate.execute(status -> idempotencyKeyRepository.purgeExpired(expiredBefore()));
+        if (purged > 0) {
+            log.debug("{} clé(s) d'idempotence expirée(s) supprimée(s)", purged);
+        }
+    }
+
+    private LocalDateTime expiredBefore() {
+        return LocalDateTime.now().minus(ttl);
+    }
+
+    private LocalDateTime abandonedBefore() {
+        return LocalDateTime.now().minus(inProgressLease);
+    }
+
+    private OrderResponseDto read(String response) {
+        if (response == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(response, OrderResponseDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse d'idempotence illisible", e);
+        }
+    }
+
+    private String write(OrderResponseDto response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse d'idempotence non sérialisable", e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.episen.order.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latence des appels sortants vers ms-membership et ms-product (UserClient / ProductClient).
+ *
+ * Un Timer par couple (opération, résultat), enregistré au démarrage, avec histogramme
+ * de percentiles publié (p50 / p95 / p99 calculables côté Prometheus, agrégeables entre instances) :
+ * order_client_requests_seconds{client="ms-product",operation="reserve_stock",outcome="success"}
+ *
+ * Résultats (même contrat d'erreurs que les clients) :
+ *  - success      : réponse 2xx (ou refus de réservation 409 lu comme une réponse) ;
+ *  - client_error : 4xx (HttpClientErrorException) ;
+ *  - server_error : 5xx (HttpServerErrorException) ;
+ *  - io_error     : erreur réseau / timeout (ResourceAccessException) ;
+ *  - error        : toute autre erreur (réponse illisible, annulation...).
+ *
+ * Le temps mesuré est celui de l'appel HTTP lui-même (découpage des lectures groupées compris),
+ * sans l'attente éventuelle dans la file du ClientCallExecutor.
+ *
+ * Lectures idempotentes (IdempotentReadExecutor) : tentatives supplémentaires comptées à part,
+ * pour comparer leur volume au nombre d'appels (order_client_requests_seconds_count) :
+ *  - order_client_hedges_total / order_client_hedge_wins_total : requêtes doublées, et gagnées par le doublon ;
+ *  - order_client_retries_total : nouvelles tentatives après erreur ;
+ *  - order_client_retry_budget_exhausted_total : doublon ou nouvelle tentative refusé faute de budget.
+ */
+@Component
+public class ClientMetrics {
+
+    /** Bornes de l'histogramme : au-delà, les appels sont déjà en timeout */
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(10);
+
+    private final Map<Operation, Map<Outcome, Timer>> timers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> hedges = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> hedgeWins = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> retries = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> retryBudgetExhausted = new EnumMap<>(Operation.class);
+
+    public ClientMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            Map<Outcome, Timer> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome.put(outcome, Timer.builder("order_client_requests")
+                        .description("Latence des appels de ms-order vers les services distants")
+                        .tag("client", operation.client)
+                        .tag("operation", operation.tagValue)
+                        .tag("outcome", outcome.tagValue)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(MIN_EXPECTED)
+                        .maximumExpectedValue(MAX_EXPECTED)
+                        .register(meterRegistry));
+            }
+            timers.put(operation, byOutcome);
+
+            hedges.put(operation, counter(meterRegistry, "order_client_hedges_total",
+                    "Requêtes doublées après le délai de couverture (p95)", operation));
+            hedgeWins.put(operation, counter(meterRegistry, "order_client_hedge_wins_total",
+                    "Requêtes doublées dont le doublon a répondu en premier", operation));
+            retries.put(operation, counter(meterRegistry, "order_client_retries_total",
+                    "Nouvelles tentatives après une erreur réseau ou 5xx", operation));
+            retryBudgetExhausted.put(operation, counter(meterRegistry, "order_client_retry_budget_exhausted_total",
+                    "Doublons ou nouvelles tentatives refusés faute de budget", operation));
+        }
+    }
+
+    /**
+     * Mesure un appel bloquant.
+     */
+    public <T> T record(Operation operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = call.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = Outcome.of(e);
+            throw e;
+        } finally {
+            record(operation, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Mesure un appel asynchrone : le temps court jusqu'à la complétion du futur.
+     */
+    public <T> CompletableFuture<T> recordAsync(Operation operation, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            record(operation, Outcome.of(e), System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> record(operation,
+                error == null ? Outcome.SUCCESS : Outcome.of(error),
+                System.nanoTime() - start));
+    }
+
+    public void incrementHedge(Operation operation) {
+        hedges.get(operation).increment();
+    }
+
+    public void incrementHedgeWin(Operation operation) {
+        hedgeWins.get(operation).increment();
+    }
+
+    public void incrementRetry(Operation operation) {
+        retries.get(operation).increment();
+    }
+
+    public void incrementRetryBudgetExhausted(Operation operation) {
+        retryBudgetExhausted.get(operation).increment();
+    }
+
+    private void record(Operation operation, Outcome outcome, long nanos) {
+        timers.get(operation).get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description, Operation operation) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("client", operation.client)
+                .tag("operation", operation.tagValue)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opérations des clients : ensemble fermé, donc nombre de séries borné.
+     */
+    public enum Operation {
+        GET_USER("ms-membership", "get_user"),
+        GET_USER_CHANGES("ms-membership", "get_user_changes"),
+        GET_PRODUCT("ms-product", "get_product"),
+        GET_PRODUCTS("ms-product", "get_products"),
+        RESERVE_STOCK("ms-product", "reserve_stock"),
+        CONFIRM_RESERVATION("ms-product", "confirm_reservation"),
+        RELEASE_RESERVATION("ms-product", "release_reservation");
+
+        private final String client;
+        private final String tagValue;
+
+        Operation(String client, String tagValue) {
+            this.client = client;
+            this.tagValue = tagValue;
+        }
+
+        public String client() {
+            return client;
+        }
+
+        public String tagValue() {
+            return tagValue;
+        }
+    }
+
+    enum Outcome {
+        SUCCESS("success"),
+        CLIENT_ERROR("client_error"),
+        SERVER_ERROR("server_error"),
+        IO_ERROR("io_error"),
+        ERROR("error");
+
+        private final String tagValue;
+
+        Outcome(String tagValue) {
+            this.tagValue = tagValue;
+        }
+
+        static Outcome of(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof HttpClientErrorException) {
+                return CLIENT_ERROR;
+            }
+            if (cause instanceof HttpServerErrorException) {
+                return SERVER_ERROR;
+            }
+            if (cause instanceof ResourceAccessException) {
+                return IO_ERROR;
+            }
+            return ERROR;
+        }
+    }
+}
@@ -6,39 +6,119 @@ import com.episen.order.domain.repository.OrderRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
 
 /**
  * Centralise les métriques Micrometer liées aux commandes.
  * Objectif :
  * - Counters business (création, changement de statut)
  * - Gauge : montant total des commandes du jour
+ * - Timers (histogrammes de percentiles) : création de commande de bout en bout,
+ *   durée de chaque phase de la création, sauvegarde en base
+ *
+ * Les durées sont passées en nanosecondes (System.nanoTime) par le service.
+ *
+ * Le montant du jour est maintenu en mémoire, sans verrou : chaque création l'augmente,
+ * chaque annulation / suppression le diminue. La requête SQL (somme sur la journée)
+ * ne sert plus qu'à l'initialiser au démarrage et à le réconcilier périodiquement ;
+ * l'écart constaté à chaque réconciliation est exposé (orders_amount_today_drift).
+ *
+ * Avec plusieurs instances, chacune n'ajoute que ses propres commandes entre deux
+ * réconciliations : l'écart inclut alors les commandes des autres instances.
  */
 @Slf4j
 @Component
 public class OrderMetrics {
 
-    private final MeterRegistry meterRegistry;
     private final OrderRepository orderRepository;
+    private final Clock clock;
 
     private final ZoneId zoneId = ZoneId.of("Europe/Paris");
 
-    // valeur exposée par la Gauge
-    private volatile double amountToday = 0.0;
+    // compteurs enregistrés au démarrage (un par statut, un par couple from -> to) :
+    // pas de builder ni de recherche dans le registre à chaque commande
+    private final Map<OrderStatus, Counter> ordersCreated = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, Map<OrderStatus, Counter>> orderStatusChanged = new EnumMap<>(OrderStatus.class);
 
+    // création de commande : bout en bout par résultat, et par phase
+    private final Timer orderCreateSuccess;
+    private final Timer orderCreateFailure;
+    private final Map<CreatePhase, Timer> orderCreatePhases = new EnumMap<>(CreatePhase.class);
+
+    // sauvegarde d'une commande en base (orderRepository.save)
+    private final Timer orderDbSave;
+
+    // montant du jour en cours : base SQL (dernière réconciliation) + variations depuis
+    private final AtomicReference<DayAmount> amountToday;
+
+    // écart constaté à la dernière réconciliation (montant incrémental - montant SQL)
+    private volatile double amountTodayDrift = 0.0;
+
+    @Autowired
     public OrderMetrics(MeterRegistry meterRegistry,
                         OrderRepository orderRepository) {
+        this(meterRegistry, orderRepository, Clock.systemDefaultZone());
+    }
+
+    OrderMetrics(MeterRegistry meterRegistry,
+                 OrderRepository orderRepository,
+                 Clock clock) {
 
-        this.meterRegistry = meterRegistry;
         this.orderRepository = orderRepository;
+        this.clock = clock;
+        this.amountToday = new AtomicReference<>(new DayAmount(today(), 0.0));
+
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersCreated.put(status, Counter.builder("order_created_total")
+                    .description("Nombre total de commandes créées, groupées par statut")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+
+            Map<OrderStatus, Counter> byTarget = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus to : OrderStatus.values()) {
+                byTarget.put(to, Counter.builder("order_status_changed_total")
+                        .description("Nombre total de changements de statut de commandes")
+                        .tag("from", status.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry));
+            }
+            orderStatusChanged.put(status, byTarget);
+        }
+
+        // Timers : création de commande (bout en bout), phases, sauvegarde en base
+        orderCreateSuccess = histogram("order_create", "Durée de bout en bout d'une création de commande")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        orderCreateFailure = histogram("order_create", "Durée de bout en bout d'une création de commande")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        for (CreatePhase phase : CreatePhase.values()) {
+            orderCreatePhases.put(phase, histogram("order_create_phase", "Durée de chaque phase d'une création de commande")
+                    .tag("phase", phase.tagValue)
+                    .register(meterRegistry));
+        }
+        orderDbSave = histogram("order_db_save", "Durée de la sauvegarde d'une commande en base")
+                .register(meterRegistry);
 
         // Gauge : montant total des commandes du jour
         Gauge.builder("orders_amount_today", this, OrderMetrics::getAmountToday)
@@ -46,6 +126,13 @@ public class OrderMetrics {
                 .baseUnit("currency")
                 .tag("currency", "EUR")
                 .register(meterRegistry);
+
+        // Gauge : écart entre le montant incrémental et la somme SQL, à la dernière réconciliation
+        Gauge.builder("orders_amount_today_drift", this, OrderMetrics::getAmountTodayDrift)
+                .description("Ecart entre le montant du jour maintenu en mémoire et la somme SQL (dernière réconciliation)")
+                .baseUnit("currency")
+                .tag("currency", "EUR")
+                .register(meterRegistry);
     }
 
     /* =========================
@@ -58,11 +145,7 @@ public class OrderMetrics {
      * order_created_total{status="PENDING"} 5
      */
     public void incrementOrdersCreated(OrderStatus status) {
-        Counter.builder("order_created_total")
-                .description("Nombre total de commandes créées, groupées par statut")
-                .tag("status", status.name())
-                .register(meterRegistry)
-                .increment();
+        ordersCreated.get(status).increment();
     }
 
     /**
@@ -71,12 +154,36 @@ public class OrderMetrics {
      * order_status_changed_total{from="PENDING",to="DELIVERED"} 1
      */
     public void incrementOrderStatusChanged(OrderStatus from, OrderStatus to) {
-        Counter.builder("order_status_changed_total")
-                .description("Nombre total de changements de statut de commandes")
-                .tag("from", from.name())
-                .tag("to", to.name())
-                .register(meterRegistry)
-                .increment();
+        orderStatusChanged.get(from).get(to).increment();
+    }
+
+    /* =========================
+       TIMERS
+       ========================= */
+
+    /**
+     * Durée de bout en bout d'une création de commande
+     * Exemple (Prometheus) :
+     * order_create_seconds_bucket{outcome="success",le="0.1"} 42
+     */
+    public void recordOrderCreate(boolean success, long nanos) {
+        (success ? orderCreateSuccess : orderCreateFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Durée d'une phase de la création (enregistrée même si la phase échoue)
+     * Exemple :
+     * order_create_phase_seconds_count{phase="reservation"} 42
+     */
+    public void recordOrderCreatePhase(CreatePhase phase, long nanos) {
+        orderCreatePhases.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Durée de orderRepository.save (création et changement de statut)
+     */
+    public void recordOrderDbSave(long nanos) {
+        orderDbSave.record(nanos, TimeUnit.NANOSECONDS);
     }
 
     /* =========================
@@ -84,23 +191,142 @@ public class OrderMetrics {
        ========================= */
 
     public double getAmountToday() {
-        return amountToday;
+        return currentDay().value();
+    }
+
+    public double getAmountTodayDrift() {
+        return amountTodayDrift;
+    }
+
+    /**
+     * Ajoute le montant d'une commande créée au montant du jour.
+     * Une commande d'un autre jour que le jour en cours est ignorée.
+     */
+    public void addToAmountToday(LocalDateTime orderCreatedAt, BigDecimal amount) {
+        if (amount != null) {
+            adjustAmountToday(orderCreatedAt, amount.doubleValue());
+        }
+    }
+
+    /**
+     * Retire le montant d'une commande annulée ou supprimée du montant du jour
+     * (seulement si elle a été créée aujourd'hui).
+     */
+    public void removeFromAmountToday(LocalDateTime orderCreatedAt, BigDecimal amount) {
+        if (amount != null) {
+            adjustAmountToday(orderCreatedAt, -amount.doubleValue());
+        }
+    }
+
+    /**
+     * Initialise le montant du jour au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAmountToday() {
+        reconcileAmountToday();
+    }
+
+    /**
+     * Réconcilie le montant du jour avec la somme SQL et expose l'écart constaté.
+     * Une variation appliquée pendant la réconciliation peut être comptée deux fois
+     * ou pas du tout : l'écart est corrigé à la réconciliation suivante.
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.amount-today.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.metrics.amount-today.reconcile-interval-ms:300000}")
+    public void reconcileAmountToday() {
+
+        DayAmount current = currentDay();
+        LocalDate day = current.day();
+
+        double incremental = current.value();
+        double sql = sumAmount(day);
+
+        // nouvelle base pour le jour : la somme SQL, variations remises à zéro
+        if (amountToday.compareAndSet(current, new DayAmount(day, sql))) {
+            amountTodayDrift = incremental - sql;
+            log.debug("orders_amount_today réconcilié à {} (écart {})", sql, amountTodayDrift);
+        }
+    }
+
+    private void adjustAmountToday(LocalDateTime orderCreatedAt, double delta) {
+        LocalDate orderDay = orderCreatedAt != null ? orderCreatedAt.toLocalDate() : today();
+
+        DayAmount current = currentDay();
+        if (current.day().equals(orderDay)) {
+            current.add(delta);
+        }
+    }
+
+    /**
+     * Jour en cours, avec bascule à minuit (Europe/Paris) : le nouveau jour repart de 0.
+     */
+    private DayAmount currentDay() {
+        LocalDate today = today();
+        DayAmount current = amountToday.get();
+        while (current.day().isBefore(today)) {
+            DayAmount next = new DayAmount(today, 0.0);
+            if (amountToday.compareAndSet(current, next)) {
+                return next;
+            }
+            current = amountToday.get();
+        }
+        return current;
+    }
+
+    private static Timer.Builder histogram(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10));
+    }
+
+    private LocalDate today() {
+        return LocalDate.ofInstant(clock.instant(), zoneId);
+    }
+
+    private double sumAmount(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+
+        Double sum = orderRepository.sumTotalAmountBetween(start, end, OrderStatus.CANCELLED);
+        return (sum == null) ? 0.0 : sum;
+    }
+
+    /**
+     * Phases d'une création de commande :
+     * - lookup      : utilisateur + catalogue produits (caches locaux, sinon appels distants en parallèle)
+     * - reservation : réservation du stock auprès de ms-product
+     * - persistence : transaction de sauvegarde (commande, items, résumé utilisateur), commit compris
+     */
+    public enum CreatePhase {
+        LOOKUP("lookup"),
+        RESERVATION("reservation"),
+        PERSISTENCE("persistence");
+
+        private final String tagValue;
+
+        CreatePhase(String tagValue) {
+            this.tagValue = tagValue;
+        }
     }
 
     /**
-     * Recalcule le montant total des commandes du jour
-     * (toutes les 10 secondes — OK pour une démo)
+     * Montant d'un jour : base fixée à la réconciliation + variations (DoubleAdder,
+     * sans verrou ni contention entre threads).
      */
-    @Scheduled(fixedDelay = 10_000)
-    public void refreshAmountToday() {
+    private record DayAmount(LocalDate day, double base, DoubleAdder delta) {
 
-        LocalDate today = LocalDate.now(zoneId);
-        LocalDateTime start = today.atStartOfDay();
-        LocalDateTime end = today.plusDays(1).atStartOfDay();
+        DayAmount(LocalDate day, double base) {
+            this(day, base, new DoubleAdder());
+        }
 
-        Double sum = orderRepository.sumTotalAmountBetween(start, end);
-        amountToday = (sum == null) ? 0.0 : sum;
+        void add(double amount) {
+            delta.add(amount);
+        }
 
-        log.debug("orders_amount_today updated to {}", amountToday);
+        double value() {
+            return base + delta.sum();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Journal fichier (tests, rejeu) : un événement JSON par ligne, ajouté en fin de fichier.
+ *
+ * Appelé par le seul relais de l'outbox (tâche @Scheduled, une exécution à la fois) : pas de
+ * synchronized, qui épinglerait le thread virtuel du relais pendant l'écriture.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileOrderEventSink(ObjectMapper objectMapper,
+                              @Value("${app.outbox.file.path:order-events.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+        log.info("Événements de commande écrits dans {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public void publish(List<OrderEventDto> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OrderEventDto event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+
+import java.util.List;
+
+/**
+ * Destination des événements de commande relayés depuis l'outbox.
+ *
+ * Implémentation choisie par app.outbox.sink : in-process (défaut), webhook, file.
+ * Un lot est publié en entier ou pas du tout : une exception le fait rejouer plus tard
+ * (livraison au moins une fois, dans l'ordre des eventId).
+ */
+public interface OrderEventSink {
+
+    void publish(List<OrderEventDto> events);
+}
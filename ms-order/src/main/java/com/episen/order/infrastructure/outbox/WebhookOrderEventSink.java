@@ -0,0 +1,35 @@
+package com.episen.order.infrastructure.outbox;
+
+import com.episen.order.application.dto.OrderEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Webhook HTTP : chaque lot est envoyé en un POST (tableau JSON d'événements).
+ * Une réponse en erreur ou un échec réseau fait rejouer le lot.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "webhook")
+public class WebhookOrderEventSink implements OrderEventSink {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public WebhookOrderEventSink(RestTemplate restTemplate,
+                                 @Value("${app.outbox.webhook.url}") String url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+        log.info("Événements de commande publiés vers {}", url);
+    }
+
+    @Override
+    public void publish(List<OrderEventDto> events) {
+        restTemplate.postForEntity(url, events, Void.class);
+    }
+}
@@ -8,20 +8,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.episen.order.application.dto.OrderEventDto;
 import com.episen.order.application.dto.OrderRequestDto;
 import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.dto.OrderSubmissionDto;
 import com.episen.order.application.dto.UpdateOrderStatusRequestDto;
+import com.episen.order.application.dto.UserOrderSummaryDto;
+import com.episen.order.application.service.OrderIdempotencyService;
 import com.episen.order.application.service.OrderService;
+import com.episen.order.application.service.OrderSubmissionService;
+import com.episen.order.application.service.UserOrderSummaryService;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.infrastructure.web.stream.OrderEventBroadcaster;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
@@ -46,36 +66,180 @@ import java.util.List;
 @Tag(name = "Orders", description = "API de gestion des commandes")
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_RECENT_ORDERS = 50;
+
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderSubmissionService orderSubmissionService;
+    private final UserOrderSummaryService userOrderSummaryService;
+    private final OrderEventBroadcaster orderEventBroadcaster;
+    private final ObjectMapper objectMapper;
 
     /**
-     * GET /api/v1/orders
-     * Récupère la liste de toutes les commandes
+     * GET /api/v1/orders?after={id}&limit={n}
+     * Récupère une page de commandes triées par id croissant (pagination par curseur)
+     *
+     * Le curseur de la page suivante est renvoyé dans l'en-tête X-Next-Cursor
+     * (absent sur la dernière page).
      *
-     * @return Liste des commandes avec code 200 OK
+     * @param after Id de la dernière commande déjà lue (exclu), absent pour la première page
+     * @param limit Taille maximale de la page
+     * @return Page de commandes avec code 200 OK
      */
     @Operation(
-            summary = "Récupérer toutes les commandes",
-            description = "Retourne la liste complète de toutes les commandes enregistrées"
+            summary = "Récupérer les commandes par page",
+            description = "Retourne une page de commandes triées par id croissant. "
+                    + "Passer la valeur de l'en-tête X-Next-Cursor dans le paramètre after "
+                    + "pour obtenir la page suivante."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Liste récupérée avec succès",
+                    description = "Page récupérée avec succès",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = OrderResponseDto.class)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Taille de page invalide",
+                    content = @Content
             )
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDto>> getAllOrders() {
+    public ResponseEntity<List<OrderResponseDto>> getAllOrders(
+            @Parameter(description = "Id de la dernière commande déjà lue (exclu)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Taille de la page (1 à " + MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
 
-        log.info("GET /api/v1/orders - Récupération de toutes les commandes");
+        log.info("GET /api/v1/orders - Récupération des commandes après {} (limite {})", after, limit);
 
-        List<OrderResponseDto> orders = orderService.getAllOrders();
+        List<OrderResponseDto> orders = orderService.getOrdersPage(after, limit);
 
-        return ResponseEntity.ok(orders);
+        // Page pleine : il peut rester des commandes, on donne le curseur de la suite
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (orders.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(orders.get(orders.size() - 1).getId()));
+        }
+
+        return response.body(orders);
+    }
+
+    /**
+     * GET /api/v1/orders (Accept: application/x-ndjson)
+     * Exporte les commandes en flux, une commande JSON par ligne
+     *
+     * Les lignes sont écrites dans la réponse au fur et à mesure de leur lecture
+     * en base (curseur JDBC) : la mémoire utilisée ne dépend pas de la taille de la table.
+     *
+     * @param after Id à partir duquel reprendre l'export (exclu), absent pour tout exporter
+     * @return Flux NDJSON des commandes avec code 200 OK
+     */
+    @Operation(
+            summary = "Exporter les commandes en flux",
+            description = "Avec l'en-tête Accept: application/x-ndjson, retourne toutes les commandes "
+                    + "(triées par id croissant) en flux, une commande JSON par ligne."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Flux des commandes",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = OrderResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @Parameter(description = "Id à partir duquel reprendre l'export (exclu)")
+            @RequestParam(required = false) Long after) {
+
+        log.info("GET /api/v1/orders - Export en flux des commandes après {}", after);
+
+        // Pas de flush après chaque ligne : le tampon de la réponse est envoyé quand il est plein
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter lines = writer.writeValues(outputStream)) {
+                orderService.streamOrders(after, order -> {
+                    try {
+                        lines.write(order);
+                    } catch (IOException e) {
+                        // client déconnecté : on interrompt la lecture du curseur
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * GET /api/v1/orders/stream?userId={userId}&status={status}
+     * Ouvre un flux SSE des changements de commande
+     *
+     * Remplace l'interrogation périodique de /{id} et /status/{status} : chaque création,
+     * changement de statut ou suppression validé est poussé aux flux concernés.
+     * Événement SSE : id = eventId, event = type (ORDER_CREATED, ORDER_STATUS_CHANGED,
+     * ORDER_DELETED), data = OrderEventDto en JSON.
+     *
+     * @param userId Filtre optionnel sur l'utilisateur
+     * @param status Filtre optionnel sur le statut après l'événement
+     * @return Flux text/event-stream
+     */
+    @Operation(
+            summary = "Suivre les changements de commande (SSE)",
+            description = "Ouvre un flux Server-Sent Events des commandes créées, modifiées ou supprimées, "
+                    + "filtré par utilisateur et/ou par statut. Un client trop lent perd les événements "
+                    + "les plus anciens : un trou dans les id d'événements impose de relire les commandes concernées."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Flux ouvert",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = OrderEventDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Nombre maximal de flux ouverts atteint",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(
+            @Parameter(description = "ID de l'utilisateur (tous si absent)")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Statut de la commande après l'événement (tous si absent)")
+            @RequestParam(required = false) String status) {
+
+        log.info("GET /api/v1/orders/stream - Ouverture d'un flux (userId={}, status={})", userId, status);
+
+        OrderStatus orderStatus = null;
+        if (status != null) {
+            try {
+                orderStatus = OrderStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Statut de commande invalide : " + status);
+            }
+        }
+
+        return orderEventBroadcaster.subscribe(userId, orderStatus);
     }
 
     /**
@@ -120,6 +284,10 @@ public class OrderController {
      * POST /api/v1/orders
      * Crée une nouvelle commande
      *
+     * Avec l'en-tête Idempotency-Key, une requête répétée (même clé, même corps) reçoit
+     * la commande déjà créée, signalée par l'en-tête Idempotent-Replayed: true.
+     *
+     * @param idempotencyKey Clé d'idempotence choisie par le client (optionnelle)
      * @param request Données de la commande à créer
      * @return La commande créée avec code 201 CREATED et Location header
      */
@@ -127,7 +295,9 @@ public class OrderController {
             summary = "Créer une nouvelle commande",
             description = "Crée une commande pour un utilisateur donné avec une liste d'articles. "
                     + "Valide l'existence de l'utilisateur et des produits, calcule le total, "
-                    + "et retourne la commande créée."
+                    + "et retourne la commande créée. Avec l'en-tête Idempotency-Key, les répétitions "
+                    + "de la requête (nouvelles tentatives du client) retournent la même commande "
+                    + "sans en créer de nouvelle."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -142,11 +312,23 @@ public class OrderController {
                     responseCode = "400",
                     description = "Données invalides",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Commande en cours de création pour cette clé d'idempotence",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Clé d'idempotence déjà utilisée pour une autre commande",
+                    content = @Content
             )
     })
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<OrderResponseDto> createOrder(
+            @Parameter(description = "Clé d'idempotence (ex : UUID), identique pour toutes les tentatives d'une commande")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) @Size(min = 1, max = 255) String idempotencyKey,
             @Parameter(description = "Données de la commande à créer", required = true)
             @Valid @RequestBody OrderRequestDto request) {
 
@@ -155,7 +337,8 @@ public class OrderController {
                 (request.getItems() != null ? request.getItems().size() : 0)
         );
 
-        OrderResponseDto createdOrder = orderService.createOrder(request);
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder(idempotencyKey, request);
+        OrderResponseDto createdOrder = result.order();
 
         // Best practice REST : retourner l'URI de la ressource créée dans le header Location
         URI location = ServletUriComponentsBuilder
@@ -164,9 +347,108 @@ public class OrderController {
                 .buildAndExpand(createdOrder.getId())
                 .toUri();
 
+        ResponseEntity.BodyBuilder response = ResponseEntity.created(location);
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+
+        return response.body(createdOrder);
+    }
+
+    /**
+     * POST /api/v1/orders/submissions
+     * Soumet une commande à créer en asynchrone
+     *
+     * La commande est enregistrée dans la file locale puis créée par OrderSubmissionWorker :
+     * la réponse n'attend ni ms-membership ni ms-product.
+     *
+     * @param request Données de la commande à créer
+     * @return L'état de la soumission avec code 202 ACCEPTED et Location header
+     */
+    @Operation(
+            summary = "Soumettre une commande (asynchrone)",
+            description = "Enregistre la commande à créer et retourne immédiatement un identifiant de suivi. "
+                    + "La commande est créée en arrière-plan avec les mêmes contrôles que POST /api/v1/orders ; "
+                    + "son état est consultable via l'URI de l'en-tête Location."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Soumission enregistrée",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OrderSubmissionDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Données invalides",
+                    content = @Content
+            )
+    })
+    @PostMapping(value = "/submissions",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderSubmissionDto> submitOrder(
+            @Parameter(description = "Données de la commande à créer", required = true)
+            @Valid @RequestBody OrderRequestDto request) {
+
+        log.info("POST /api/v1/orders/submissions - Soumission d'une commande pour userId={}, nbItems={}",
+                request.getUserId(),
+                (request.getItems() != null ? request.getItems().size() : 0)
+        );
+
+        OrderSubmissionDto submission = orderSubmissionService.submit(request);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{trackingId}")
+                .buildAndExpand(submission.getTrackingId())
+                .toUri();
+
         return ResponseEntity
-                .created(location)
-                .body(createdOrder);
+                .accepted()
+                .location(location)
+                .body(submission);
+    }
+
+    /**
+     * GET /api/v1/orders/submissions/{trackingId}
+     * Récupère l'état d'une commande soumise en asynchrone
+     *
+     * @param trackingId L'identifiant de suivi retourné à la soumission
+     * @return L'état de la soumission avec code 200 OK ou 404 NOT FOUND
+     */
+    @Operation(
+            summary = "Récupérer l'état d'une soumission",
+            description = "Retourne l'état d'une commande soumise en asynchrone : PENDING, PROCESSING, "
+                    + "COMPLETED (avec l'id de la commande créée) ou FAILED (avec le code d'erreur)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Soumission trouvée",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OrderSubmissionDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Soumission non trouvée",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/submissions/{trackingId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderSubmissionDto> getSubmission(
+            @Parameter(description = "Identifiant de suivi de la soumission", required = true)
+            @PathVariable String trackingId) {
+
+        log.info("GET /api/v1/orders/submissions/{} - État de la soumission", trackingId);
+
+        OrderSubmissionDto submission = orderSubmissionService.getSubmission(trackingId);
+
+        return ResponseEntity.ok(submission);
     }
 
     /**
@@ -202,6 +484,51 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * GET /api/v1/orders/user/{userId}/summary
+     * Récupère le résumé des commandes d'un utilisateur (page compte)
+     *
+     * Servi par le résumé maintenu à chaque écriture : une ligne lue,
+     * plus les dernières commandes, quel que soit le nombre de commandes.
+     *
+     * @param userId L'identifiant de l'utilisateur
+     * @param recent Nombre de dernières commandes à inclure
+     * @return Résumé des commandes avec code 200 OK
+     */
+    @Operation(
+            summary = "Récupérer le résumé des commandes d'un utilisateur",
+            description = "Retourne le nombre de commandes, le montant cumulé (hors commandes annulées), "
+                    + "le nombre de commandes par statut et les dernières commandes d'un utilisateur"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Résumé récupéré avec succès",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserOrderSummaryDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Nombre de dernières commandes invalide",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/user/{userId}/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserOrderSummaryDto> getUserOrderSummary(
+            @Parameter(description = "ID de l'utilisateur", required = true)
+            @PathVariable Long userId,
+            @Parameter(description = "Nombre de dernières commandes (0 à " + MAX_RECENT_ORDERS + ")")
+            @RequestParam(defaultValue = "5") @Min(0) @Max(MAX_RECENT_ORDERS) int recent) {
+
+        log.info("GET /api/v1/orders/user/{}/summary - Résumé des commandes utilisateur", userId);
+
+        UserOrderSummaryDto summary = userOrderSummaryService.getSummary(userId, recent);
+
+        return ResponseEntity.ok(summary);
+    }
+
     /**
      * GET /api/v1/orders/status/{status}
      * Récupère toutes les commandes par statut
@@ -0,0 +1,205 @@
+package com.episen.order.infrastructure.web.stream;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.infrastructure.exception.TooManySubscribersException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diffusion des changements de commande aux flux SSE ouverts (GET /api/v1/orders/stream).
+ *
+ * Principe :
+ *  - publish() est appelé après le commit de la commande (OrderEventOutbox) : il ne fait
+ *    que déposer l'événement dans la file de chaque abonné concerné, sans jamais attendre ;
+ *  - chaque abonné a une file bornée (`buffer-size`) : un client trop lent perd ses
+ *    événements les plus anciens (order_stream_events_dropped_total), les autres ne sont
+ *    pas ralentis ;
+ *  - l'envoi vers un abonné est fait par une seule tâche à la fois, sur un thread virtuel :
+ *    une écriture bloquée sur une connexion lente n'immobilise pas de thread plateforme ;
+ *  - un commentaire `ping` est envoyé toutes les `heartbeat-interval` : les connexions
+ *    fermées côté client sont détectées et libérées.
+ *
+ * Un événement perdu n'est pas rejoué : après une reconnexion ou un trou dans les eventId,
+ * le client relit l'état de la commande (GET /api/v1/orders/{id}).
+ */
+@Slf4j
+@Component
+public class OrderEventBroadcaster {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    private final Counter dropped;
+
+    @Autowired
+    public OrderEventBroadcaster(MeterRegistry meterRegistry,
+                                 @Value("${app.orders.stream.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${app.orders.stream.buffer-size:256}") int bufferSize,
+                                 @Value("${app.orders.stream.timeout:30m}") Duration timeout) {
+        this(meterRegistry, maxSubscribers, bufferSize, timeout,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-stream-", 1).factory()));
+    }
+
+    OrderEventBroadcaster(MeterRegistry meterRegistry, int maxSubscribers, int bufferSize, Duration timeout,
+                          ExecutorService senders) {
+        this.senders = senders;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+
+        Gauge.builder("order_stream_subscribers", subscribers, Set::size)
+                .description("Flux SSE de commandes ouverts")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("order_stream_events_dropped_total")
+                .description("Événements écartés car la file d'un abonné lent était pleine")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre un flux ; userId et status sont des filtres optionnels (null = tous).
+     */
+    public SseEmitter subscribe(Long userId, OrderStatus status) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManySubscribersException(maxSubscribers);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, userId, status);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        log.debug("Flux de commandes ouvert (userId={}, status={}), {} abonné(s)", userId, status, subscribers.size());
+        return emitter;
+    }
+
+    public void publish(OrderEventDto event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::ping);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    /**
+     * Un flux ouvert : filtre, file bornée, et au plus une tâche d'envoi en cours.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final OrderStatus status;
+
+        private final Deque<OrderEventDto> pending = new ArrayDeque<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean pingRequested;
+
+        Subscriber(SseEmitter emitter, Long userId, OrderStatus status) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.status = status;
+        }
+
+        boolean accepts(OrderEventDto event) {
+            return (userId == null || userId.equals(event.getUserId()))
+                    && (status == null || status == event.getStatus());
+        }
+
+        void offer(OrderEventDto event) {
+            synchronized (pending) {
+                if (pending.size() >= bufferSize) {
+                    pending.pollFirst();
+                    dropped.increment();
+                }
+                pending.addLast(event);
+            }
+            schedule();
+        }
+
+        void ping() {
+            pingRequested = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    OrderEventDto event;
+                    synchronized (pending) {
+                        event = pending.pollFirst();
+                    }
+                    if (event != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getEventId()))
+                                .name(event.getType().name())
+                                .data(event, MediaType.APPLICATION_JSON));
+                    } else if (pingRequested) {
+                        pingRequested = false;
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        break;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client déconnecté ou flux déjà terminé
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // un événement a pu arriver entre la file vide et la libération du drapeau
+            boolean more;
+            synchronized (pending) {
+                more = !pending.isEmpty();
+            }
+            if (more || pingRequested) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderItemRequestDto;
+import com.episen.order.application.dto.OrderRequestDto;
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.infrastructure.exception.IdempotencyKeyReusedException;
+import com.episen.order.infrastructure.idempotency.InMemoryIdempotencyStore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OrderIdempotencyServiceTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderIdempotencyService service = new OrderIdempotencyService(
+            orderService,
+            new InMemoryIdempotencyStore(new SimpleMeterRegistry(), 100, Duration.ofHours(1)),
+            new ObjectMapper(),
+            new SimpleMeterRegistry());
+
+    // Même clé, même corps : la commande déjà créée est rendue, createOrder n'est appelé qu'une fois
+    @Test
+    void createOrder_shouldReplay_whenKeyIsRepeated() {
+        OrderResponseDto created = OrderResponseDto.builder().id(42L).build();
+        when(orderService.createOrder(any())).thenReturn(created);
+
+        OrderIdempotencyService.Result first = service.createOrder("key-1", request(2));
+        OrderIdempotencyService.Result second = service.createOrder("key-1", request(2));
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(42L, second.order().getId());
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    // Même clé, autre corps : refus
+    @Test
+    void createOrder_shouldReject_whenKeyIsReusedForAnotherRequest() {
+        when(orderService.createOrder(any())).thenReturn(OrderResponseDto.builder().id(42L).build());
+
+        service.createOrder("key-1", request(2));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.createOrder("key-1", request(3)));
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    // Doublons simultanés : une seule création, le doublon attend son résultat
+    @Test
+    void createOrder_shouldCoalesceConcurrentDuplicates() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return OrderResponseDto.builder().id(42L).build();
+        });
+
+        CompletableFuture<OrderIdempotencyService.Result> first =
+                CompletableFuture.supplyAsync(() -> service.createOrder("key-1", request(2)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OrderIdempotencyService.Result> duplicate =
+                CompletableFuture.supplyAsync(() -> service.createOrder("key-1", request(2)));
+
+        release.countDown();
+
+        assertEquals(42L, first.get(5, TimeUnit.SECONDS).order().getId());
+        assertEquals(42L, duplicate.get(5, TimeUnit.SECONDS).order().getId());
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    // Échec de la création : la clé est libérée, la tentative suivante recrée la commande
+    @Test
+    void createOrder_shouldRetry_whenFirstAttemptFailed() {
+        when(orderService.createOrder(any()))
+                .thenThrow(new IllegalStateException("ms-product indisponible"))
+                .thenReturn(OrderResponseDto.builder().id(42L).build());
+
+        assertThrows(IllegalStateException.class, () -> service.createOrder("key-1", request(2)));
+        OrderIdempotencyService.Result retry = service.createOrder("key-1", request(2));
+
+        assertFalse(retry.replayed());
+        verify(orderService, times(2)).createOrder(any());
+    }
+
+    private static OrderRequestDto request(int quantity) {
+        return OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de Paris")
+                .items(List.of(OrderItemRequestDto.builder().productId(10L).quantity(quantity).build()))
+                .build();
+    }
+}
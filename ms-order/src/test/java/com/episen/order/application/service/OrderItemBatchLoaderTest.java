@@ -0,0 +1,142 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.mapper.OrderItemMapper;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderItem;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.projection.OrderRow;
+import com.episen.order.domain.repository.OrderReadRepository;
+import com.episen.order.domain.repository.OrderRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nombre de requêtes SQL des lectures de listes : il ne doit pas dépendre
+ * du nombre de commandes (pas de SELECT d'items par commande).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderItemBatchLoader.class, OrderMapper.class, OrderItemMapper.class})
+class OrderItemBatchLoaderTest {
+
+    private static final long USER_ID = 7L;
+
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderReadRepository orderReadRepository;
+    @Autowired private OrderItemBatchLoader orderItemBatchLoader;
+    @Autowired private OrderMapper orderMapper;
+    @Autowired private TestEntityManager testEntityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 100; i++) {
+            orderRepository.save(orderWithItems(3));
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Page de 100 commandes : 1 requête pour la page + 1 requête IN (...) pour les items
+    @Test
+    void orderPage_shouldUseConstantStatementCount() {
+        List<OrderResponseDto> smallPage = loadPage(10);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<OrderResponseDto> fullPage = loadPage(100);
+
+        assertEquals(10, smallPage.size());
+        assertEquals(100, fullPage.size());
+        assertTrue(fullPage.stream().allMatch(order -> order.getItems().size() == 3));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(smallPageStatements, statistics.getPrepareStatementCount());
+    }
+
+    // Commandes d'un utilisateur (projections) : 1 requête pour les commandes + 1 pour les items
+    @Test
+    void ordersByUser_shouldLoadItemsInOneStatement() {
+        List<OrderRow> orders = orderReadRepository.findByUserId(USER_ID);
+        List<OrderResponseDto> dtos = orderMapper.toDtos(orders, orderItemBatchLoader.loadItems(orders));
+
+        assertEquals(100, dtos.size());
+        assertTrue(dtos.stream().allMatch(order -> order.getItems().size() == 3));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Liste non paginée : ids envoyés par tranches (limite des paramètres liés), aucun item perdu
+    @Test
+    void ordersByUser_shouldSplitItemQueryIntoChunks_whenManyOrders() {
+        OrderItemBatchLoader chunkedLoader = new OrderItemBatchLoader(orderReadRepository, 40);
+
+        List<OrderRow> orders = orderReadRepository.findByUserId(USER_ID);
+        List<OrderResponseDto> dtos = orderMapper.toDtos(orders, chunkedLoader.loadItems(orders));
+
+        assertEquals(100, dtos.size());
+        assertTrue(dtos.stream().allMatch(order -> order.getItems().size() == 3));
+        // 1 requête pour les commandes + 3 tranches de 40, 40 et 20 ids
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    // Variante entités : commandes et items en une seule requête (entity graph)
+    @Test
+    void ordersByUserWithItems_shouldLoadItemsInSameStatement() {
+        List<Order> orders = orderRepository.findWithItemsByUserId(USER_ID);
+        List<OrderResponseDto> dtos = orders.stream().map(orderMapper::toDto).toList();
+
+        assertEquals(100, dtos.size());
+        assertTrue(dtos.stream().allMatch(order -> order.getItems().size() == 3));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private List<OrderResponseDto> loadPage(int limit) {
+        List<OrderRow> orders = orderReadRepository.findPage(0L, Limit.of(limit));
+        return orderMapper.toDtos(orders, orderItemBatchLoader.loadItems(orders));
+    }
+
+    private static Order orderWithItems(int itemCount) {
+        Order order = Order.builder()
+                .userId(USER_ID)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.valueOf(itemCount * 10L))
+                .shippingAddress("1 rue de la Paix, Paris")
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 1; i <= itemCount; i++) {
+            items.add(OrderItem.builder()
+                    .order(order)
+                    .productId((long) i)
+                    .productName("Produit " + i)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+        }
+        order.setItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,141 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.mapper.OrderItemMapper;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderItem;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.projection.OrderRow;
+import com.episen.order.domain.repository.OrderReadRepository;
+import com.episen.order.domain.repository.OrderRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comparaison des deux chemins de lecture d'une liste de commandes :
+ *  - entités : Order + OrderItem hydratés (entity graph), puis copiés dans les DTOs ;
+ *  - projections : OrderRow / OrderItemRow construits par la requête, puis copiés dans les DTOs.
+ *
+ * Mesure le temps et la mémoire allouée par commande lue (thread courant).
+ * Exclu du build par défaut : mvn test -Pbenchmark
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@Import({OrderItemBatchLoader.class, OrderMapper.class, OrderItemMapper.class})
+class OrderReadPathBenchmarkTest {
+
+    private static final long USER_ID = 42L;
+    private static final int ORDERS = 5_000;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderReadRepository orderReadRepository;
+    @Autowired private OrderItemBatchLoader orderItemBatchLoader;
+    @Autowired private OrderMapper orderMapper;
+    @Autowired private TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            orderRepository.save(orderWithItems());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void compareEntityAndProjectionReadPaths() {
+        Supplier<List<OrderResponseDto>> entityPath = () -> {
+            List<OrderResponseDto> dtos = orderRepository.findWithItemsByUserId(USER_ID).stream()
+                    .map(orderMapper::toDto)
+                    .toList();
+            testEntityManager.clear();
+            return dtos;
+        };
+        Supplier<List<OrderResponseDto>> projectionPath = () -> {
+            List<OrderRow> rows = orderReadRepository.findByUserId(USER_ID);
+            return orderMapper.toDtos(rows, orderItemBatchLoader.loadItems(rows));
+        };
+
+        Measure entities = measure(entityPath);
+        Measure projections = measure(projectionPath);
+
+        log.info("Lecture de {} commandes x {} items, {} itérations :", ORDERS, ITEMS_PER_ORDER, MEASURED_ITERATIONS);
+        log.info("  entités     : {} µs/commande, {} octets alloués/commande", String.format("%.2f", entities.microsPerOrder()), entities.bytesPerOrder());
+        log.info("  projections : {} µs/commande, {} octets alloués/commande", String.format("%.2f", projections.microsPerOrder()), projections.bytesPerOrder());
+
+        // Les deux chemins doivent produire le même résultat
+        List<OrderResponseDto> fromEntities = entityPath.get();
+        List<OrderResponseDto> fromProjections = projectionPath.get();
+        assertEquals(ORDERS, fromProjections.size());
+        assertEquals(
+                fromEntities.stream().map(OrderResponseDto::getId).sorted().toList(),
+                fromProjections.stream().map(OrderResponseDto::getId).toList());
+        assertTrue(fromProjections.stream().allMatch(order -> order.getItems().size() == ITEMS_PER_ORDER));
+    }
+
+    private Measure measure(Supplier<List<OrderResponseDto>> readPath) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readPath.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            assertEquals(ORDERS, readPath.get().size());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long reads = (long) ORDERS * MEASURED_ITERATIONS;
+        return new Measure(elapsed / 1_000.0 / reads, allocated / reads);
+    }
+
+    private record Measure(double microsPerOrder, long bytesPerOrder) {
+    }
+
+    private static Order orderWithItems() {
+        Order order = Order.builder()
+                .userId(USER_ID)
+                .status(OrderStatus.PENDING)
+                .totalAmount(BigDecimal.valueOf(ITEMS_PER_ORDER * 10L))
+                .shippingAddress("1 rue de la Paix, Paris")
+                .build();
+
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS_PER_ORDER; i++) {
+            items.add(OrderItem.builder()
+                    .order(order)
+                    .productId((long) i)
+                    .productName("Produit " + i)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+        }
+        order.setItems(items);
+        return order;
+    }
+}
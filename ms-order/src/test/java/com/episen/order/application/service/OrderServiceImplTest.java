@@ -1,41 +1,84 @@
 package com.episen.order.application.service;
 
+import com.episen.order.application.dto.OrderItemRequestDto;
 import com.episen.order.application.dto.OrderRequestDto;
 import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.application.dto.ProductDto;
+import com.episen.order.application.dto.StockReservationLineDto;
+import com.episen.order.application.dto.StockReservationLineResultDto;
+import com.episen.order.application.dto.StockReservationResponseDto;
 import com.episen.order.application.dto.UpdateOrderStatusRequestDto;
+import com.episen.order.application.dto.UserDto;
 import com.episen.order.application.mapper.OrderItemMapper;
 import com.episen.order.application.mapper.OrderMapper;
 import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.OrderItem;
 import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.projection.OrderRow;
+import com.episen.order.domain.repository.OrderReadRepository;
 import com.episen.order.domain.repository.OrderRepository;
+import com.episen.order.infrastructure.cache.ProductCatalogCache;
+import com.episen.order.infrastructure.cache.UserExistenceCache;
+import com.episen.order.infrastructure.client.ClientCallExecutor;
 import com.episen.order.infrastructure.client.ProductClient;
-import com.episen.order.infrastructure.client.UserClient;
+import com.episen.order.infrastructure.exception.InsufficientStockException;
+import com.episen.order.infrastructure.exception.OrderNotFoundException;
 import com.episen.order.infrastructure.exception.OrderNotModifiableException; // ✅ AJOUT
+import com.episen.order.infrastructure.exception.ProductNotFoundException;
+import com.episen.order.infrastructure.exception.ReservationExpiredException;
+import com.episen.order.infrastructure.exception.UserNotFoundException;
 import com.episen.order.infrastructure.metrics.OrderMetrics;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
 
     @Mock private OrderRepository orderRepository;
+    @Mock private OrderReadRepository orderReadRepository;
     @Mock private OrderMapper orderMapper;
     @Mock private OrderItemMapper orderItemMapper;
-    @Mock private UserClient userClient;
+    @Mock private OrderItemBatchLoader orderItemBatchLoader;
+    @Mock private UserExistenceCache userExistenceCache;
     @Mock private ProductClient productClient;
+    @Mock private ProductCatalogCache productCatalogCache;
     @Mock private OrderMetrics orderMetrics;
+    @Mock private UserOrderSummaryService userOrderSummaryService;
+    @Mock private OrderEventOutbox orderEventOutbox;
+    @Mock private ReservationCompensator reservationCompensator;
+    @Mock private EntityManager entityManager;
+    @Spy private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+    @Spy private ClientCallExecutor clientCallExecutor = new ClientCallExecutor(4, 16, Duration.ofSeconds(2));
 
     @InjectMocks private OrderServiceImpl orderService;
 
@@ -88,6 +131,7 @@ class OrderServiceImplTest {
         order.setStatus(OrderStatus.PENDING);
 
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
 
         OrderResponseDto expectedDto = new OrderResponseDto();
@@ -109,6 +153,10 @@ class OrderServiceImplTest {
 
         // Then (metric old->new)
         verify(orderMetrics).incrementOrderStatusChanged(OrderStatus.PENDING, OrderStatus.DELIVERED);
+
+        // Then (résumé de l'utilisateur : PENDING -> DELIVERED)
+        verify(userOrderSummaryService).onStatusChanged(order, OrderStatus.PENDING, OrderStatus.DELIVERED);
+        verify(orderEventOutbox).statusChanged(order, OrderStatus.PENDING);
     }
 
     // (Optionnel si tu veux remplacer un des 3) : createOrder should throw if no items
@@ -119,6 +167,362 @@ class OrderServiceImplTest {
 
         assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(req));
 
-        verifyNoInteractions(userClient, productClient, orderRepository, orderMetrics);
+        verifyNoInteractions(userExistenceCache, productClient, orderRepository);
+        verify(orderMetrics).recordOrderCreate(eq(false), anyLong());
+        verify(orderMetrics, never()).incrementOrdersCreated(any());
+    }
+
+    // createOrder : l'utilisateur et les produits sont interrogés en parallèle
+    @Test
+    void createOrder_shouldLookupUserAndProductsConcurrently() {
+        // Given : l'appel user ne répond qu'une fois l'appel produit démarré
+        // (appels en séquence => le user n'arrive jamais => timeout)
+        CompletableFuture<Optional<UserDto>> user = new CompletableFuture<>();
+
+        when(userExistenceCache.getUser(1L)).thenReturn(user);
+        when(productCatalogCache.getProductsByIdsAsync(List.of(10L))).thenAnswer(inv -> {
+            user.complete(Optional.of(UserDto.builder().id(1L).build()));
+            return completedFuture(List.of(
+                    ProductDto.builder().id(10L).name("Clavier").price(BigDecimal.TEN).build()));
+        });
+        when(orderMapper.toEntityFromRequest(any(OrderRequestDto.class))).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any(OrderItemRequestDto.class))).thenAnswer(inv -> new OrderItem());
+        when(productClient.reserveStock(any())).thenReturn(StockReservationResponseDto.builder()
+                .reserved(false)
+                .lines(List.of(StockReservationLineResultDto.builder()
+                        .productId(10L).quantity(1).status(StockReservationLineResultDto.INSUFFICIENT_STOCK).build()))
+                .build());
+
+        OrderRequestDto req = OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de Paris")
+                .items(List.of(OrderItemRequestDto.builder().productId(10L).quantity(1).build()))
+                .build();
+
+        // When + Then : les deux appels aboutissent, puis la réservation de stock s'applique
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(req));
+
+        verify(productCatalogCache).evict(Set.of(10L));
+        verifyNoInteractions(orderRepository);
+    }
+
+    // createOrder : un produit absent de la lecture groupée => ProductNotFoundException
+    @Test
+    void createOrder_shouldThrowProductNotFound_whenProductMissingFromBatch() {
+        when(userExistenceCache.getUser(1L)).thenReturn(completedFuture(Optional.of(UserDto.builder().id(1L).build())));
+        when(productCatalogCache.getProductsByIdsAsync(List.of(10L, 11L))).thenReturn(completedFuture(List.of(
+                ProductDto.builder().id(10L).name("Clavier").price(BigDecimal.TEN).stock(5).build())));
+
+        OrderRequestDto req = OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de Paris")
+                .items(List.of(
+                        OrderItemRequestDto.builder().productId(10L).quantity(1).build(),
+                        OrderItemRequestDto.builder().productId(11L).quantity(1).build()))
+                .build();
+
+        ProductNotFoundException ex =
+                assertThrows(ProductNotFoundException.class, () -> orderService.createOrder(req));
+        assertTrue(ex.getMessage().endsWith("id=11"));
+
+        verify(productClient, never()).reserveStock(any());
+        verifyNoInteractions(orderRepository);
+    }
+
+    // createOrder : réservation refusée par ms-product => exception métier, rien n'est sauvegardé
+    @Test
+    void createOrder_shouldThrowInsufficientStock_whenReservationIsRefused() {
+        when(userExistenceCache.getUser(1L)).thenReturn(completedFuture(Optional.of(UserDto.builder().id(1L).build())));
+        when(productCatalogCache.getProductsByIdsAsync(List.of(10L))).thenReturn(completedFuture(List.of(
+                ProductDto.builder().id(10L).name("Clavier").price(BigDecimal.TEN).stock(5).build())));
+        when(orderMapper.toEntityFromRequest(any(OrderRequestDto.class))).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any(OrderItemRequestDto.class))).thenAnswer(inv -> new OrderItem());
+        when(productClient.reserveStock(any())).thenReturn(StockReservationResponseDto.builder()
+                .reserved(false)
+                .lines(List.of(StockReservationLineResultDto.builder()
+                        .productId(10L).quantity(3).status(StockReservationLineResultDto.INSUFFICIENT_STOCK).build()))
+                .build());
+
+        // deux lignes sur le même produit => une seule ligne de réservation (quantité cumulée)
+        OrderRequestDto req = OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de Paris")
+                .items(List.of(
+                        OrderItemRequestDto.builder().productId(10L).quantity(1).build(),
+                        OrderItemRequestDto.builder().productId(10L).quantity(2).build()))
+                .build();
+
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(req));
+
+        verify(productClient).reserveStock(List.of(
+                StockReservationLineDto.builder().productId(10L).quantity(3).build()));
+        verifyNoInteractions(orderRepository);
+        verify(orderMetrics).recordOrderCreate(eq(false), anyLong());
+        verify(orderMetrics, never()).incrementOrdersCreated(any());
+    }
+
+    // createOrder : un utilisateur inconnu est prioritaire sur les erreurs produit
+    @Test
+    void createOrder_shouldThrowUserNotFound_whenUserIsMissing() {
+        when(userExistenceCache.getUser(1L)).thenReturn(completedFuture(Optional.empty()));
+        lenient().when(productCatalogCache.getProductsByIdsAsync(List.of(10L))).thenReturn(completedFuture(List.of()));
+
+        OrderRequestDto req = OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de Paris")
+                .items(List.of(OrderItemRequestDto.builder().productId(10L).quantity(1).build()))
+                .build();
+
+        assertThrows(UserNotFoundException.class, () -> orderService.createOrder(req));
+
+        verifyNoInteractions(orderRepository);
+        verify(orderMetrics).recordOrderCreate(eq(false), anyLong());
+        verify(orderMetrics, never()).incrementOrdersCreated(any());
+    }
+
+    // Réservation expirée : la commande ne peut plus être confirmée (stock déjà rendu)
+    @Test
+    void updateOrderStatus_shouldThrowReservationExpired_whenConfirmIsRefused() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        doThrow(HttpClientErrorException.create(HttpStatus.CONFLICT, "Conflict", null, null, null))
+                .when(productClient).confirmReservation("resa-1");
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CONFIRMED");
+
+        assertThrows(ReservationExpiredException.class, () -> orderService.updateOrderStatus(1L, req));
+
+        verify(orderRepository, never()).save(any());
+    }
+
+    // Annulation d'une commande expédiée : le stock a quitté l'entrepôt, la réservation n'est pas libérée
+    @Test
+    void updateOrderStatus_shouldNotReleaseReservation_whenShippedOrderIsCancelled() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.SHIPPED);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        verify(productClient, never()).releaseReservation(any());
+        verifyNoInteractions(reservationCompensator);
+    }
+
+    // Annulation non enregistrée : la réservation reste en place (libération après le commit)
+    @Test
+    void updateOrderStatus_shouldNotReleaseReservation_whenCancellationIsNotSaved() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("base indisponible"));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        assertThrows(IllegalStateException.class, () -> orderService.updateOrderStatus(1L, req));
+
+        verify(productClient, never()).releaseReservation(any());
+        verifyNoInteractions(reservationCompensator);
+    }
+
+    // Annulation enregistrée, ms-product indisponible : la libération passe par le journal de compensation
+    @Test
+    void updateOrderStatus_shouldScheduleCompensation_whenReleaseFailsAfterCancellation() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new ResourceAccessException("ms-product indisponible"))
+                .when(productClient).releaseReservation("resa-1");
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        verify(reservationCompensator).schedule("resa-1", "ORDER_CANCELLED");
+        verify(orderEventOutbox).statusChanged(order, OrderStatus.PENDING);
+    }
+
+    // createOrder : échec de l'enregistrement => compensation journalisée, pas de libération synchrone
+    @Test
+    void createOrder_shouldScheduleCompensation_whenSaveFails() {
+        when(userExistenceCache.getUser(1L)).thenReturn(completedFuture(Optional.of(UserDto.builder().id(1L).build())));
+        when(productCatalogCache.getProductsByIdsAsync(List.of(10L))).thenReturn(completedFuture(List.of(
+                ProductDto.builder().id(10L).name("Clavier").price(BigDecimal.TEN).build())));
+        when(orderMapper.toEntityFromRequest(any(OrderRequestDto.class))).thenReturn(new Order());
+        when(orderItemMapper.toEntity(any(OrderItemRequestDto.class))).thenAnswer(inv -> new OrderItem());
+        when(productClient.reserveStock(any())).thenReturn(StockReservationResponseDto.builder()
+                .reserved(true)
+                .reservationId("resa-1")
+                .build());
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("base indisponible"));
+
+        OrderRequestDto req = OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de Paris")
+                .items(List.of(OrderItemRequestDto.builder().productId(10L).quantity(1).build()))
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(req));
+
+        verify(reservationCompensator).schedule("resa-1", "ORDER_NOT_SAVED");
+        verify(productClient, never()).releaseReservation(any());
+        verifyNoInteractions(orderEventOutbox);
+    }
+
+    // Suppression d'une commande PENDING : la réservation est libérée (stock rendu)
+    @Test
+    void deleteOrder_shouldReleaseReservation_whenOrderIsPending() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
+
+        orderService.deleteOrder(1L);
+
+        verify(productClient).releaseReservation("resa-1");
+        verify(orderRepository).delete(order);
+        verify(userOrderSummaryService).onOrderDeleted(order);
+        verify(orderEventOutbox).orderDeleted(order);
+    }
+
+    // Suppression non enregistrée : la réservation reste en place (libération après le commit)
+    @Test
+    void deleteOrder_shouldNotReleaseReservation_whenDeleteFails() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
+        doThrow(new IllegalStateException("base indisponible")).when(orderRepository).delete(order);
+
+        assertThrows(IllegalStateException.class, () -> orderService.deleteOrder(1L));
+
+        verify(productClient, never()).releaseReservation(any());
+        verifyNoInteractions(reservationCompensator);
+    }
+
+    // Suppression enregistrée, ms-product indisponible : la libération passe par le journal de compensation
+    @Test
+    void deleteOrder_shouldScheduleCompensation_whenReleaseFailsAfterDelete() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setReservationId("resa-1");
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order));
+        doThrow(new ResourceAccessException("ms-product indisponible"))
+                .when(productClient).releaseReservation("resa-1");
+
+        orderService.deleteOrder(1L);
+
+        verify(orderRepository).delete(order);
+        verify(reservationCompensator).schedule("resa-1", "ORDER_DELETED");
+    }
+
+    // Transitions concurrentes : l'ancien statut est celui de la ligne verrouillée, pas celui de la première lecture
+    @Test
+    void updateOrderStatus_shouldUseLockedStatus_whenOrderChangedSinceFirstRead() {
+        Order read = order(OrderStatus.PENDING);
+        Order locked = order(OrderStatus.CONFIRMED);
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(read));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(locked));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        orderService.updateOrderStatus(1L, req);
+
+        verify(entityManager).refresh(locked);
+        verify(userOrderSummaryService).onStatusChanged(locked, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        verify(orderEventOutbox).statusChanged(locked, OrderStatus.CONFIRMED);
+        verify(orderMetrics).incrementOrderStatusChanged(OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+    }
+
+    // Annulation déjà validée par une autre requête : refusée sous verrou, aucune variation appliquée
+    @Test
+    void updateOrderStatus_shouldThrow_whenLockedOrderWasCancelledConcurrently() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order(OrderStatus.PENDING)));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.of(order(OrderStatus.CANCELLED)));
+
+        UpdateOrderStatusRequestDto req = new UpdateOrderStatusRequestDto();
+        req.setStatus("CANCELLED");
+
+        assertThrows(OrderNotModifiableException.class, () -> orderService.updateOrderStatus(1L, req));
+
+        verify(orderRepository, never()).save(any());
+        verify(userOrderSummaryService, never()).onStatusChanged(any(), any(), any());
+        verifyNoInteractions(orderEventOutbox, reservationCompensator);
+        verify(productClient, never()).releaseReservation(any());
+    }
+
+    // Suppressions concurrentes : la seconde ne trouve plus la ligne, le résumé n'est décrémenté qu'une fois
+    @Test
+    void deleteOrder_shouldThrowNotFound_whenOrderWasDeletedConcurrently() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order(OrderStatus.PENDING)));
+        when(orderRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+
+        assertThrows(OrderNotFoundException.class, () -> orderService.deleteOrder(1L));
+
+        verify(orderRepository, never()).delete(any());
+        verify(userOrderSummaryService, never()).onOrderDeleted(any());
+        verifyNoInteractions(orderEventOutbox);
+        verify(orderMetrics, never()).removeFromAmountToday(any(), any());
+    }
+
+    // Export en flux : items chargés par paquet de 500 lignes (mémoire constante)
+    @Test
+    void streamOrders_shouldLoadItemsPerChunk() {
+        when(orderReadRepository.streamAfter(0L)).thenReturn(
+                LongStream.rangeClosed(1, 1000).mapToObj(id -> new OrderRow(id, 1L, null, OrderStatus.PENDING,
+                        BigDecimal.TEN, "adresse", null, null)));
+        when(orderMapper.toDtos(anyList(), anyMap())).thenAnswer(invocation ->
+                invocation.<List<OrderRow>>getArgument(0).stream().map(order -> new OrderResponseDto()).toList());
+
+        AtomicInteger streamed = new AtomicInteger();
+        orderService.streamOrders(null, order -> streamed.incrementAndGet());
+
+        assertEquals(1000, streamed.get());
+        verify(orderItemBatchLoader, times(2)).loadItems(anyList());
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setUserId(1L);
+        order.setStatus(status);
+        order.setReservationId("resa-1");
+        order.setTotalAmount(BigDecimal.TEN);
+        return order;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderItemRequestDto;
+import com.episen.order.application.dto.OrderRequestDto;
+import com.episen.order.domain.entity.OrderSubmission;
+import com.episen.order.domain.enums.SubmissionStatus;
+import com.episen.order.domain.repository.OrderSubmissionRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Réservation des lots de soumissions : une soumission n'est jamais réservée deux fois.
+ */
+@DataJpaTest
+@Import(OrderSubmissionService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OrderSubmissionServiceTest {
+
+    @Autowired private OrderSubmissionService orderSubmissionService;
+    @Autowired private OrderSubmissionRepository orderSubmissionRepository;
+    @Autowired private TestEntityManager testEntityManager;
+
+    // Lots successifs : aucune soumission dans deux lots, tentatives comptées à la réservation
+    @Test
+    void claimBatch_shouldNeverReturnSameSubmissionTwice() {
+        for (int i = 0; i < 5; i++) {
+            orderSubmissionService.submit(request());
+        }
+        testEntityManager.clear();
+
+        List<OrderSubmission> first = orderSubmissionService.claimBatch(3);
+        testEntityManager.clear();
+        List<OrderSubmission> second = orderSubmissionService.claimBatch(3);
+        testEntityManager.clear();
+
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertTrue(orderSubmissionService.claimBatch(3).isEmpty());
+
+        Set<String> claimed = new HashSet<>();
+        first.forEach(submission -> claimed.add(submission.getId()));
+        second.forEach(submission -> claimed.add(submission.getId()));
+        assertEquals(5, claimed.size());
+        assertTrue(second.stream().allMatch(submission -> submission.getStatus() == SubmissionStatus.PROCESSING
+                && submission.getAttempts() == 1));
+    }
+
+    // Deux workers lisent les mêmes ids prêts : seul le premier UPDATE conditionnel les obtient
+    @Test
+    void claim_shouldOnlySucceedOnce_forConcurrentWorkers() {
+        String trackingId = orderSubmissionService.submit(request()).getTrackingId();
+        testEntityManager.clear();
+
+        List<String> ready = orderSubmissionRepository.findReadyIds(LocalDateTime.now(),
+                Limit.of(10));
+
+        assertEquals(1, orderSubmissionRepository.claim(ready, "worker-a", LocalDateTime.now()));
+        assertEquals(0, orderSubmissionRepository.claim(ready, "worker-b", LocalDateTime.now()));
+        testEntityManager.clear();
+
+        assertEquals(List.of(trackingId), orderSubmissionRepository.findByClaimToken("worker-a").stream()
+                .map(OrderSubmission::getId)
+                .toList());
+        assertTrue(orderSubmissionRepository.findByClaimToken("worker-b").isEmpty());
+    }
+
+    private static OrderRequestDto request() {
+        return OrderRequestDto.builder()
+                .userId(1L)
+                .shippingAddress("1 rue de la Paix, Paris")
+                .items(List.of(OrderItemRequestDto.builder().productId(10L).quantity(1).build()))
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderItemRequestDto;
+import com.episen.order.application.dto.OrderRequestDto;
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.domain.entity.OrderSubmission;
+import com.episen.order.domain.enums.SubmissionStatus;
+import com.episen.order.infrastructure.cache.ProductCatalogCache;
+import com.episen.order.infrastructure.cache.UserExistenceCache;
+import com.episen.order.infrastructure.exception.IdempotencyKeyInProgressException;
+import com.episen.order.infrastructure.exception.InsufficientStockException;
+import com.episen.order.infrastructure.exception.ServiceUnavailableException;
+import com.episen.order.infrastructure.exception.UserNotFoundException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSubmissionWorkerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock private OrderSubmissionService orderSubmissionService;
+    @Mock private OrderIdempotencyService orderIdempotencyService;
+    @Mock private UserExistenceCache userExistenceCache;
+    @Mock private ProductCatalogCache productCatalogCache;
+
+    private OrderSubmissionWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new OrderSubmissionWorker(orderSubmissionService, orderIdempotencyService, userExistenceCache,
+                productCatalogCache, 2, 10, MAX_ATTEMPTS, Duration.ofSeconds(5), Duration.ofMinutes(5),
+                Duration.ofSeconds(1), false);
+        lenient().when(productCatalogCache.getProductsByIdsAsync(any())).thenReturn(completedFuture(List.of()));
+        lenient().when(userExistenceCache.getUser(anyLong())).thenReturn(completedFuture(Optional.empty()));
+        lenient().when(orderSubmissionService.readRequest(any()))
+                .thenAnswer(inv -> request(Long.valueOf(inv.<OrderSubmission>getArgument(0).getId())));
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    // Classement des résultats : créée, refus métier, indisponibilité (nouvelle tentative puis abandon)
+    @Test
+    void drain_shouldCompleteFailOrRetry_dependingOnError() {
+        when(orderSubmissionService.claimBatch(10)).thenReturn(List.of(
+                submission("1", 1), submission("2", 1), submission("3", 1), submission("4", 1),
+                submission("5", MAX_ATTEMPTS)));
+        when(orderIdempotencyService.createOrder(anyString(), any())).thenAnswer(inv -> {
+            long userId = inv.<OrderRequestDto>getArgument(1).getUserId();
+            if (userId == 1L) {
+                return created(100L);
+            }
+            if (userId == 2L) {
+                throw new UserNotFoundException(userId);
+            }
+            if (userId == 3L) {
+                throw new InsufficientStockException(10L);
+            }
+            throw new ServiceUnavailableException("ms-product");
+        });
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.drain();
+
+        verify(orderSubmissionService).complete("1", 100L);
+        verify(orderSubmissionService).fail(eq("2"), eq("USER_NOT_FOUND"), any());
+        verify(orderSubmissionService).fail(eq("3"), eq("INSUFFICIENT_STOCK"), any());
+
+        // tentative 1 sur 3 : nouvelle tentative après retry-delay x tentatives
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderSubmissionService).retryLater(eq("4"), eq("SERVICE_UNAVAILABLE"), any(), nextAttemptAt.capture());
+        assertFalse(nextAttemptAt.getValue().isBefore(before.plusSeconds(5)));
+
+        // dernière tentative : abandon
+        verify(orderSubmissionService).fail(eq("5"), eq("SERVICE_UNAVAILABLE"), any());
+        verify(orderSubmissionService, never()).retryLater(eq("5"), any(), any(), any());
+
+        // lot incomplet : pas de second lot réservé
+        verify(orderSubmissionService, times(1)).claimBatch(anyInt());
+    }
+
+    // Soumission illisible : refusée sans appel à createOrder
+    @Test
+    void drain_shouldFailUnreadableSubmission_withoutCreatingOrder() {
+        OrderSubmission unreadable = submission("9", 1);
+        when(orderSubmissionService.claimBatch(10)).thenReturn(List.of(unreadable));
+        when(orderSubmissionService.readRequest(unreadable)).thenThrow(new IllegalStateException("Soumission illisible : 9"));
+
+        worker.drain();
+
+        verify(orderSubmissionService).fail("9", "INVALID_REQUEST", "Soumission illisible : 9");
+        verifyNoInteractions(orderIdempotencyService);
+    }
+
+    // Lot plein : les lots suivants sont réservés jusqu'à vider la file
+    @Test
+    void drain_shouldClaimNextBatch_whenBatchWasFull() {
+        List<OrderSubmission> fullBatch = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> submission(String.valueOf(i), 1))
+                .toList();
+        when(orderSubmissionService.claimBatch(10)).thenReturn(fullBatch, List.of());
+        when(orderIdempotencyService.createOrder(anyString(), any())).thenReturn(created(1L));
+
+        worker.drain();
+
+        verify(orderSubmissionService, times(2)).claimBatch(10);
+        verify(orderSubmissionService, times(10)).complete(anyString(), eq(1L));
+    }
+
+    // Soumission remise en file après un arrêt : la clé d'idempotence rend la commande déjà créée
+    @Test
+    void drain_shouldCreateOrderUnderTrackingIdKey_andCompleteWithReplayedOrder() {
+        when(orderSubmissionService.claimBatch(10)).thenReturn(List.of(submission("7", 2)));
+        when(orderIdempotencyService.createOrder(eq("submission:7"), any()))
+                .thenReturn(new OrderIdempotencyService.Result(OrderResponseDto.builder().id(70L).build(), true));
+
+        worker.drain();
+
+        verify(orderSubmissionService).complete("7", 70L);
+    }
+
+    // Création en cours sur une autre instance : nouvelle tentative plus tard
+    @Test
+    void drain_shouldRetryLater_whenKeyIsInProgressElsewhere() {
+        when(orderSubmissionService.claimBatch(10)).thenReturn(List.of(submission("8", 1)));
+        when(orderIdempotencyService.createOrder(anyString(), any()))
+                .thenThrow(new IdempotencyKeyInProgressException("submission:8"));
+
+        worker.drain();
+
+        verify(orderSubmissionService).retryLater(eq("8"), eq("SERVICE_UNAVAILABLE"), any(), any());
+        verify(orderSubmissionService, never()).complete(anyString(), anyLong());
+    }
+
+    // Threads virtuels : au plus `workers` créations simultanées
+    @Test
+    void drain_shouldBoundConcurrentCreations_withVirtualThreads() {
+        OrderSubmissionWorker virtualWorker = new OrderSubmissionWorker(orderSubmissionService, orderIdempotencyService,
+                userExistenceCache, productCatalogCache, 2, 10, MAX_ATTEMPTS, Duration.ofSeconds(5),
+                Duration.ofMinutes(5), Duration.ofSeconds(1), true);
+        when(orderSubmissionService.claimBatch(10)).thenReturn(IntStream.rangeClosed(1, 8)
+                .mapToObj(i -> submission(String.valueOf(i), 1))
+                .toList());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(orderIdempotencyService.createOrder(anyString(), any())).thenAnswer(inv -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return created(1L);
+        });
+
+        try {
+            virtualWorker.drain();
+        } finally {
+            virtualWorker.shutdown();
+        }
+
+        verify(orderSubmissionService, times(8)).complete(anyString(), eq(1L));
+        assertTrue(maxRunning.get() <= 2, "créations simultanées : " + maxRunning.get());
+    }
+
+    private static OrderIdempotencyService.Result created(Long orderId) {
+        return new OrderIdempotencyService.Result(OrderResponseDto.builder().id(orderId).build(), false);
+    }
+
+    private static OrderSubmission submission(String id, int attempts) {
+        return OrderSubmission.builder()
+                .id(id)
+                .status(SubmissionStatus.PROCESSING)
+                .attempts(attempts)
+                .build();
+    }
+
+    private static OrderRequestDto request(Long userId) {
+        return OrderRequestDto.builder()
+                .userId(userId)
+                .shippingAddress("1 rue de la Paix, Paris")
+                .items(List.of(OrderItemRequestDto.builder().productId(10L).quantity(1).build()))
+                .build();
+    }
+}
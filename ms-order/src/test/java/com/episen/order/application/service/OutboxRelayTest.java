@@ -0,0 +1,99 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.domain.entity.OutboxEvent;
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OutboxEventRepository;
+import com.episen.order.infrastructure.outbox.OrderEventSink;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private OrderEventSink orderEventSink;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(outboxEventRepository, orderEventSink, meterRegistry, 3);
+    }
+
+    // Lot publié puis supprimé (dans cet ordre), dans l'ordre des eventId
+    @Test
+    void relay_shouldDeleteBatch_onlyAfterPublishing() {
+        when(outboxEventRepository.findOldest(any())).thenReturn(events(1, 2));
+
+        relay.relay();
+
+        InOrder inOrder = inOrder(orderEventSink, outboxEventRepository);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderEventDto>> published = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(orderEventSink).publish(published.capture());
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(List.of(1L, 2L), published.getValue().stream().map(OrderEventDto::getEventId).toList());
+        assertEquals(2.0, meterRegistry.counter("order_outbox_published_total").count());
+    }
+
+    // Publication en échec : rien n'est supprimé, le lot sera rejoué au passage suivant
+    @Test
+    void relay_shouldKeepBatch_whenPublishFails() {
+        when(outboxEventRepository.findOldest(any())).thenReturn(events(1, 2, 3));
+        doThrow(new IllegalStateException("webhook indisponible")).when(orderEventSink).publish(anyList());
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxEventRepository, times(1)).findOldest(any());
+        assertEquals(1.0, meterRegistry.counter("order_outbox_publish_failures_total").count());
+    }
+
+    // Lot plein : les lots s'enchaînent jusqu'à vider la table
+    @Test
+    void relay_shouldChainBatches_whileBatchIsFull() {
+        when(outboxEventRepository.findOldest(any())).thenReturn(events(1, 2, 3), events(4), List.of());
+
+        relay.relay();
+
+        verify(orderEventSink, times(2)).publish(anyList());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L));
+        verify(outboxEventRepository, times(2)).findOldest(any());
+    }
+
+    private static List<OutboxEvent> events(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> OutboxEvent.builder()
+                        .id(id)
+                        .eventType(OrderEventType.ORDER_CREATED)
+                        .orderId(id * 10)
+                        .userId(7L)
+                        .status(OrderStatus.PENDING)
+                        .totalAmount(BigDecimal.TEN)
+                        .occurredAt(LocalDateTime.now())
+                        .build())
+                .toList();
+    }
+}
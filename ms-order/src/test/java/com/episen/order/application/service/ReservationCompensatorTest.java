@@ -0,0 +1,124 @@
+package com.episen.order.application.service;
+
+import com.episen.order.domain.entity.ReservationCompensation;
+import com.episen.order.domain.enums.CompensationStatus;
+import com.episen.order.domain.repository.ReservationCompensationRepository;
+import com.episen.order.infrastructure.client.ProductClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationCompensatorTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Mock private ReservationCompensationRepository compensationRepository;
+    @Mock private ProductClient productClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReservationCompensator compensator;
+
+    @BeforeEach
+    void setUp() {
+        compensator = new ReservationCompensator(compensationRepository, productClient, meterRegistry,
+                10, MAX_ATTEMPTS, Duration.ofSeconds(1), Duration.ofSeconds(3));
+    }
+
+    // Réservation inconnue de ms-product (404) : rien à rendre, compensation terminée
+    @Test
+    void compensate_shouldMarkDone_whenReservationIsUnknown() {
+        ReservationCompensation compensation = pending("res-1", 0);
+        when(compensationRepository.findDue(any(), any())).thenReturn(List.of(compensation));
+        doThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+                .when(productClient).releaseReservation("res-1");
+
+        compensator.compensate();
+
+        assertEquals(CompensationStatus.DONE, compensation.getStatus());
+        assertEquals(1, compensation.getAttempts());
+        verify(compensationRepository).save(compensation);
+    }
+
+    // ms-product indisponible : nouvelle tentative après base x 2^(n-1), plafonnée à max-delay
+    @Test
+    void compensate_shouldBackOffExponentially_whenReleaseFails() {
+        ReservationCompensation first = pending("res-1", 0);
+        ReservationCompensation second = pending("res-2", 1);
+        ReservationCompensation third = pending("res-3", 2);
+        when(compensationRepository.findDue(any(), any())).thenReturn(List.of(first, second, third));
+        doThrow(new ResourceAccessException("Connection refused")).when(productClient).releaseReservation(any());
+
+        LocalDateTime before = LocalDateTime.now();
+        compensator.compensate();
+        LocalDateTime after = LocalDateTime.now();
+
+        // base 1s, plafond 3s : 1s, 2s, puis 4s plafonnée à 3s
+        assertDelay(first, before, after, 1);
+        assertDelay(second, before, after, 2);
+        assertDelay(third, before, after, 3);
+        assertEquals(CompensationStatus.PENDING, third.getStatus());
+        assertEquals(3, third.getAttempts());
+        assertEquals("Connection refused", third.getLastError());
+    }
+
+    // Dernière tentative en échec : FAILED (le stock sera rendu par l'expiration côté ms-product)
+    @Test
+    void compensate_shouldMarkFailed_afterMaxAttempts() {
+        ReservationCompensation compensation = pending("res-1", MAX_ATTEMPTS - 1);
+        when(compensationRepository.findDue(any(), any())).thenReturn(List.of(compensation));
+        doThrow(new ResourceAccessException("timeout")).when(productClient).releaseReservation("res-1");
+
+        compensator.compensate();
+
+        assertEquals(CompensationStatus.FAILED, compensation.getStatus());
+        assertEquals(MAX_ATTEMPTS, compensation.getAttempts());
+        assertEquals(1.0, meterRegistry.get("order_reservation_compensations_total")
+                .tag("outcome", "abandoned").counter().count());
+        verify(compensationRepository).save(compensation);
+    }
+
+    // Journal indisponible : libération immédiate plutôt que rien
+    @Test
+    void schedule_shouldReleaseImmediately_whenJournalIsUnavailable() {
+        when(compensationRepository.save(any())).thenThrow(new DataAccessResourceFailureException("base indisponible"));
+
+        compensator.schedule("res-1", "ORDER_NOT_SAVED");
+
+        verify(productClient).releaseReservation("res-1");
+    }
+
+    private static void assertDelay(ReservationCompensation compensation, LocalDateTime before,
+                                    LocalDateTime after, long seconds) {
+        assertFalse(compensation.getNextAttemptAt().isBefore(before.plusSeconds(seconds)));
+        assertFalse(compensation.getNextAttemptAt().isAfter(after.plusSeconds(seconds)));
+    }
+
+    private static ReservationCompensation pending(String reservationId, int attempts) {
+        return ReservationCompensation.builder()
+                .reservationId(reservationId)
+                .reason("ORDER_NOT_SAVED")
+                .status(CompensationStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.episen.order.application.service;
+
+import com.episen.order.application.dto.UserOrderSummaryDto;
+import com.episen.order.application.mapper.OrderItemMapper;
+import com.episen.order.application.mapper.OrderMapper;
+import com.episen.order.domain.entity.Order;
+import com.episen.order.domain.entity.UserOrderSummary;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OrderRepository;
+import com.episen.order.domain.repository.UserOrderSummaryRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Résumé des commandes par utilisateur : variations appliquées à chaque écriture,
+ * construction initiale depuis la table orders sans double comptage.
+ *
+ * Sans transaction de test : ensureExists() crée le résumé dans sa propre transaction,
+ * chaque étape est validée comme en production.
+ */
+@DataJpaTest
+@Import({UserOrderSummaryService.class, OrderItemBatchLoader.class, OrderMapper.class, OrderItemMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserOrderSummaryServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    @Autowired private UserOrderSummaryService summaryService;
+    @Autowired private UserOrderSummaryRepository summaryRepository;
+    @Autowired private OrderRepository orderRepository;
+
+    @AfterEach
+    void tearDown() {
+        summaryRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    // Création, changements de statut puis suppression : compteurs et cumul suivent chaque variation
+    @Test
+    void deltas_shouldFollowOrderLifecycle() {
+        summaryService.ensureExists(USER_ID);
+
+        Order order = orderRepository.save(order(OrderStatus.PENDING, "50.00"));
+        summaryService.onOrderCreated(order);
+        UserOrderSummary created = summary();
+        assertEquals(1, created.getOrderCount());
+        assertEquals(1, created.getPendingCount());
+        assertAmount("50.00", created.getTotalSpent());
+        assertNotNull(created.getLastOrderAt());
+
+        summaryService.onStatusChanged(order, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        UserOrderSummary confirmed = summary();
+        assertEquals(0, confirmed.getPendingCount());
+        assertEquals(1, confirmed.getConfirmedCount());
+        assertAmount("50.00", confirmed.getTotalSpent());
+
+        order.setStatus(OrderStatus.DELIVERED);
+        summaryService.onStatusChanged(order, OrderStatus.CONFIRMED, OrderStatus.DELIVERED);
+        summaryService.onOrderDeleted(order);
+        UserOrderSummary deleted = summary();
+        assertEquals(0, deleted.getOrderCount());
+        assertEquals(0, deleted.getConfirmedCount());
+        assertEquals(0, deleted.getDeliveredCount());
+        assertAmount("0", deleted.getTotalSpent());
+    }
+
+    // Annulation : montant retiré du cumul ; suppression d'une commande annulée : cumul inchangé
+    @Test
+    void cancelledOrders_shouldBeExcludedFromTotalSpent() {
+        summaryService.ensureExists(USER_ID);
+        Order kept = orderRepository.save(order(OrderStatus.PENDING, "30.00"));
+        Order cancelled = orderRepository.save(order(OrderStatus.PENDING, "20.00"));
+        summaryService.onOrderCreated(kept);
+        summaryService.onOrderCreated(cancelled);
+
+        summaryService.onStatusChanged(cancelled, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        UserOrderSummary afterCancel = summary();
+        assertEquals(2, afterCancel.getOrderCount());
+        assertEquals(1, afterCancel.getCancelledCount());
+        assertAmount("30.00", afterCancel.getTotalSpent());
+
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        summaryService.onOrderDeleted(cancelled);
+        UserOrderSummary afterDelete = summary();
+        assertEquals(1, afterDelete.getOrderCount());
+        assertEquals(0, afterDelete.getCancelledCount());
+        assertAmount("30.00", afterDelete.getTotalSpent());
+    }
+
+    // Résumé absent avec des commandes déjà en base : construit une fois, sans les compter deux fois
+    @Test
+    void ensureExists_shouldBuildFromExistingOrders_withoutDoubleCounting() {
+        orderRepository.save(order(OrderStatus.PENDING, "10.00"));
+        orderRepository.save(order(OrderStatus.DELIVERED, "20.00"));
+        orderRepository.save(order(OrderStatus.CANCELLED, "5.00"));
+
+        summaryService.ensureExists(USER_ID);
+        summaryService.ensureExists(USER_ID);
+
+        UserOrderSummary built = summary();
+        assertEquals(3, built.getOrderCount());
+        assertEquals(1, built.getPendingCount());
+        assertEquals(1, built.getDeliveredCount());
+        assertEquals(1, built.getCancelledCount());
+        assertAmount("30.00", built.getTotalSpent());
+
+        // commande suivante : comptée par sa variation seulement
+        summaryService.ensureExists(USER_ID);
+        summaryService.onOrderCreated(orderRepository.save(order(OrderStatus.PENDING, "40.00")));
+
+        UserOrderSummary next = summary();
+        assertEquals(4, next.getOrderCount());
+        assertEquals(2, next.getPendingCount());
+        assertAmount("70.00", next.getTotalSpent());
+    }
+
+    // Aucun résumé enregistré : lecture calculée depuis la table orders, rien n'est écrit
+    @Test
+    void getSummary_shouldComputeFromOrders_whenNoSummaryRow() {
+        orderRepository.save(order(OrderStatus.CONFIRMED, "15.00"));
+        orderRepository.save(order(OrderStatus.SHIPPED, "25.00"));
+        orderRepository.save(order(OrderStatus.CANCELLED, "99.00"));
+
+        UserOrderSummaryDto dto = summaryService.getSummary(USER_ID, 2);
+
+        assertEquals(3, dto.getOrderCount());
+        assertAmount("40.00", dto.getTotalSpent());
+        assertEquals(1, dto.getCountsByStatus().get(OrderStatus.CANCELLED));
+        assertEquals(0, dto.getCountsByStatus().get(OrderStatus.PENDING));
+        assertEquals(2, dto.getRecentOrders().size());
+        assertFalse(summaryRepository.existsById(USER_ID));
+    }
+
+    // Variation sans résumé : ignorée, aucun résumé partiel créé
+    @Test
+    void onOrderCreated_shouldBeIgnored_whenSummaryIsMissing() {
+        summaryService.onOrderCreated(orderRepository.save(order(OrderStatus.PENDING, "10.00")));
+
+        assertFalse(summaryRepository.existsById(USER_ID));
+    }
+
+    private UserOrderSummary summary() {
+        return summaryRepository.findById(USER_ID).orElseThrow();
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "montant : " + actual);
+    }
+
+    private static Order order(OrderStatus status, String amount) {
+        return Order.builder()
+                .userId(USER_ID)
+                .status(status)
+                .totalAmount(new BigDecimal(amount))
+                .shippingAddress("1 rue de la Paix, Paris")
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.episen.order.infrastructure.cache;
+
+import com.episen.order.application.dto.UserChangeDto;
+import com.episen.order.application.dto.UserChangeFeedDto;
+import com.episen.order.infrastructure.client.UserClient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeFeedPollerTest {
+
+    @Mock private UserClient userClient;
+    @Mock private UserExistenceCache userExistenceCache;
+
+    private UserChangeFeedPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        poller = new UserChangeFeedPoller(userClient, userExistenceCache);
+    }
+
+    // Premier tour (position inconnue) : invalidation complète, reprise à la position courante
+    @Test
+    void poll_shouldInvalidateAll_onFirstPoll() {
+        when(userClient.getUserChanges(null)).thenReturn(feed(10L, false));
+        when(userClient.getUserChanges(10L)).thenReturn(feed(10L, false));
+
+        poller.poll();
+        poller.poll();
+
+        verify(userExistenceCache).invalidateAll();
+        verify(userExistenceCache, never()).invalidate(anyLong());
+        verify(userClient).getUserChanges(10L);
+    }
+
+    // Changements reçus : un utilisateur invalidé par changement, lecture jusqu'à une page vide
+    @Test
+    void poll_shouldInvalidateChangedUsers_untilFeedIsEmpty() {
+        startAt(10L);
+        when(userClient.getUserChanges(10L)).thenReturn(feed(12L, false, change(11L, 1L), change(12L, 2L)));
+        when(userClient.getUserChanges(12L)).thenReturn(feed(12L, false));
+
+        poller.poll();
+
+        verify(userExistenceCache).invalidate(1L);
+        verify(userExistenceCache).invalidate(2L);
+        verify(userExistenceCache, never()).invalidateAll();
+    }
+
+    // Position inchangée (trou récent côté ms-membership) : pas de boucle, relue au tour suivant
+    @Test
+    void poll_shouldStop_whenPositionDoesNotAdvance() {
+        startAt(10L);
+        when(userClient.getUserChanges(10L)).thenReturn(feed(10L, false, change(12L, 3L)));
+
+        poller.poll();
+        verify(userClient, times(1)).getUserChanges(10L);
+        verify(userExistenceCache).invalidate(3L);
+
+        poller.poll();
+        verify(userClient, times(2)).getUserChanges(10L);
+    }
+
+    // reset = true (événements purgés) : invalidation complète, reprise à la nouvelle position
+    @Test
+    void poll_shouldInvalidateAll_onReset() {
+        startAt(10L);
+        when(userClient.getUserChanges(10L)).thenReturn(feed(3L, true, change(3L, 4L)));
+        when(userClient.getUserChanges(3L)).thenReturn(feed(3L, false));
+
+        poller.poll();
+
+        verify(userExistenceCache).invalidateAll();
+        verify(userExistenceCache, never()).invalidate(anyLong());
+        verify(userClient).getUserChanges(3L);
+    }
+
+    // ms-membership indisponible : la position n'avance pas, le tour suivant relit les mêmes changements
+    @Test
+    void poll_shouldKeepPosition_whenFeedIsUnavailable() {
+        startAt(10L);
+        when(userClient.getUserChanges(10L))
+                .thenThrow(new ResourceAccessException("Connection refused"))
+                .thenReturn(feed(10L, false));
+
+        poller.poll();
+        poller.poll();
+
+        verify(userClient, times(2)).getUserChanges(10L);
+        verify(userExistenceCache, never()).invalidate(anyLong());
+    }
+
+    /**
+     * Premier tour déjà fait : position connue, cache vidé.
+     */
+    private void startAt(Long position) {
+        when(userClient.getUserChanges(null)).thenReturn(feed(position, false));
+        poller.poll();
+        clearInvocations(userClient, userExistenceCache);
+    }
+
+    private static UserChangeFeedDto feed(Long position, boolean reset, UserChangeDto... changes) {
+        return UserChangeFeedDto.builder()
+                .position(position)
+                .reset(reset)
+                .changes(List.copyOf(Arrays.asList(changes)))
+                .build();
+    }
+
+    private static UserChangeDto change(Long position, Long userId) {
+        return UserChangeDto.builder()
+                .position(position)
+                .userId(userId)
+                .type("UPDATED")
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.episen.order.infrastructure.cache;
+
+import com.episen.order.application.dto.UserDto;
+import com.episen.order.infrastructure.client.UserClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+
+    private static final Duration NEGATIVE_TTL = Duration.ofMillis(100);
+
+    @Mock private UserClient userClient;
+
+    private UserExistenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserExistenceCache(userClient, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), NEGATIVE_TTL);
+    }
+
+    // Utilisateur trouvé : gardé au-delà du TTL négatif, un seul appel
+    @Test
+    void getUser_shouldCacheFoundUser_forPositiveTtl() throws Exception {
+        when(userClient.getUserByIdAsync(1L)).thenReturn(CompletableFuture.completedFuture(user(1L)));
+
+        assertTrue(cache.getUser(1L).join().isPresent());
+        TimeUnit.MILLISECONDS.sleep(NEGATIVE_TTL.toMillis() * 2);
+        assertTrue(cache.getUser(1L).join().isPresent());
+
+        verify(userClient, times(1)).getUserByIdAsync(1L);
+    }
+
+    // 404 : mémorisé pour le TTL négatif seulement, puis relu
+    @Test
+    void getUser_shouldCacheNotFound_forNegativeTtl() throws Exception {
+        when(userClient.getUserByIdAsync(2L))
+                .thenReturn(CompletableFuture.failedFuture(notFound()))
+                .thenReturn(CompletableFuture.completedFuture(user(2L)));
+
+        assertTrue(cache.getUser(2L).join().isEmpty());
+        assertTrue(cache.getUser(2L).join().isEmpty());
+        verify(userClient, times(1)).getUserByIdAsync(2L);
+
+        TimeUnit.MILLISECONDS.sleep(NEGATIVE_TTL.toMillis() * 2);
+
+        assertTrue(cache.getUser(2L).join().isPresent());
+        verify(userClient, times(2)).getUserByIdAsync(2L);
+    }
+
+    // Commandes simultanées du même utilisateur : un seul appel, partagé
+    @Test
+    void getUser_shouldCoalesceConcurrentLookups() {
+        CompletableFuture<UserDto> pending = new CompletableFuture<>();
+        when(userClient.getUserByIdAsync(3L)).thenReturn(pending);
+
+        CompletableFuture<Optional<UserDto>> first = cache.getUser(3L);
+        CompletableFuture<Optional<UserDto>> second = cache.getUser(3L);
+        assertFalse(first.isDone());
+
+        pending.complete(user(3L));
+
+        assertEquals(3L, first.join().orElseThrow().getId());
+        assertEquals(3L, second.join().orElseThrow().getId());
+        verify(userClient, times(1)).getUserByIdAsync(3L);
+    }
+
+    // Erreur autre que 404 : rendue à l'appelant, jamais mise en cache
+    @Test
+    void getUser_shouldNotCacheErrors() {
+        when(userClient.getUserByIdAsync(4L))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("timeout")))
+                .thenReturn(CompletableFuture.completedFuture(user(4L)));
+
+        CompletionException error = assertThrows(CompletionException.class, () -> cache.getUser(4L).join());
+        assertInstanceOf(ResourceAccessException.class, error.getCause());
+
+        assertTrue(cache.getUser(4L).join().isPresent());
+        verify(userClient, times(2)).getUserByIdAsync(4L);
+    }
+
+    // Utilisateur créé après un 404 : l'invalidation (flux des changements) efface l'entrée négative
+    @Test
+    void invalidate_shouldDropNegativeEntry() {
+        when(userClient.getUserByIdAsync(5L))
+                .thenReturn(CompletableFuture.failedFuture(notFound()))
+                .thenReturn(CompletableFuture.completedFuture(user(5L)));
+
+        assertTrue(cache.getUser(5L).join().isEmpty());
+
+        cache.invalidate(5L);
+
+        assertTrue(cache.getUser(5L).join().isPresent());
+        verify(userClient, times(2)).getUserByIdAsync(5L);
+    }
+
+    private static UserDto user(Long id) {
+        return UserDto.builder().id(id).email("user" + id + "@example.com").build();
+    }
+
+    private static HttpClientErrorException notFound() {
+        return HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+    }
+}
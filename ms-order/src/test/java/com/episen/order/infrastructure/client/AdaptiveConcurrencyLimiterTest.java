@@ -0,0 +1,57 @@
+package com.episen.order.infrastructure.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(4, 2, 6, Duration.ofMillis(500), 0.5);
+
+    // Limite atteinte : l'appel suivant est refusé, une place libérée le rend possible
+    @Test
+    void tryAcquire_shouldRejectBeyondLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.onIgnored();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    // Appels rapides avec la limite utilisée : +1 par appel, jusqu'au maximum
+    @Test
+    void onSuccess_shouldIncreaseUpToMaxLimit() {
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                limiter.tryAcquire();
+            }
+            limiter.onSuccess(FAST);
+            while (limiter.getInFlight() > 0) {
+                limiter.onIgnored();
+            }
+        }
+        assertEquals(6, limiter.getLimit());
+    }
+
+    // Appel lent ou en échec : limite x 0.5, jamais sous le minimum
+    @Test
+    void slowOrDroppedCalls_shouldDecreaseDownToMinLimit() {
+        limiter.tryAcquire();
+        limiter.onSuccess(SLOW);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
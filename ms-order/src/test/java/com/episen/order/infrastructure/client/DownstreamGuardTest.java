@@ -0,0 +1,164 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.DownstreamRejectedException;
+import com.episen.order.infrastructure.metrics.ClientMetrics;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    private static final String CLIENT = "ms-membership";
+    private static final Operation OPERATION = Operation.GET_USER;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of(CLIENT, CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+    private final Bulkhead bulkhead = Bulkhead.of(CLIENT, BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(2, 1, 4, Duration.ofSeconds(1), 0.5);
+
+    private final DownstreamGuard guard = new DownstreamGuard(CLIENT, circuitBreaker, bulkhead, limiter,
+            new ClientMetrics(meterRegistry), meterRegistry);
+
+    // Circuit ouvert : échec immédiat, sans appel ni permission prise
+    @Test
+    void call_shouldFailFast_whenCircuitIsOpen() {
+        circuitBreaker.transitionToOpenState();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(DownstreamRejectedException.class, () -> guard.call(OPERATION, calls::incrementAndGet));
+
+        assertEquals(0, calls.get());
+        assertPermitsReleased();
+        assertEquals(1.0, rejected("circuit_open"));
+    }
+
+    // Échecs au-delà du seuil : le circuit s'ouvre, l'appel suivant n'est pas envoyé
+    @Test
+    void call_shouldOpenCircuit_afterFailures() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> guard.call(OPERATION, () -> {
+                throw new ResourceAccessException("timeout");
+            }));
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(DownstreamRejectedException.class, () -> guard.call(OPERATION, calls::incrementAndGet));
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(0, calls.get());
+    }
+
+    // Bulkhead plein : refus, la limite adaptative n'est pas consommée
+    @Test
+    void callAsync_shouldReject_whenBulkheadIsFull() {
+        AdaptiveConcurrencyLimiter wideLimiter = new AdaptiveConcurrencyLimiter(4, 1, 4, Duration.ofSeconds(1), 0.5);
+        DownstreamGuard wideGuard = new DownstreamGuard(CLIENT, circuitBreaker, bulkhead, wideLimiter,
+                new ClientMetrics(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        wideGuard.callAsync(OPERATION, () -> first);
+        wideGuard.callAsync(OPERATION, () -> second);
+
+        CompletableFuture<String> rejected = wideGuard.callAsync(OPERATION, () -> CompletableFuture.completedFuture("ok"));
+
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(DownstreamRejectedException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("trop d'appels simultanés"));
+        assertEquals(2, wideLimiter.getInFlight());
+
+        first.complete("ok");
+        second.complete("ok");
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(0, wideLimiter.getInFlight());
+    }
+
+    // Limite adaptative atteinte : refus, la permission du bulkhead est rendue
+    @Test
+    void callAsync_shouldReleaseBulkhead_whenLimitIsReached() {
+        AdaptiveConcurrencyLimiter narrowLimiter = new AdaptiveConcurrencyLimiter(1, 1, 4, Duration.ofSeconds(1), 0.5);
+        DownstreamGuard narrowGuard = new DownstreamGuard(CLIENT, circuitBreaker, bulkhead, narrowLimiter,
+                new ClientMetrics(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        narrowGuard.callAsync(OPERATION, () -> pending);
+
+        CompletableFuture<String> rejected = narrowGuard.callAsync(OPERATION, () -> CompletableFuture.completedFuture("ok"));
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+
+        pending.complete("ok");
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(0, narrowLimiter.getInFlight());
+    }
+
+    // Succès : permissions rendues, appel compté comme réussi
+    @Test
+    void call_shouldReleasePermits_onSuccess() {
+        assertEquals("ok", guard.call(OPERATION, () -> "ok"));
+
+        assertPermitsReleased();
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    // Échec : permissions rendues, appel compté comme en échec
+    @Test
+    void call_shouldReleasePermits_onFailure() {
+        assertThrows(ResourceAccessException.class, () -> guard.call(OPERATION, () -> {
+            throw new ResourceAccessException("timeout");
+        }));
+
+        assertPermitsReleased();
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    // Appel asynchrone : permissions gardées jusqu'à la complétion du futur, rendues sur échec
+    @Test
+    void callAsync_shouldReleasePermits_whenFutureFails() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> result = guard.callAsync(OPERATION, () -> pending);
+
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(1, limiter.getInFlight());
+
+        pending.completeExceptionally(new ResourceAccessException("timeout"));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertPermitsReleased();
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    private void assertPermitsReleased() {
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("order_client_rejected_total")
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+}
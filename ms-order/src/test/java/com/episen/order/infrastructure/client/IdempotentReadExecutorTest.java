@@ -0,0 +1,224 @@
+package com.episen.order.infrastructure.client;
+
+import com.episen.order.infrastructure.exception.DownstreamRejectedException;
+import com.episen.order.infrastructure.metrics.ClientMetrics;
+import com.episen.order.infrastructure.metrics.ClientMetrics.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentReadExecutorTest {
+
+    private static final Operation OPERATION = Operation.GET_USER;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Erreur réseau : nouvelle tentative jusqu'au succès, chacune comptée
+    @Test
+    void read_shouldRetryNetworkErrors_untilSuccess() {
+        IdempotentReadExecutor executor = executor(false, 3, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.read(OPERATION, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ResourceAccessException("timeout");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, count("order_client_retries_total"));
+    }
+
+    // Au plus max-attempts tentatives : la dernière erreur est rendue
+    @Test
+    void read_shouldStopAtMaxAttempts() {
+        IdempotentReadExecutor executor = executor(false, 3, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ResourceAccessException.class, () -> executor.read(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("timeout");
+        }));
+
+        assertEquals(3, calls.get());
+    }
+
+    // Refus du DownstreamGuard (circuit ouvert, bulkhead plein) : jamais réessayé
+    @Test
+    void read_shouldNotRetry_whenDownstreamRejects() {
+        IdempotentReadExecutor executor = executor(false, 3, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(DownstreamRejectedException.class, () -> executor.read(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new DownstreamRejectedException("ms-membership", "circuit ouvert");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(0.0, count("order_client_retries_total"));
+    }
+
+    // Budget vide : l'erreur est rendue sans nouvelle tentative
+    @Test
+    void read_shouldNotRetry_whenBudgetIsExhausted() {
+        IdempotentReadExecutor executor = executor(false, 3, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ResourceAccessException.class, () -> executor.read(OPERATION, () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("timeout");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("order_client_retry_budget_exhausted_total"));
+    }
+
+    // Moins de MIN_SAMPLES latences : p95 non fiable, la lecture n'est pas doublée
+    @Test
+    void readAsync_shouldNotHedge_belowMinSamples() throws Exception {
+        IdempotentReadExecutor executor = executor(true, 1, 10);
+        warmUp(executor, 49);
+        Attempts attempts = new Attempts();
+
+        CompletableFuture<String> result = executor.readAsync(OPERATION, attempts);
+        TimeUnit.MILLISECONDS.sleep(150);
+        attempts.get(0).complete("first");
+
+        assertEquals("first", result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, attempts.size());
+        assertEquals(0.0, count("order_client_hedges_total"));
+    }
+
+    // Sans réponse après le p95 : un doublon part, la première réponse reçue est retenue
+    @Test
+    void readAsync_shouldHedge_andKeepFirstResponse() throws Exception {
+        IdempotentReadExecutor executor = executor(true, 1, 10);
+        warmUp(executor, 50);
+        Attempts attempts = new Attempts();
+
+        CompletableFuture<String> result = executor.readAsync(OPERATION, attempts);
+        attempts.awaitSize(2);
+        attempts.get(1).complete("hedge");
+        attempts.get(0).complete("first");
+
+        assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+        assertEquals(1.0, count("order_client_hedges_total"));
+        assertEquals(1.0, count("order_client_hedge_wins_total"));
+    }
+
+    // Requête et doublon partis : l'échec n'est rendu qu'une fois les deux en échec
+    @Test
+    void readAsync_shouldFail_onlyWhenAllOutstandingRequestsFailed() throws Exception {
+        IdempotentReadExecutor executor = executor(true, 1, 10);
+        warmUp(executor, 50);
+        Attempts attempts = new Attempts();
+
+        CompletableFuture<String> result = executor.readAsync(OPERATION, attempts);
+        attempts.awaitSize(2);
+
+        attempts.get(0).completeExceptionally(new ResourceAccessException("timeout"));
+        assertFalse(result.isDone());
+
+        attempts.get(1).completeExceptionally(new ResourceAccessException("timeout"));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceAccessException.class, error.getCause());
+    }
+
+    // Doublon sans budget : pas de seconde requête, la première reste seule
+    @Test
+    void readAsync_shouldNotHedge_whenBudgetIsExhausted() throws Exception {
+        IdempotentReadExecutor executor = executor(true, 1, 0);
+        warmUp(executor, 50);
+        Attempts attempts = new Attempts();
+
+        CompletableFuture<String> result = executor.readAsync(OPERATION, attempts);
+        TimeUnit.MILLISECONDS.sleep(150);
+        attempts.get(0).complete("first");
+
+        assertEquals("first", result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, attempts.size());
+        assertEquals(1.0, count("order_client_retry_budget_exhausted_total"));
+    }
+
+    // Lecture asynchrone en échec réseau : réessayée après attente
+    @Test
+    void readAsync_shouldRetryFailedAttempt() throws Exception {
+        IdempotentReadExecutor executor = executor(false, 3, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = executor.readAsync(OPERATION, () -> calls.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new ResourceAccessException("timeout"))
+                : CompletableFuture.completedFuture("ok"));
+
+        assertEquals("ok", result.get(1, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(1.0, count("order_client_retries_total"));
+    }
+
+    private IdempotentReadExecutor executor(boolean hedging, int maxAttempts, int budgetTokens) {
+        return new IdempotentReadExecutor(new ClientMetrics(meterRegistry), meterRegistry, hedging,
+                Duration.ofMillis(20), Duration.ofMillis(50), maxAttempts,
+                Duration.ofMillis(1), Duration.ofMillis(5), 0.0, budgetTokens);
+    }
+
+    /**
+     * Latences rapides enregistrées par la lecture bloquante (qui ne consulte pas le p95).
+     */
+    private static void warmUp(IdempotentReadExecutor executor, int samples) {
+        for (int i = 0; i < samples; i++) {
+            executor.read(OPERATION, () -> "ok");
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name)
+                .tag("operation", OPERATION.tagValue())
+                .counter()
+                .count();
+    }
+
+    /**
+     * Tentatives asynchrones complétées à la main par le test.
+     */
+    private static final class Attempts implements Supplier<CompletableFuture<String>> {
+
+        private final List<CompletableFuture<String>> futures = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<String> get() {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }
+
+        CompletableFuture<String> get(int index) {
+            return futures.get(index);
+        }
+
+        int size() {
+            return futures.size();
+        }
+
+        void awaitSize(int size) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (futures.size() < size) {
+                assertTrue(System.nanoTime() < deadline, "tentatives lancées : " + futures.size());
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+        }
+    }
+}
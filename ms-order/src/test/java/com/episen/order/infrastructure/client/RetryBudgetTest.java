@@ -0,0 +1,39 @@
+package com.episen.order.infrastructure.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    // Réserve initiale consommée : une tentative supplémentaire pour 10 premières tentatives
+    @Test
+    void tryWithdraw_shouldBeBoundedByDepositRatio() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        for (int i = 0; i < 9; i++) {
+            budget.deposit();
+        }
+        assertFalse(budget.tryWithdraw());
+
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    // Le seau est plafonné : un long calme ne permet pas une rafale de tentatives
+    @Test
+    void deposit_shouldBeCappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget(0.5, 1);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        assertEquals(1.0, budget.getTokens());
+    }
+}
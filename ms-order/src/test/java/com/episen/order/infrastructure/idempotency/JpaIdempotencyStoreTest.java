@@ -0,0 +1,107 @@
+package com.episen.order.infrastructure.idempotency;
+
+import com.episen.order.application.dto.OrderResponseDto;
+import com.episen.order.domain.entity.IdempotencyKey;
+import com.episen.order.domain.repository.IdempotencyKeyRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Réservation des clés en base : une clé en cours est refusée, sauf si son bail a expiré.
+ */
+@DataJpaTest(properties = {
+        "app.orders.idempotency.store=jpa",
+        "app.orders.idempotency.in-progress-lease=2m"
+})
+@Import(JpaIdempotencyStore.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaIdempotencyStoreTest {
+
+    @Autowired private JpaIdempotencyStore idempotencyStore;
+    @Autowired private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    // Création en cours sur une autre instance : la clé n'est pas reprise
+    @Test
+    void begin_shouldRefuse_whenCreationIsStillInProgress() {
+        assertTrue(idempotencyStore.begin("key-running", "fp").isPresent());
+
+        assertTrue(idempotencyStore.begin("key-running", "fp").isEmpty());
+        assertTrue(idempotencyStore.find("key-running").isPresent());
+    }
+
+    // Instance arrêtée pendant la création : après le bail, la clé est reprise sans attendre le ttl
+    @Test
+    void begin_shouldTakeOver_whenInProgressLeaseHasExpired() {
+        idempotencyKeyRepository.save(key("key-stuck", null, LocalDateTime.now().minusMinutes(3)));
+
+        assertTrue(idempotencyStore.find("key-stuck").isEmpty());
+        assertTrue(idempotencyStore.begin("key-stuck", "fp-retry").isPresent());
+        assertEquals("fp-retry", idempotencyKeyRepository.findById("key-stuck").orElseThrow().getFingerprint());
+    }
+
+    // Création terminée : la réponse reste rejouable jusqu'au ttl, le bail ne s'applique pas
+    @Test
+    void begin_shouldRefuse_whenCompletedKeyIsOlderThanLease() {
+        String owner = idempotencyStore.begin("key-done", "fp").orElseThrow();
+        idempotencyStore.complete("key-done", owner, new IdempotencyRecord("fp", OrderResponseDto.builder().id(42L).build()));
+        IdempotencyKey row = idempotencyKeyRepository.findById("key-done").orElseThrow();
+        row.setCreatedAt(LocalDateTime.now().minusMinutes(3));
+        idempotencyKeyRepository.save(row);
+
+        assertTrue(idempotencyStore.begin("key-done", "fp").isEmpty());
+        assertEquals(42L, idempotencyStore.find("key-done").orElseThrow().response().getId());
+    }
+
+    // Création lente reprise après le bail : son échec ne libère pas la clé du nouveau propriétaire
+    @Test
+    void abandon_shouldKeepTakenOverKey_whenStaleOwnerFails() {
+        String stale = idempotencyStore.begin("key-taken", "fp").orElseThrow();
+        IdempotencyKey row = idempotencyKeyRepository.findById("key-taken").orElseThrow();
+        row.setCreatedAt(LocalDateTime.now().minusMinutes(3));
+        idempotencyKeyRepository.save(row);
+        String current = idempotencyStore.begin("key-taken", "fp").orElseThrow();
+
+        idempotencyStore.abandon("key-taken", stale);
+
+        assertEquals(current, idempotencyKeyRepository.findById("key-taken").orElseThrow().getOwner());
+        assertTrue(idempotencyStore.begin("key-taken", "fp").isEmpty());
+    }
+
+    // Création lente reprise après le bail : sa réponse n'écrase pas la réservation du nouveau propriétaire
+    @Test
+    void complete_shouldIgnoreStaleOwner_afterTakeOver() {
+        String stale = idempotencyStore.begin("key-late", "fp").orElseThrow();
+        IdempotencyKey row = idempotencyKeyRepository.findById("key-late").orElseThrow();
+        row.setCreatedAt(LocalDateTime.now().minusMinutes(3));
+        idempotencyKeyRepository.save(row);
+        String current = idempotencyStore.begin("key-late", "fp").orElseThrow();
+
+        idempotencyStore.complete("key-late", stale, new IdempotencyRecord("fp", OrderResponseDto.builder().id(1L).build()));
+        assertNull(idempotencyKeyRepository.findById("key-late").orElseThrow().getResponse());
+
+        idempotencyStore.complete("key-late", current, new IdempotencyRecord("fp", OrderResponseDto.builder().id(2L).build()));
+        assertEquals(2L, idempotencyStore.find("key-late").orElseThrow().response().getId());
+    }
+
+    private static IdempotencyKey key(String key, String response, LocalDateTime createdAt) {
+        return IdempotencyKey.builder()
+                .idempotencyKey(key)
+                .fingerprint("fp")
+                .owner("stuck-owner")
+                .response(response)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.episen.order.infrastructure.metrics;
+
+import com.episen.order.domain.enums.OrderStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une incrémentation de compteur de commande :
+ *  - avant : Counter.builder(...).tag(...).register(registry) à chaque appel
+ *    (builder, tags, recherche du compteur dans le registre) ;
+ *  - après : compteur enregistré au démarrage par OrderMetrics.
+ *
+ * Registre Prometheus, comme en production. Exclu du build par défaut :
+ * mvn test -Pbenchmark (ou lancer main()).
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MeterIncrementBenchmark {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private PrometheusMeterRegistry registry;
+    private OrderMetrics orderMetrics;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        OrderStatus nextStatus() {
+            next = (next + 1) % STATUSES.length;
+            return STATUSES[next];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        orderMetrics = new OrderMetrics(registry, null);
+    }
+
+    @Benchmark
+    public void orderCreated_builderPerCall(Cursor cursor) {
+        Counter.builder("order_created_total")
+                .description("Nombre total de commandes créées, groupées par statut")
+                .tag("status", cursor.nextStatus().name())
+                .register(registry)
+                .increment();
+    }
+
+    @Benchmark
+    public void orderCreated_preRegistered(Cursor cursor) {
+        orderMetrics.incrementOrdersCreated(cursor.nextStatus());
+    }
+
+    @Benchmark
+    public void statusChanged_builderPerCall(Cursor cursor) {
+        OrderStatus from = cursor.nextStatus();
+        Counter.builder("order_status_changed_total")
+                .description("Nombre total de changements de statut de commandes")
+                .tag("from", from.name())
+                .tag("to", cursor.nextStatus().name())
+                .register(registry)
+                .increment();
+    }
+
+    @Benchmark
+    public void statusChanged_preRegistered(Cursor cursor) {
+        orderMetrics.incrementOrderStatusChanged(cursor.nextStatus(), cursor.nextStatus());
+    }
+
+    @Test
+    void run() throws RunnerException {
+        main();
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MeterIncrementBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.episen.order.infrastructure.metrics;
+
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.domain.repository.OrderRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderMetricsTest {
+
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final MutableClock clock = new MutableClock(DAY.atTime(10, 0).atZone(PARIS));
+
+    private OrderMetrics orderMetrics;
+
+    @BeforeEach
+    void setUp() {
+        orderMetrics = new OrderMetrics(registry, orderRepository, clock);
+    }
+
+    // Montant du jour : créations ajoutées, annulations retirées, sans requête SQL
+    @Test
+    void amountToday_shouldBeMaintainedIncrementally() {
+        orderMetrics.addToAmountToday(DAY.atTime(9, 0), new BigDecimal("100.00"));
+        orderMetrics.addToAmountToday(DAY.atTime(9, 30), new BigDecimal("50.00"));
+        orderMetrics.removeFromAmountToday(DAY.atTime(9, 30), new BigDecimal("50.00"));
+
+        // commande de la veille annulée aujourd'hui : hors montant du jour
+        orderMetrics.removeFromAmountToday(DAY.minusDays(1).atTime(23, 0), new BigDecimal("30.00"));
+
+        assertEquals(100.0, registry.get("orders_amount_today").gauge().value());
+        verifyNoInteractions(orderRepository);
+    }
+
+    // Minuit (Europe/Paris) : le nouveau jour repart de 0
+    @Test
+    void amountToday_shouldRollOverAtMidnight() {
+        orderMetrics.addToAmountToday(DAY.atTime(23, 59), new BigDecimal("80.00"));
+
+        clock.set(DAY.plusDays(1).atTime(0, 1).atZone(PARIS));
+        orderMetrics.addToAmountToday(DAY.plusDays(1).atTime(0, 1), new BigDecimal("20.00"));
+
+        assertEquals(20.0, orderMetrics.getAmountToday());
+    }
+
+    // Réconciliation : la somme SQL devient la base, l'écart est exposé
+    @Test
+    void reconcile_shouldResetToSqlSumAndExposeDrift() {
+        orderMetrics.addToAmountToday(DAY.atTime(9, 0), new BigDecimal("100.00"));
+        when(orderRepository.sumTotalAmountBetween(any(LocalDateTime.class), any(LocalDateTime.class),
+                eq(OrderStatus.CANCELLED))).thenReturn(130.0);
+
+        orderMetrics.reconcileAmountToday();
+
+        assertEquals(130.0, registry.get("orders_amount_today").gauge().value());
+        assertEquals(-30.0, registry.get("orders_amount_today_drift").gauge().value());
+        verify(orderRepository).sumTotalAmountBetween(DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(),
+                OrderStatus.CANCELLED);
+    }
+
+    /**
+     * Horloge réglable pour simuler le passage de minuit.
+     */
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+        private final ZoneId zone;
+
+        MutableClock(ZonedDateTime dateTime) {
+            this(dateTime.toInstant(), dateTime.getZone());
+        }
+
+        private MutableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        void set(ZonedDateTime dateTime) {
+            this.instant = dateTime.toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
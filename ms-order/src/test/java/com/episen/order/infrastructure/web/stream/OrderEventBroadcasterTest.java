@@ -0,0 +1,143 @@
+package com.episen.order.infrastructure.web.stream;
+
+import com.episen.order.application.dto.OrderEventDto;
+import com.episen.order.domain.enums.OrderEventType;
+import com.episen.order.domain.enums.OrderStatus;
+import com.episen.order.infrastructure.exception.TooManySubscribersException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderEventBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ManualExecutor senders = new ManualExecutor();
+
+    private OrderEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new OrderEventBroadcaster(meterRegistry, 2, 3, Duration.ofMinutes(1), senders);
+    }
+
+    // Abonné lent (envoi pas encore exécuté) : au-delà de buffer-size, les plus anciens sont écartés
+    @Test
+    void publish_shouldDropOldestEvents_whenSubscriberBufferIsFull() {
+        SseEmitter emitter = broadcaster.subscribe(null, null);
+
+        for (long eventId = 1; eventId <= 5; eventId++) {
+            broadcaster.publish(event(eventId, 7L, OrderStatus.PENDING));
+        }
+
+        assertEquals(2.0, meterRegistry.counter("order_stream_events_dropped_total").count());
+        assertEquals(1, senders.tasks.size(), "une seule tâche d'envoi par abonné");
+
+        senders.runAll();
+
+        assertEquals(List.of(3L, 4L, 5L), sentEventIds(emitter));
+    }
+
+    // Filtres userId / status : seuls les abonnés concernés reçoivent l'événement
+    @Test
+    void publish_shouldOnlyDeliverToMatchingSubscribers() {
+        SseEmitter byUser = broadcaster.subscribe(7L, null);
+        SseEmitter byStatus = broadcaster.subscribe(null, OrderStatus.SHIPPED);
+
+        broadcaster.publish(event(1L, 7L, OrderStatus.PENDING));
+        broadcaster.publish(event(2L, 8L, OrderStatus.SHIPPED));
+        broadcaster.publish(event(3L, 9L, OrderStatus.CANCELLED));
+        senders.runAll();
+
+        assertEquals(List.of(1L), sentEventIds(byUser));
+        assertEquals(List.of(2L), sentEventIds(byStatus));
+    }
+
+    // Nombre d'abonnés borné : refus au-delà de max-subscribers
+    @Test
+    void subscribe_shouldRefuse_whenMaxSubscribersReached() {
+        broadcaster.subscribe(null, null);
+        broadcaster.subscribe(null, null);
+
+        assertThrows(TooManySubscribersException.class, () -> broadcaster.subscribe(null, null));
+    }
+
+    /**
+     * Événements déjà envoyés à l'emitter : sans connexion HTTP, SseEmitter les garde en attente.
+     */
+    private static List<Long> sentEventIds(SseEmitter emitter) {
+        Collection<?> sent = (Collection<?>) ReflectionTestUtils.getField(emitter, "earlySendAttempts");
+        List<Long> eventIds = new ArrayList<>();
+        for (Object part : sent) {
+            if (ReflectionTestUtils.getField(part, "data") instanceof OrderEventDto event) {
+                eventIds.add(event.getEventId());
+            }
+        }
+        return eventIds;
+    }
+
+    private static OrderEventDto event(Long eventId, Long userId, OrderStatus status) {
+        return OrderEventDto.builder()
+                .eventId(eventId)
+                .type(OrderEventType.ORDER_STATUS_CHANGED)
+                .orderId(eventId * 10)
+                .userId(userId)
+                .status(status)
+                .build();
+    }
+
+    /**
+     * Exécuteur manuel : les tâches d'envoi ne tournent qu'à la demande (abonné lent).
+     */
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
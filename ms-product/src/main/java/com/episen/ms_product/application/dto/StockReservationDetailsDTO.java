@@ -0,0 +1,27 @@
+package com.episen.ms_product.application.dto;
+
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO pour l'état d'une réservation de stock (consultation, confirmation, libération).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationDetailsDTO {
+
+    private String reservationId;
+    private StockReservationStatus status;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+    private List<StockReservationLineDTO> lines;
+}
@@ -0,0 +1,15 @@
+package com.episen.ms_product.application.dto;
+
+/**
+ * Résultat d'une ligne de réservation de stock.
+ */
+public enum StockReservationLineStatus {
+    /** Stock décrémenté */
+    RESERVED,
+    /** Stock disponible, mais la réservation a été annulée à cause d'une autre ligne */
+    ROLLED_BACK,
+    /** Stock insuffisant pour la quantité demandée */
+    INSUFFICIENT_STOCK,
+    /** Produit inexistant */
+    PRODUCT_NOT_FOUND
+}
@@ -0,0 +1,32 @@
+package com.episen.ms_product.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO pour la réservation groupée de stock.
+ * Toutes les lignes sont décrémentées dans une seule transaction : tout ou rien.
+ * Le stock est rendu automatiquement si la réservation n'est pas confirmée avant son expiration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequestDTO {
+
+    @NotEmpty(message = "La réservation doit contenir au moins une ligne")
+    private List<@Valid StockReservationLineDTO> lines;
+
+    /** Durée de vie de la réservation en secondes (défaut : app.stock.reservation.default-ttl) */
+    @Min(value = 1, message = "La durée de réservation doit être d'au moins 1 seconde")
+    @Max(value = 86400, message = "La durée de réservation ne peut pas dépasser 24 heures")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,28 @@
+package com.episen.ms_product.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO pour la réponse d'une réservation groupée de stock.
+ * - reserved = true  : toutes les lignes ont été décrémentées, jusqu'à expiresAt
+ * - reserved = false : aucune ligne n'a été décrémentée, le statut de chaque ligne explique pourquoi
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResponseDTO {
+
+    private boolean reserved;
+    private String reservationId;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+    private List<StockReservationLineResultDTO> lines;
+}
@@ -48,12 +48,12 @@ public class ProductMapper {
 
     /**
      * Met à jour une entité Product existante avec les données du DTO
+     * (le stock est appliqué par le StockEngine, qui peut le garder en mémoire)
      */
     public void updateEntityFromDto(ProductRequestDTO dto, Product product) {
         product.setName(dto.getName());
         product.setDescription(dto.getDescription());
         product.setPrice(dto.getPrice());
-        product.setStock(dto.getStock());
         product.setCategory(dto.getCategory());
     }
 }
@@ -0,0 +1,78 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationLineStatus;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Moteur de stock par défaut : la table products fait foi.
+ * Chaque décrément est un UPDATE conditionnel exécuté dans la transaction de l'appelant,
+ * qui annule donc toutes les lignes si une seule échoue.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stock.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseStockEngine implements StockEngine {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public List<StockReservationLineResultDTO> reserve(String reservationId, SortedMap<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservationLineResultDTO> results = new ArrayList<>(quantities.size());
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockReservationLineStatus status;
+            if (productRepository.decrementStock(entry.getKey(), entry.getValue(), now) == 1) {
+                status = StockReservationLineStatus.RESERVED;
+            } else {
+                status = productRepository.findStockById(entry.getKey()).isPresent()
+                        ? StockReservationLineStatus.INSUFFICIENT_STOCK
+                        : StockReservationLineStatus.PRODUCT_NOT_FOUND;
+            }
+            results.add(StockReservationLineResultDTO.builder()
+                    .productId(entry.getKey())
+                    .quantity(entry.getValue())
+                    .status(status)
+                    .build());
+        }
+        return results;
+    }
+
+    @Override
+    public void release(String reservationId, SortedMap<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        quantities.forEach((productId, quantity) ->
+                productRepository.incrementStock(productId, quantity, now));
+    }
+
+    @Override
+    public boolean writesThrough() {
+        return true;
+    }
+
+    @Override
+    public void assignStock(Product product, int newStock) {
+        product.setStock(newStock);
+    }
+
+    @Override
+    public Integer availableStock(Product product) {
+        return product.getStock();
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        // rien à faire : le stock disparaît avec la ligne
+    }
+}
@@ -1,5 +1,7 @@
 package com.episen.ms_product.application.service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
@@ -10,12 +12,11 @@ import com.episen.ms_product.application.mapper.ProductMapper;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.entity.ProductCategory;
 import com.episen.ms_product.domain.repository.ProductRepository;
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.episen.ms_product.infrastructure.exception.ResourceAlreadyExistsException;
 import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.metrics.ProductMetrics;
 
 /**
  * Service pour la gestion des produits.
@@ -32,9 +33,13 @@ import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
 @Transactional(readOnly = true)
 public class ProductService {
 
+    /** Nombre maximal d'IDs acceptés par une lecture groupée */
+    public static final int MAX_BATCH_SIZE = 200;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
-    private final MeterRegistry meterRegistry;
+    private final ProductMetrics productMetrics;
+    private final StockEngine stockEngine;
 
     /**
      * Lister tous les produits : Récupère tous les produits
@@ -47,7 +52,7 @@ public class ProductService {
         log.info("Nombre de produits récupérés: {}", products.size());
         
         return products.stream()
-                .map(productMapper::toDto)
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -62,7 +67,28 @@ public class ProductService {
 
         log.info("Produit trouvé: {}", product.getName());
 
-        return productMapper.toDto(product);
+        return toDto(product);
+    }
+
+    /**
+     * Détails de plusieurs produits : une seule requête SQL (IN) pour tous les IDs.
+     * Les IDs inconnus sont simplement absents du résultat.
+     */
+    public List<ProductResponseDTO> getProductsByIds(Collection<Long> ids) {
+        log.debug("Récupération des produits avec les IDs: {}", ids);
+
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Impossible de récupérer plus de " + MAX_BATCH_SIZE + " produits par requête");
+        }
+
+        List<Product> products = productRepository.findAllById(new LinkedHashSet<>(ids));
+
+        log.info("Nombre de produits récupérés: {}/{}", products.size(), ids.size());
+
+        return products.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -84,15 +110,11 @@ public class ProductService {
         Product savedProduct = productRepository.save(product);
         
         // Métrique personnalisée : nombre de produits créés
-        Counter.builder("products.created")
-                .description("Nombre de produits créés")
-                .tag("type", "Product")
-                .register(meterRegistry)
-                .increment();
+        productMetrics.incrementProductCreated();
         
         log.info("Produit créé avec succès: ID={}, Nom={}", savedProduct.getId(), savedProduct.getName());
         
-        return productMapper.toDto(savedProduct);
+        return toDto(savedProduct);
     }
     
     /**
@@ -113,19 +135,16 @@ public class ProductService {
         }
 
         productMapper.updateEntityFromDto(productRequestDTO, product);
+        stockEngine.assignStock(product, productRequestDTO.getStock());
         Product updatedProduct = productRepository.save(product);
 
         // Métrique personnalisée
-        Counter.builder("products.updated")
-                .description("Nombre de produits mis à jour")
-                .tag("type", "product")
-                .register(meterRegistry)
-                .increment();
+        productMetrics.incrementProductUpdated();
 
         log.info("Produit mis à jour avec succès: ID={}, Name={}",
                 updatedProduct.getId(), updatedProduct.getName());
 
-        return productMapper.toDto(updatedProduct);
+        return toDto(updatedProduct, productRequestDTO.getStock());
     }
 
     /**
@@ -139,13 +158,10 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
         productRepository.delete(product);
+        stockEngine.onProductDeleted(id);
 
         // Métrique personnalisée
-        Counter.builder("products.deleted")
-                .description("Nombre de produits supprimés")
-                .tag("type", "product")
-                .register(meterRegistry)
-                .increment();
+        productMetrics.incrementProductDeleted();
 
         log.info("Produit supprimé avec succès: ID={}, Name={}", id, product.getName());
     }
@@ -161,7 +177,7 @@ public class ProductService {
         log.info("Nombre de produits trouvés: {}", products.size());
 
         return products.stream()
-                .map(productMapper::toDto)
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -176,23 +192,29 @@ public class ProductService {
         log.info("Nombre de produits trouvés: {}", products.size());
 
         return products.stream()
-                .map(productMapper::toDto)
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Recherche des produits en stock (stock > 0)
+     * Recherche des produits en stock (stock > 0, tel que vu par le StockEngine :
+     * en mode mémoire, la colonne stock n'est à jour qu'au flush suivant)
      */
     public List<ProductResponseDTO> searchAvailableProducts() {
         log.debug("Recherche de produits en stock");
 
-        List<Product> products = productRepository.findByStockGreaterThan(0);
+        List<Product> products = stockEngine.writesThrough()
+                ? productRepository.findByStockGreaterThan(0)
+                : productRepository.findAll();
 
-        log.info("Nombre de produits trouvés: {}", products.size());
-
-        return products.stream()
-                .map(productMapper::toDto)
+        List<ProductResponseDTO> available = products.stream()
+                .map(this::toDto)
+                .filter(product -> product.getStock() > 0)
                 .collect(Collectors.toList());
+
+        log.info("Nombre de produits trouvés: {}", available.size());
+
+        return available;
     }
 
     /**
@@ -205,9 +227,28 @@ public class ProductService {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
-                product.setStock(newStock);
+                stockEngine.assignStock(product, newStock);
                 Product savedProduct = productRepository.save(product);
 
-                return productMapper.toDto(savedProduct);
+                return toDto(savedProduct, newStock);
         }
+
+    /**
+     * Entité -> DTO, avec le stock disponible tel que vu par le StockEngine
+     */
+    private ProductResponseDTO toDto(Product product) {
+        ProductResponseDTO dto = productMapper.toDto(product);
+        dto.setStock(stockEngine.availableStock(product));
+        return dto;
+    }
+
+    /**
+     * Entité -> DTO après une saisie de stock : la valeur saisie (en mode mémoire, la cellule
+     * n'est modifiée qu'au commit)
+     */
+    private ProductResponseDTO toDto(Product product, Integer assignedStock) {
+        ProductResponseDTO dto = productMapper.toDto(product);
+        dto.setStock(assignedStock);
+        return dto;
+    }
 }
@@ -0,0 +1,56 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.domain.entity.Product;
+
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Moteur de stock : endroit unique où le stock disponible est lu et modifié.
+ *
+ * Deux implémentations, choisies par la propriété app.stock.engine :
+ *  - database (défaut) : le stock vit dans la table products, chaque décrément est un UPDATE conditionnel ;
+ *  - memory : le stock vit en mémoire et est écrit en base par lots (write-behind).
+ *
+ * Les mouvements d'une réservation suivent l'issue de la transaction de l'appelant :
+ * rien ne doit rester décrémenté après un rollback, rien ne doit être crédité deux fois.
+ */
+public interface StockEngine {
+
+    /**
+     * Décrémente le stock de chaque produit (lignes triées par ID) pour la réservation donnée.
+     * Si une ligne échoue, aucune ligne ne doit rester décrémentée une fois la transaction
+     * de l'appelant annulée ; le résultat de chaque ligne est tout de même renvoyé.
+     */
+    List<StockReservationLineResultDTO> reserve(String reservationId, SortedMap<Long, Integer> quantities);
+
+    /**
+     * Rend le stock de chaque produit (réservation libérée ou expirée), une fois la transaction
+     * de l'appelant validée. Un produit supprimé entre-temps est ignoré.
+     */
+    void release(String reservationId, SortedMap<Long, Integer> quantities);
+
+    /**
+     * true si les mouvements sont écrits dans products dans la transaction de l'appelant :
+     * le drapeau stock_deducted des réservations est alors tenu à jour par l'appelant.
+     * Sinon le moteur l'écrit lui-même, en même temps que le stock.
+     */
+    boolean writesThrough();
+
+    /**
+     * Remplace le stock d'un produit par une valeur absolue (saisie manuelle).
+     * Le produit est ensuite sauvegardé par l'appelant.
+     */
+    void assignStock(Product product, int newStock);
+
+    /**
+     * Stock disponible à exposer dans les réponses de l'API.
+     */
+    Integer availableStock(Product product);
+
+    /**
+     * Appelé après la suppression d'un produit.
+     */
+    void onProductDeleted(Long productId);
+}
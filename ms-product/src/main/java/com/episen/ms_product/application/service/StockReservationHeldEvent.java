@@ -0,0 +1,10 @@
+package com.episen.ms_product.application.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié quand une réservation de stock est créée (statut HELD),
+ * pour programmer son expiration.
+ */
+public record StockReservationHeldEvent(String reservationId, LocalDateTime expiresAt) {
+}
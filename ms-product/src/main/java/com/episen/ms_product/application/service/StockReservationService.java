@@ -0,0 +1,231 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockReservationDetailsDTO;
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationLineStatus;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
+import com.episen.ms_product.domain.entity.ReservedQuantity;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+import com.episen.ms_product.infrastructure.exception.ResourceNotFoundException;
+import com.episen.ms_product.infrastructure.exception.StockReservationException;
+import com.episen.ms_product.infrastructure.exception.StockReservationStateException;
+import com.episen.ms_product.infrastructure.metrics.ProductMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Service pour les réservations de stock à durée limitée.
+ * Best practices :
+ * - Réservation tout ou rien, dans une seule transaction
+ * - Transitions de statut atomiques (UPDATE conditionnel) : une réservation n'est
+ *   confirmée, libérée ou expirée qu'une seule fois, même en concurrence
+ * - Le stock d'une réservation non confirmée est rendu automatiquement à expiration
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final StockEngine stockEngine;
+    private final ProductMetrics productMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.stock.reservation.default-ttl:15m}")
+    private Duration defaultTtl;
+
+    /**
+     * Réserver du stock pour plusieurs produits en une seule transaction (tout ou rien).
+     * - chaque ligne est décrémentée par le StockEngine sans cycle lecture/modification/écriture
+     *   (UPDATE conditionnel en base, ou CAS en mémoire), donc pas de mise à jour perdue ;
+     * - les lignes sont traitées par ID croissant pour toujours verrouiller dans le même ordre ;
+     * - si une ligne échoue, la transaction est annulée et le détail est renvoyé ligne par ligne ;
+     * - sinon la réservation est enregistrée (HELD) jusqu'à sa confirmation ou son expiration ;
+     *   stock_deducted indique si son décrément est déjà dans products (voir StockEngine).
+     */
+    @Transactional
+    public StockReservationResponseDTO reserve(StockReservationRequestDTO request) {
+        // fusion des lignes portant sur le même produit, triées par ID
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationLineDTO line : request.getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        log.debug("Réservation de stock pour {} produits", quantities.size());
+
+        String reservationId = UUID.randomUUID().toString();
+        List<StockReservationLineResultDTO> results = stockEngine.reserve(reservationId, quantities);
+        boolean reserved = results.stream()
+                .allMatch(result -> result.getStatus() == StockReservationLineStatus.RESERVED);
+
+        // Métrique personnalisée
+        productMetrics.incrementReservation(reserved);
+
+        if (!reserved) {
+            results.stream()
+                    .filter(result -> result.getStatus() == StockReservationLineStatus.RESERVED)
+                    .forEach(result -> result.setStatus(StockReservationLineStatus.ROLLED_BACK));
+
+            log.warn("Réservation de stock refusée: {}", results);
+            // RuntimeException => rollback des lignes déjà décrémentées
+            throw new StockReservationException(StockReservationResponseDTO.builder()
+                    .reserved(false)
+                    .lines(results)
+                    .build());
+        }
+
+        Duration ttl = request.getTtlSeconds() != null
+                ? Duration.ofSeconds(request.getTtlSeconds())
+                : defaultTtl;
+
+        StockReservation reservation = StockReservation.builder()
+                .id(reservationId)
+                .status(StockReservationStatus.HELD)
+                .stockDeducted(stockEngine.writesThrough())
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .lines(quantities.entrySet().stream()
+                        .map(entry -> new ReservedQuantity(entry.getKey(), entry.getValue()))
+                        .toList())
+                .build();
+        reservationRepository.save(reservation);
+
+        // l'expiration n'est programmée qu'après le commit (voir StockReservationExpirer)
+        eventPublisher.publishEvent(
+                new StockReservationHeldEvent(reservation.getId(), reservation.getExpiresAt()));
+
+        log.info("Stock réservé: ID={}, {} produits, expiration={}",
+                reservation.getId(), results.size(), reservation.getExpiresAt());
+
+        return StockReservationResponseDTO.builder()
+                .reserved(true)
+                .reservationId(reservation.getId())
+                .expiresAt(reservation.getExpiresAt())
+                .lines(results)
+                .build();
+    }
+
+    /**
+     * Détails d'une réservation
+     */
+    public StockReservationDetailsDTO getReservation(String id) {
+        return toDetails(findReservation(id));
+    }
+
+    /**
+     * Confirmer une réservation : le stock reste décrémenté et n'expire plus.
+     * Idempotent : confirmer une réservation déjà confirmée ne fait rien.
+     * Une réservation échue est expirée sur place : le refus (StockReservationStateException)
+     * n'annule pas la transaction, l'expiration et le stock rendu sont conservés.
+     */
+    @Transactional(noRollbackFor = StockReservationStateException.class)
+    public StockReservationDetailsDTO confirm(String id) {
+        log.debug("Confirmation de la réservation {}", id);
+
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = findReservation(id);
+
+        if (reservation.getStatus() == StockReservationStatus.HELD && reservation.getExpiresAt().isAfter(now)) {
+            if (reservationRepository.transition(id, EnumSet.of(StockReservationStatus.HELD),
+                    StockReservationStatus.CONFIRMED, now) == 1) {
+                countTransition(StockReservationStatus.CONFIRMED);
+                log.info("Réservation confirmée: ID={}", id);
+                return toDetails(findReservation(id));
+            }
+            // transition concurrente (expiration ou libération) : on relit l'état
+            reservation = findReservation(id);
+        } else if (reservation.getStatus() == StockReservationStatus.HELD) {
+            // échue mais pas encore traitée par l'expirateur : on l'expire maintenant
+            expire(id);
+            reservation = findReservation(id);
+        }
+
+        if (reservation.getStatus() != StockReservationStatus.CONFIRMED) {
+            throw new StockReservationStateException(id, reservation.getStatus());
+        }
+        return toDetails(reservation);
+    }
+
+    /**
+     * Libérer une réservation (commande annulée ou supprimée) : le stock est rendu.
+     * Idempotent : libérer une réservation déjà libérée ou expirée ne fait rien.
+     */
+    @Transactional
+    public StockReservationDetailsDTO release(String id) {
+        log.debug("Libération de la réservation {}", id);
+
+        findReservation(id);
+        if (reservationRepository.transition(id,
+                EnumSet.of(StockReservationStatus.HELD, StockReservationStatus.CONFIRMED),
+                StockReservationStatus.RELEASED, LocalDateTime.now()) == 1) {
+            restock(id);
+            countTransition(StockReservationStatus.RELEASED);
+            log.info("Réservation libérée: ID={}", id);
+        }
+        return toDetails(findReservation(id));
+    }
+
+    /**
+     * Expirer une réservation non confirmée : le stock est rendu.
+     *
+     * @return true si la réservation vient d'expirer, false si elle n'était plus HELD
+     */
+    @Transactional
+    public boolean expire(String id) {
+        if (reservationRepository.transition(id, EnumSet.of(StockReservationStatus.HELD),
+                StockReservationStatus.EXPIRED, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        restock(id);
+        countTransition(StockReservationStatus.EXPIRED);
+        log.info("Réservation expirée, stock rendu: ID={}", id);
+        return true;
+    }
+
+    private void restock(String id) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (ReservedQuantity line : findReservation(id).getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        stockEngine.release(id, quantities);
+        if (stockEngine.writesThrough()) {
+            reservationRepository.updateStockDeducted(id, false);
+        }
+    }
+
+    private StockReservation findReservation(String id) {
+        return reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StockReservation", "id", id));
+    }
+
+    private void countTransition(StockReservationStatus status) {
+        productMetrics.incrementReservationTransition(status);
+    }
+
+    private StockReservationDetailsDTO toDetails(StockReservation reservation) {
+        return StockReservationDetailsDTO.builder()
+                .reservationId(reservation.getId())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .lines(reservation.getLines().stream()
+                        .map(line -> new StockReservationLineDTO(line.getProductId(), line.getQuantity()))
+                        .toList())
+                .build();
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -19,8 +20,11 @@ import java.time.LocalDateTime;
  * - Validation avec Bean Validation
  * - Audit automatique avec @CreationTimestamp et @UpdateTimestamp
  * - Builder pattern pour une construction flexible
+ * - @DynamicUpdate : un UPDATE n'écrit que les colonnes modifiées, pour ne pas
+ *   écraser le stock décrémenté entre-temps par une réservation
  */
 @Entity
+@DynamicUpdate
 @Table(name = "products")
 @Data
 @NoArgsConstructor
@@ -28,8 +32,10 @@ import java.time.LocalDateTime;
 @Builder
 public class Product {
 
+    /** Séquence products_seq par blocs de 50 (pooled-lo) : INSERT groupés par JDBC batch */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom du produit ne peut pas être vide")
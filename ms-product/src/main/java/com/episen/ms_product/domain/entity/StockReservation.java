@@ -0,0 +1,64 @@
+package com.episen.ms_product.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entité StockReservation : stock décrémenté pour une commande en attente.
+ * Best practices :
+ * - Identifiant UUID généré côté service (connu avant l'insertion)
+ * - Expiration explicite : une réservation HELD non confirmée rend son stock à expiresAt
+ * - Index (status, expires_at) pour retrouver rapidement les réservations échues
+ * - stock_deducted : le décrément est-il écrit dans products (reprise du moteur memory)
+ */
+@Entity
+@Table(name = "stock_reservations",
+       indexes = @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StockReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * true si products inclut le décrément de cette réservation.
+     * Moteur database : aligné sur le statut dans la même transaction ;
+     * moteur memory : écrit par le flush, en même temps que le stock.
+     */
+    @Column(name = "stock_deducted", nullable = false)
+    private boolean stockDeducted;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "stock_reservation_lines",
+                     joinColumns = @JoinColumn(name = "reservation_id"))
+    @Builder.Default
+    private List<ReservedQuantity> lines = new ArrayList<>();
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.episen.ms_product.domain.entity;
+
+/**
+ * Cycle de vie d'une réservation de stock.
+ * HELD -> CONFIRMED | RELEASED | EXPIRED, CONFIRMED -> RELEASED
+ */
+public enum StockReservationStatus {
+    HELD, CONFIRMED, RELEASED, EXPIRED
+}
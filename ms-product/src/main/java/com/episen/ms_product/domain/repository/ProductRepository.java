@@ -1,9 +1,12 @@
 package com.episen.ms_product.domain.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.episen.ms_product.domain.entity.Product;
 import com.episen.ms_product.domain.entity.ProductCategory;
@@ -50,4 +53,48 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     boolean existsByName(String name);
 
+    /**
+     * Décrémente le stock de façon atomique, uniquement s'il est suffisant.
+     * Pas de lecture préalable : la condition est évaluée par la base sous verrou de ligne.
+     *
+     * @return 1 si le stock a été décrémenté, 0 si le produit est absent ou le stock insuffisant
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Product p
+        SET p.stock = p.stock - :quantity, p.updatedAt = :now
+        WHERE p.id = :id
+        AND p.stock >= :quantity
+    """)
+    int decrementStock(@Param("id") Long id,
+                       @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Rend du stock à un produit (libération ou expiration d'une réservation)
+     *
+     * @return 1 si le produit existe, 0 sinon
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Product p
+        SET p.stock = p.stock + :quantity, p.updatedAt = :now
+        WHERE p.id = :id
+    """)
+    int incrementStock(@Param("id") Long id,
+                       @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Lit uniquement le stock d'un produit (sans charger l'entité)
+     */
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    /**
+     * Lit le stock de tous les produits : [id, stock] (rechargement du stock en mémoire)
+     */
+    @Query("SELECT p.id, p.stock FROM Product p")
+    List<Object[]> findAllStocks();
+
 }
@@ -0,0 +1,63 @@
+package com.episen.ms_product.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+
+/**
+ * Repository pour l'entité StockReservation.
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Change le statut uniquement si la réservation est dans l'un des statuts attendus.
+     * Garantit qu'une réservation n'est confirmée, libérée ou expirée qu'une seule fois,
+     * même si plusieurs threads (ou instances) traitent la même réservation.
+     *
+     * @return 1 si la transition a eu lieu, 0 sinon
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE StockReservation r
+        SET r.status = :to, r.updatedAt = :now
+        WHERE r.id = :id
+        AND r.status IN :from
+    """)
+    int transition(@Param("id") String id,
+                   @Param("from") Collection<StockReservationStatus> from,
+                   @Param("to") StockReservationStatus to,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Indique si le décrément de la réservation est écrit dans products
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.stockDeducted = :deducted WHERE r.id = :id")
+    int updateStockDeducted(@Param("id") String id, @Param("deducted") boolean deducted);
+
+    /**
+     * IDs des réservations d'un statut donné échues avant une date (rattrapage des expirations)
+     */
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt <= :before")
+    List<String> findIdsByStatusAndExpiresAtBefore(@Param("status") StockReservationStatus status,
+                                                   @Param("before") LocalDateTime before);
+
+    /**
+     * Réservations d'un statut donné (rechargement de la file d'expiration au démarrage)
+     */
+    List<StockReservation> findByStatus(StockReservationStatus status);
+
+    /**
+     * Réservations de ces statuts selon l'état de leur décrément en base (reprise du stock en mémoire)
+     */
+    List<StockReservation> findByStatusInAndStockDeducted(Collection<StockReservationStatus> statuses,
+                                                          boolean stockDeducted);
+}
@@ -1,5 +1,6 @@
 package com.episen.ms_product.infrastructure.exception;
 
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -72,6 +73,43 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Gère les échecs de réservation de stock (409)
+     * Le corps contient le résultat ligne par ligne pour que l'appelant sache quoi corriger
+     */
+    @ExceptionHandler(StockReservationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<StockReservationResponseDTO> handleStockReservationException(
+            StockReservationException ex, 
+            HttpServletRequest request) {
+        
+        log.warn("Réservation de stock refusée: {}", request.getRequestURI());
+        
+        return new ResponseEntity<>(ex.getResult(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Gère les réservations dans un statut incompatible avec l'opération (409)
+     */
+    @ExceptionHandler(StockReservationStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleStockReservationStateException(
+            StockReservationStateException ex, 
+            HttpServletRequest request) {
+        
+        log.warn("Statut de réservation incompatible: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Gère les erreurs de validation (400)
      * Déclenché par @Valid dans les contrôleurs
@@ -0,0 +1,21 @@
+package com.episen.ms_product.infrastructure.exception;
+
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
+
+/**
+ * Exception levée lorsqu'au moins une ligne d'une réservation de stock échoue.
+ * Elle provoque le rollback de toute la transaction et transporte le résultat ligne par ligne.
+ */
+public class StockReservationException extends RuntimeException {
+
+    private final transient StockReservationResponseDTO result;
+
+    public StockReservationException(StockReservationResponseDTO result) {
+        super("La réservation de stock a échoué");
+        this.result = result;
+    }
+
+    public StockReservationResponseDTO getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.episen.ms_product.infrastructure.exception;
+
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+
+/**
+ * Exception levée lorsqu'une réservation n'est plus dans un statut compatible
+ * avec l'opération demandée (ex : confirmer une réservation expirée).
+ */
+public class StockReservationStateException extends RuntimeException {
+
+    public StockReservationStateException(String reservationId, StockReservationStatus status) {
+        super(String.format("La réservation '%s' est %s", reservationId, status));
+    }
+}
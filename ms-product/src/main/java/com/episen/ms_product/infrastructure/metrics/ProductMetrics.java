@@ -0,0 +1,90 @@
+package com.episen.ms_product.infrastructure.metrics;
+
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Compteurs Micrometer de ms-product, enregistrés une seule fois au démarrage.
+ *
+ * Les services incrémentent directement les compteurs gardés ici : pas de builder,
+ * de tableau de tags ni de recherche dans le registre à chaque requête.
+ */
+@Component
+public class ProductMetrics {
+
+    private final Counter productsCreated;
+    private final Counter productsUpdated;
+    private final Counter productsDeleted;
+    private final Counter reservationsReserved;
+    private final Counter reservationsRejected;
+    private final Map<StockReservationStatus, Counter> reservationTransitions =
+            new EnumMap<>(StockReservationStatus.class);
+
+    public ProductMetrics(MeterRegistry meterRegistry) {
+
+        this.productsCreated = Counter.builder("products.created")
+                .description("Nombre de produits créés")
+                .tag("type", "Product")
+                .register(meterRegistry);
+
+        this.productsUpdated = Counter.builder("products.updated")
+                .description("Nombre de produits mis à jour")
+                .tag("type", "product")
+                .register(meterRegistry);
+
+        this.productsDeleted = Counter.builder("products.deleted")
+                .description("Nombre de produits supprimés")
+                .tag("type", "product")
+                .register(meterRegistry);
+
+        this.reservationsReserved = reservationCounter(meterRegistry, "reserved");
+        this.reservationsRejected = reservationCounter(meterRegistry, "rejected");
+
+        for (StockReservationStatus status : StockReservationStatus.values()) {
+            reservationTransitions.put(status, Counter.builder("products.stock.reservations.transitions")
+                    .description("Nombre de réservations confirmées, libérées ou expirées")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void incrementProductCreated() {
+        productsCreated.increment();
+    }
+
+    public void incrementProductUpdated() {
+        productsUpdated.increment();
+    }
+
+    public void incrementProductDeleted() {
+        productsDeleted.increment();
+    }
+
+    /**
+     * Réservation de stock acceptée (toutes les lignes) ou refusée.
+     */
+    public void incrementReservation(boolean reserved) {
+        (reserved ? reservationsReserved : reservationsRejected).increment();
+    }
+
+    /**
+     * Réservation passée dans le statut donné (CONFIRMED, RELEASED, EXPIRED).
+     */
+    public void incrementReservationTransition(StockReservationStatus status) {
+        reservationTransitions.get(status).increment();
+    }
+
+    private static Counter reservationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("products.stock.reservations")
+                .description("Nombre de réservations de stock")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
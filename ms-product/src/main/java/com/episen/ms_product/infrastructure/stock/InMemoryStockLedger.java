@@ -0,0 +1,543 @@
+package com.episen.ms_product.infrastructure.stock;
+
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationLineStatus;
+import com.episen.ms_product.application.service.StockEngine;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.entity.ReservedQuantity;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Moteur de stock en mémoire avec écriture différée (write-behind) dans la table products.
+ * Activé par app.stock.engine=memory.
+ *
+ * Fonctionnement :
+ *  - chaque produit a sa propre cellule (AtomicLong) : les décréments sont des CAS sans verrou,
+ *    deux produits ne se bloquent jamais entre eux (la map est elle-même découpée par segments) ;
+ *  - le stock disponible est pris dès la réservation (contrôle d'admission), mais l'écart à écrire
+ *    en base (pendingDelta) n'est enregistré qu'après le commit de la transaction de l'appelant ;
+ *    un rollback rend simplement le stock pris, une libération ou une saisie de stock n'est
+ *    appliquée qu'après commit ;
+ *  - chaque mouvement de réservation est journalisé ; un flush périodique écrit en une transaction
+ *    les écarts (UPDATE products SET stock = stock + ?) et le drapeau stock_deducted des
+ *    réservations concernées ;
+ *  - au démarrage, les cellules sont rechargées depuis la base puis réconciliées avec les
+ *    réservations dont le mouvement n'a pas été flushé (voir recover).
+ *
+ * Invariant : stock en base + pendingDelta = stock disponible en mémoire + stock pris par les
+ * transactions en cours.
+ *
+ * Limites (assumées) :
+ *  - une seule instance de ms-product doit tourner dans ce mode (la mémoire fait foi) ;
+ *  - un arrêt brutal perd les saisies manuelles de stock non flushées (au plus un intervalle de
+ *    flush) ; les mouvements de réservation, eux, sont rejoués depuis stock_reservations.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.stock.engine", havingValue = "memory")
+public class InMemoryStockLedger implements StockEngine, SmartInitializingSingleton {
+
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = ? WHERE id = ?";
+    private static final String UPDATE_RESERVATION_SQL =
+            "UPDATE stock_reservations SET stock_deducted = ? WHERE id = ?";
+
+    private static final Set<StockReservationStatus> DEDUCTED_STATUSES =
+            EnumSet.of(StockReservationStatus.HELD, StockReservationStatus.CONFIRMED);
+    private static final Set<StockReservationStatus> RESTORED_STATUSES =
+            EnumSet.of(StockReservationStatus.RELEASED, StockReservationStatus.EXPIRED);
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, StockCell> cells = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    // mouvements de réservation en attente d'écriture, dans l'ordre où ils ont été validés
+    private final Deque<ReservationMovement> journal = new ConcurrentLinkedDeque<>();
+
+    // lecture : enregistrement d'un écart (concurrent) ; écriture : coupe cohérente du flush
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    // instant (System.nanoTime) de la plus ancienne modification non flushée, 0 si aucune
+    private final AtomicLong oldestUnflushedNanos = new AtomicLong();
+
+    private final DistributionSummary flushBatchSize;
+    private final Timer flushDuration;
+    private final Counter flushFailures;
+
+    public InMemoryStockLedger(ProductRepository productRepository,
+                               StockReservationRepository reservationRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.stock.ledger.max-batch-size:500}") int maxBatchSize) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+
+        Gauge.builder("products.stock.ledger.flush.lag", this, InMemoryStockLedger::flushLagSeconds)
+                .description("Âge de la plus ancienne modification de stock non écrite en base")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        Gauge.builder("products.stock.ledger.pending", dirtyProducts, Set::size)
+                .description("Nombre de produits dont le stock n'est pas encore écrit en base")
+                .baseUnit("products")
+                .register(meterRegistry);
+
+        this.flushBatchSize = DistributionSummary.builder("products.stock.ledger.flush.batch.size")
+                .description("Nombre de produits écrits par flush")
+                .baseUnit("products")
+                .register(meterRegistry);
+
+        this.flushDuration = Timer.builder("products.stock.ledger.flush.duration")
+                .description("Durée d'écriture d'un lot de stock")
+                .register(meterRegistry);
+
+        this.flushFailures = Counter.builder("products.stock.ledger.flush.failures")
+                .description("Nombre de lots de stock en échec (rejoués au flush suivant)")
+                .register(meterRegistry);
+    }
+
+    /* =========================
+       STOCK ENGINE
+       ========================= */
+
+    @Override
+    public List<StockReservationLineResultDTO> reserve(String reservationId, SortedMap<Long, Integer> quantities) {
+        List<StockReservationLineResultDTO> results = new ArrayList<>(quantities.size());
+        Map<Long, StockCell> taken = new LinkedHashMap<>();
+        boolean failed = false;
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockCell cell = cell(entry.getKey());
+            StockReservationLineStatus status;
+
+            if (cell == null) {
+                status = StockReservationLineStatus.PRODUCT_NOT_FOUND;
+                failed = true;
+            } else if (cell.tryTake(entry.getValue())) {
+                status = StockReservationLineStatus.RESERVED;
+                taken.put(entry.getKey(), cell);
+            } else {
+                status = StockReservationLineStatus.INSUFFICIENT_STOCK;
+                failed = true;
+            }
+
+            results.add(StockReservationLineResultDTO.builder()
+                    .productId(entry.getKey())
+                    .quantity(entry.getValue())
+                    .status(status)
+                    .build());
+        }
+
+        // tout ou rien : on rend ce qui a déjà été pris (aucun écart n'a été enregistré)
+        if (failed) {
+            taken.forEach((productId, cell) -> cell.give(quantities.get(productId)));
+            return results;
+        }
+
+        // l'écart n'est enregistré que si la réservation est validée en base ; sinon le stock est rendu
+        afterCompletion("réservation " + reservationId, committed -> {
+            if (committed) {
+                recordMovement(new ReservationMovement(reservationId, true), taken, quantities, -1);
+            } else {
+                taken.forEach((productId, cell) -> cell.give(quantities.get(productId)));
+            }
+        });
+        return results;
+    }
+
+    @Override
+    public void release(String reservationId, SortedMap<Long, Integer> quantities) {
+        // cellules résolues ici : aucun accès base après la fin de la transaction
+        Map<Long, StockCell> restocked = new LinkedHashMap<>();
+        quantities.keySet().forEach(productId -> {
+            StockCell cell = cell(productId);
+            if (cell != null) {
+                restocked.put(productId, cell);
+            }
+        });
+
+        // crédit après commit seulement : une transaction annulée puis rejouée ne crédite qu'une fois
+        afterCompletion("réservation " + reservationId, committed -> {
+            if (committed) {
+                restocked.forEach((productId, cell) -> cell.give(quantities.get(productId)));
+                recordMovement(new ReservationMovement(reservationId, false), restocked, quantities, 1);
+            }
+        });
+    }
+
+    @Override
+    public boolean writesThrough() {
+        return false;
+    }
+
+    @Override
+    public void assignStock(Product product, int newStock) {
+        StockCell cell = cell(product.getId());
+        if (cell == null) {
+            // produit pas encore visible en base (création en cours) : écriture directe
+            product.setStock(newStock);
+            return;
+        }
+        // l'entité garde la valeur lue en base : seule la cellule (puis le flush) modifie le stock,
+        // après le commit (une mise à jour annulée ne doit pas être flushée)
+        afterCompletion("produit " + product.getId(), committed -> {
+            if (committed) {
+                pendingLock.readLock().lock();
+                try {
+                    cell.set(newStock);
+                    markDirty(product.getId());
+                } finally {
+                    pendingLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    @Override
+    public Integer availableStock(Product product) {
+        StockCell cell = cells.get(product.getId());
+        return cell == null ? product.getStock() : (int) cell.available();
+    }
+
+    @Override
+    public void onProductDeleted(Long productId) {
+        cells.remove(productId);
+        dirtyProducts.remove(productId);
+    }
+
+    /* =========================
+       REPRISE / FLUSH
+       ========================= */
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+    }
+
+    /**
+     * Reprise au démarrage, avant l'ouverture du port HTTP et le démarrage de l'expiration :
+     *  - recharge le stock de tous les produits depuis la base ;
+     *  - rejoue les mouvements validés mais pas encore flushés avant l'arrêt : une réservation
+     *    HELD/CONFIRMED dont le décrément n'est pas en base est re-décrémentée, une réservation
+     *    RELEASED/EXPIRED dont le décrément est encore en base est re-créditée.
+     * Sans cette étape, l'expiration des réservations HELD rendrait un stock jamais écrit en base.
+     */
+    public void recover() {
+        List<Object[]> stocks = productRepository.findAllStocks();
+        for (Object[] row : stocks) {
+            cells.putIfAbsent((Long) row[0], new StockCell(((Number) row[1]).longValue()));
+        }
+
+        int replayed = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (StockReservation reservation
+                    : reservationRepository.findByStatusInAndStockDeducted(DEDUCTED_STATUSES, false)) {
+                replay(reservation, true);
+                count++;
+            }
+            for (StockReservation reservation
+                    : reservationRepository.findByStatusInAndStockDeducted(RESTORED_STATUSES, true)) {
+                replay(reservation, false);
+                count++;
+            }
+            return count;
+        });
+        log.info("Stock en mémoire initialisé pour {} produits, {} mouvement(s) de réservation rejoué(s)",
+                stocks.size(), replayed);
+    }
+
+    /**
+     * Écrit en base, dans une seule transaction, les écarts de stock accumulés (par lots JDBC de
+     * maxBatchSize produits) et le drapeau stock_deducted des réservations correspondantes.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.ledger.flush-interval-ms:500}")
+    public void flush() {
+        if (dirtyProducts.isEmpty() && journal.isEmpty()) {
+            return;
+        }
+
+        long since;
+        Map<Long, Long> drained = new HashMap<>();
+        List<ReservationMovement> movements = new ArrayList<>();
+
+        // coupe cohérente : chaque mouvement journalisé a tous ses écarts dans ce flush, et inversement
+        pendingLock.writeLock().lock();
+        try {
+            since = oldestUnflushedNanos.getAndSet(0);
+            Iterator<Long> iterator = dirtyProducts.iterator();
+            while (iterator.hasNext()) {
+                Long productId = iterator.next();
+                iterator.remove();
+                StockCell cell = cells.get(productId);
+                long delta = cell == null ? 0 : cell.drainPending();
+                if (delta != 0) {
+                    drained.put(productId, delta);
+                }
+            }
+            ReservationMovement movement;
+            while ((movement = journal.pollFirst()) != null) {
+                movements.add(movement);
+            }
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+
+        if (drained.isEmpty() && movements.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> stockUpdates = new ArrayList<>(drained.size());
+        drained.forEach((productId, delta) -> stockUpdates.add(new Object[]{delta, now, productId}));
+        List<Object[]> reservationUpdates = movements.stream()
+                .map(movement -> new Object[]{movement.deducted(), movement.reservationId()})
+                .toList();
+
+        try {
+            flushDuration.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < stockUpdates.size(); from += maxBatchSize) {
+                    jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL,
+                            stockUpdates.subList(from, Math.min(from + maxBatchSize, stockUpdates.size())));
+                }
+                for (int from = 0; from < reservationUpdates.size(); from += maxBatchSize) {
+                    jdbcTemplate.batchUpdate(UPDATE_RESERVATION_SQL,
+                            reservationUpdates.subList(from, Math.min(from + maxBatchSize, reservationUpdates.size())));
+                }
+            }));
+            flushBatchSize.record(stockUpdates.size());
+            log.debug("Stock écrit en base pour {} produits ({} mouvement(s) de réservation)",
+                    stockUpdates.size(), movements.size());
+        } catch (RuntimeException e) {
+            // rien n'est perdu : écarts et mouvements sont remis en attente pour le prochain flush
+            flushFailures.increment();
+            pendingLock.writeLock().lock();
+            try {
+                drained.forEach((productId, delta) -> {
+                    StockCell cell = cells.get(productId);
+                    if (cell != null) {
+                        cell.restorePending(delta);
+                        dirtyProducts.add(productId);
+                    }
+                });
+                // remis en tête, dans l'ordre d'origine (un même ID peut être décrémenté puis crédité)
+                for (int i = movements.size() - 1; i >= 0; i--) {
+                    journal.addFirst(movements.get(i));
+                }
+                restoreOldest(since);
+            } finally {
+                pendingLock.writeLock().unlock();
+            }
+            log.error("Échec de l'écriture du stock en base pour {} produits", stockUpdates.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Arrêt : écriture du stock en attente pour {} produits", dirtyProducts.size());
+        flush();
+    }
+
+    /* =========================
+       INTERNE
+       ========================= */
+
+    /**
+     * Cellule d'un produit, chargée depuis la base au premier accès (null si le produit n'existe pas).
+     */
+    private StockCell cell(Long productId) {
+        StockCell cell = cells.get(productId);
+        if (cell != null) {
+            return cell;
+        }
+        // lecture hors de la map : computeIfAbsent garderait le verrou du segment pendant la requête
+        // (produits voisins bloqués, thread virtuel épinglé) ; au pire deux lectures concurrentes
+        Optional<Integer> stock = productRepository.findStockById(productId);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        StockCell loaded = new StockCell(stock.get());
+        StockCell existing = cells.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Exécute l'action à la fin de la transaction de l'appelant (true si validée),
+     * ou immédiatement s'il n'y a pas de transaction.
+     */
+    private void afterCompletion(String subject, Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_UNKNOWN) {
+                    // issue inconnue : on considère la transaction validée ; la reprise corrige sinon
+                    log.warn("Issue inconnue de la transaction ({})", subject);
+                }
+                action.accept(status != STATUS_ROLLED_BACK);
+            }
+        });
+    }
+
+    /**
+     * Enregistre l'écart (sign * quantité) de chaque produit et journalise le mouvement,
+     * de façon atomique vis-à-vis du flush.
+     */
+    private void recordMovement(ReservationMovement movement, Map<Long, StockCell> productCells,
+                                Map<Long, Integer> quantities, int sign) {
+        pendingLock.readLock().lock();
+        try {
+            productCells.forEach((productId, cell) -> {
+                cell.addPending(sign * (long) quantities.get(productId));
+                markDirty(productId);
+            });
+            journal.addLast(movement);
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reprise : ré-applique en mémoire le mouvement d'une réservation absent de la base.
+     */
+    private void replay(StockReservation reservation, boolean deduct) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (ReservedQuantity line : reservation.getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        Map<Long, StockCell> productCells = new HashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            StockCell cell = cells.get(productId);
+            if (cell != null) {
+                // le stock a déjà été accordé avant l'arrêt : pas de contrôle de disponibilité
+                cell.give(deduct ? -quantity : quantity);
+                productCells.put(productId, cell);
+            }
+        });
+        recordMovement(new ReservationMovement(reservation.getId(), deduct), productCells, quantities,
+                deduct ? -1 : 1);
+    }
+
+    private void markDirty(Long productId) {
+        dirtyProducts.add(productId);
+        oldestUnflushedNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    private void restoreOldest(long since) {
+        if (since != 0) {
+            oldestUnflushedNanos.accumulateAndGet(since,
+                    (current, previous) -> current == 0 ? previous : Math.min(current, previous));
+        }
+    }
+
+    private double flushLagSeconds() {
+        long since = oldestUnflushedNanos.get();
+        return since == 0 ? 0.0 : (System.nanoTime() - since) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Mouvement de stock d'une réservation : deducted = valeur de stock_deducted une fois flushé.
+     */
+    private record ReservationMovement(String reservationId, boolean deducted) {
+    }
+
+    /**
+     * Stock d'un produit : valeur disponible + écart non encore écrit en base.
+     */
+    static final class StockCell {
+
+        private final AtomicLong available;
+        private final AtomicLong pendingDelta = new AtomicLong();
+
+        StockCell(long initialStock) {
+            this.available = new AtomicLong(initialStock);
+        }
+
+        boolean tryTake(int quantity) {
+            long current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+
+        void give(long quantity) {
+            available.addAndGet(quantity);
+        }
+
+        void set(long newStock) {
+            long previous = available.getAndSet(newStock);
+            pendingDelta.addAndGet(newStock - previous);
+        }
+
+        long available() {
+            return available.get();
+        }
+
+        void addPending(long delta) {
+            pendingDelta.addAndGet(delta);
+        }
+
+        long drainPending() {
+            return pendingDelta.getAndSet(0);
+        }
+
+        void restorePending(long delta) {
+            pendingDelta.addAndGet(delta);
+        }
+    }
+}
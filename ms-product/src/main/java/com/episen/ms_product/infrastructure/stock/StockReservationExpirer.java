@@ -0,0 +1,129 @@
+package com.episen.ms_product.infrastructure.stock;
+
+import com.episen.ms_product.application.service.StockReservationHeldEvent;
+import com.episen.ms_product.application.service.StockReservationService;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expiration des réservations de stock non confirmées.
+ *
+ * Fonctionnement :
+ *  - chaque réservation créée est placée dans une DelayQueue, triée par date d'expiration ;
+ *  - un thread dédié attend la prochaine échéance (pas de scan périodique de la table) ;
+ *  - au démarrage, les réservations HELD sont rechargées dans la file (reprise après redémarrage) ;
+ *    en mode memory, le stock en mémoire a déjà été réconcilié avec elles (InMemoryStockLedger.recover) ;
+ *  - un balayage périodique rattrape les échéances manquées (erreur, autre instance, horloge).
+ *
+ * L'expiration elle-même est atomique (UPDATE conditionnel sur le statut) :
+ * une réservation confirmée ou libérée entre-temps est simplement ignorée.
+ */
+@Slf4j
+@Component
+public class StockReservationExpirer {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final StockReservationService reservationService;
+    private final StockReservationRepository reservationRepository;
+    private final DelayQueue<PendingExpiry> queue = new DelayQueue<>();
+    private final Thread worker;
+
+    public StockReservationExpirer(StockReservationService reservationService,
+                                   StockReservationRepository reservationRepository) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.worker = new Thread(this::run, "stock-reservation-expirer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Programme l'expiration d'une réservation, une fois sa création validée en base
+     */
+    @TransactionalEventListener
+    public void onReservationHeld(StockReservationHeldEvent event) {
+        queue.put(new PendingExpiry(event.reservationId(), event.expiresAt()));
+    }
+
+    /**
+     * Recharge les réservations en attente puis démarre le thread d'expiration
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (StockReservation reservation : reservationRepository.findByStatus(StockReservationStatus.HELD)) {
+            queue.put(new PendingExpiry(reservation.getId(), reservation.getExpiresAt()));
+        }
+        log.info("Expiration des réservations démarrée: {} réservation(s) en attente", queue.size());
+        worker.start();
+    }
+
+    /**
+     * Rattrapage : expire les réservations échues qui n'ont pas été traitées par la file
+     */
+    @Scheduled(fixedDelayString = "${app.stock.reservation.sweep-interval-ms:60000}")
+    public void sweep() {
+        for (String id : reservationRepository.findIdsByStatusAndExpiresAtBefore(
+                StockReservationStatus.HELD, LocalDateTime.now())) {
+            expire(id);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                PendingExpiry next = queue.take();
+                if (!expire(next.reservationId())) {
+                    queue.put(new PendingExpiry(next.reservationId(), LocalDateTime.now().plus(RETRY_DELAY)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.debug("Thread d'expiration des réservations arrêté");
+    }
+
+    /**
+     * @return false si l'expiration a échoué et doit être retentée
+     */
+    private boolean expire(String reservationId) {
+        try {
+            reservationService.expire(reservationId);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Échec de l'expiration de la réservation {}: {}", reservationId, e.getMessage());
+            return false;
+        }
+    }
+
+    private record PendingExpiry(String reservationId, LocalDateTime expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), expiresAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -70,6 +70,34 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * GET /api/v1/products?ids=1,2,3
+     * Récupère plusieurs produits en un seul appel (lecture groupée)
+     * 
+     * @param ids Les identifiants des produits
+     * @return Les produits trouvés avec code 200 OK (les IDs inconnus sont ignorés)
+     */
+    @Operation(summary = "Récupérer plusieurs produits par IDs", 
+               description = "Retourne les produits correspondant aux IDs fournis (200 IDs maximum). Les IDs inconnus sont absents de la réponse")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Produits récupérés avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                     schema = @Schema(implementation = ProductResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Trop d'IDs demandés",
+                    content = @Content)
+    })
+    @GetMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductResponseDTO>> getProductsByIds(
+            @Parameter(description = "IDs des produits", required = true)
+            @RequestParam List<Long> ids) {
+        
+        log.info("GET /api/v1/products?ids={} - Récupération groupée de produits", ids);
+        
+        List<ProductResponseDTO> products = productService.getProductsByIds(ids);
+        
+        return ResponseEntity.ok(products);
+    }
+
      /**
      * GET /api/v1/products/{id}
      * Récupère un produit par son ID
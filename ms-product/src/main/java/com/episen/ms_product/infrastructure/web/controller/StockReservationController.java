@@ -0,0 +1,127 @@
+package com.episen.ms_product.infrastructure.web.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.episen.ms_product.application.dto.StockReservationDetailsDTO;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
+import com.episen.ms_product.application.service.StockReservationService;
+
+import java.net.URI;
+
+/**
+ * Contrôleur REST pour les réservations de stock.
+ *
+ * Cycle de vie d'une réservation :
+ * - POST   : le stock est décrémenté et réservé (HELD) jusqu'à expiresAt
+ * - confirm: la commande est validée, le stock reste décrémenté (CONFIRMED)
+ * - DELETE : la commande est annulée, le stock est rendu (RELEASED)
+ * - sans confirmation avant expiresAt, le stock est rendu automatiquement (EXPIRED)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/products/stock/reservations")
+@RequiredArgsConstructor
+@Tag(name = "Stock reservations", description = "API de réservation de stock")
+public class StockReservationController {
+
+    private final StockReservationService reservationService;
+
+    /**
+     * POST /api/v1/products/stock/reservations
+     * Réserve (décrémente) le stock de plusieurs produits de façon atomique
+     * 
+     * @param request Les couples (productId, quantity) à réserver
+     * @return La réservation avec code 201 CREATED, ou 409 CONFLICT si une ligne échoue
+     */
+    @Operation(summary = "Réserver du stock pour plusieurs produits", description = "Décrémente le stock de tous les produits demandés dans une seule transaction. Si une ligne échoue, aucun stock n'est modifié. Sans confirmation avant expiresAt, le stock est rendu")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock réservé pour toutes les lignes", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Données invalides", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Stock insuffisant ou produit inexistant sur au moins une ligne", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationResponseDTO.class))),
+    })
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockReservationResponseDTO> reserveStock(
+            @Valid @RequestBody StockReservationRequestDTO request) {
+
+        log.info("POST /api/v1/products/stock/reservations - {} lignes", request.getLines().size());
+
+        StockReservationResponseDTO reservation = reservationService.reserve(request);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(reservation.getReservationId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(reservation);
+    }
+
+    /**
+     * GET /api/v1/products/stock/reservations/{id}
+     * Récupère l'état d'une réservation
+     */
+    @Operation(summary = "Récupérer une réservation", description = "Retourne le statut, l'échéance et les lignes d'une réservation")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation trouvée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationDetailsDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content)
+    })
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockReservationDetailsDTO> getReservation(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String id) {
+
+        log.info("GET /api/v1/products/stock/reservations/{}", id);
+
+        return ResponseEntity.ok(reservationService.getReservation(id));
+    }
+
+    /**
+     * POST /api/v1/products/stock/reservations/{id}/confirm
+     * Confirme une réservation (idempotent)
+     */
+    @Operation(summary = "Confirmer une réservation", description = "Le stock reste décrémenté définitivement. Échoue si la réservation a expiré ou a été libérée")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation confirmée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationDetailsDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Réservation expirée ou libérée", content = @Content)
+    })
+    @PostMapping(value = "/{id}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockReservationDetailsDTO> confirmReservation(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String id) {
+
+        log.info("POST /api/v1/products/stock/reservations/{}/confirm", id);
+
+        return ResponseEntity.ok(reservationService.confirm(id));
+    }
+
+    /**
+     * DELETE /api/v1/products/stock/reservations/{id}
+     * Libère une réservation et rend le stock (idempotent)
+     */
+    @Operation(summary = "Libérer une réservation", description = "Rend le stock réservé. Sans effet si la réservation est déjà libérée ou expirée")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Réservation libérée", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockReservationDetailsDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Réservation non trouvée", content = @Content)
+    })
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockReservationDetailsDTO> releaseReservation(
+            @Parameter(description = "ID de la réservation", required = true) @PathVariable String id) {
+
+        log.info("DELETE /api/v1/products/stock/reservations/{}", id);
+
+        return ResponseEntity.ok(reservationService.release(id));
+    }
+}
@@ -1,8 +1,9 @@
 -- Données initiales pour la base de données H2
 -- Ce script est exécuté automatiquement au démarrage de l'application
--- Création de la table products
+-- Séquence des ids (pooled-lo, blocs de 50) et création de la table products
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
 CREATE TABLE IF NOT EXISTS products (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
     description VARCHAR(500) NOT NULL,
     price DECIMAL(10,2) NOT NULL,
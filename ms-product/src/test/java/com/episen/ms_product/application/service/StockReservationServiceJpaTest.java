@@ -0,0 +1,68 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.entity.ProductCategory;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+import com.episen.ms_product.infrastructure.exception.StockReservationStateException;
+import com.episen.ms_product.infrastructure.metrics.ProductMetrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transitions de réservation dans de vraies transactions (moteur database) :
+ * ce qui est annulé ou conservé au commit.
+ */
+@DataJpaTest
+@Import({StockReservationService.class, DatabaseStockEngine.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceJpaTest {
+
+    @Autowired private StockReservationService reservationService;
+    @Autowired private StockReservationRepository reservationRepository;
+    @Autowired private ProductRepository productRepository;
+    @MockBean private ProductMetrics productMetrics;
+
+    // confirm d'une réservation échue : refusée, mais l'expiration et le stock rendu sont conservés
+    @Test
+    void confirm_shouldKeepExpiry_whenHeldReservationIsPastExpiry() {
+        Product product = productRepository.save(Product.builder()
+                .name("Clavier")
+                .description("Clavier mécanique")
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .category(ProductCategory.ELECTRONICS)
+                .active(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        String id = reservationService.reserve(new StockReservationRequestDTO(
+                List.of(new StockReservationLineDTO(product.getId(), 4)), null)).getReservationId();
+        assertEquals(6, productRepository.findById(product.getId()).orElseThrow().getStock());
+
+        StockReservation reservation = reservationRepository.findById(id).orElseThrow();
+        reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        reservationRepository.save(reservation);
+
+        assertThrows(StockReservationStateException.class, () -> reservationService.confirm(id));
+
+        assertEquals(StockReservationStatus.EXPIRED, reservationRepository.findById(id).orElseThrow().getStatus());
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
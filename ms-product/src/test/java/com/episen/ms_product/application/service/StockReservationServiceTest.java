@@ -0,0 +1,193 @@
+package com.episen.ms_product.application.service;
+
+import com.episen.ms_product.application.dto.StockReservationDetailsDTO;
+import com.episen.ms_product.application.dto.StockReservationLineDTO;
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationLineStatus;
+import com.episen.ms_product.application.dto.StockReservationRequestDTO;
+import com.episen.ms_product.application.dto.StockReservationResponseDTO;
+import com.episen.ms_product.domain.entity.ReservedQuantity;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+import com.episen.ms_product.infrastructure.exception.StockReservationException;
+import com.episen.ms_product.infrastructure.exception.StockReservationStateException;
+import com.episen.ms_product.infrastructure.metrics.ProductMetrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock private StockReservationRepository reservationRepository;
+    @Mock private StockEngine stockEngine;
+    @Mock private ProductMetrics productMetrics;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks private StockReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reservationService, "defaultTtl", Duration.ofMinutes(15));
+    }
+
+    // reserve : lignes fusionnées par produit, réservation HELD enregistrée et expiration programmée
+    @Test
+    void reserve_shouldSaveHeldReservation_whenAllLinesReserved() {
+        when(stockEngine.reserve(anyString(), any())).thenAnswer(inv -> {
+            SortedMap<Long, Integer> quantities = inv.getArgument(1);
+            return quantities.entrySet().stream()
+                    .map(e -> line(e.getKey(), e.getValue(), StockReservationLineStatus.RESERVED))
+                    .toList();
+        });
+        when(stockEngine.writesThrough()).thenReturn(true);
+
+        StockReservationResponseDTO response = reservationService.reserve(request(
+                new StockReservationLineDTO(2L, 1), new StockReservationLineDTO(1L, 2),
+                new StockReservationLineDTO(2L, 3)));
+
+        assertTrue(response.isReserved());
+        ArgumentCaptor<StockReservation> saved = ArgumentCaptor.forClass(StockReservation.class);
+        verify(reservationRepository).save(saved.capture());
+        assertEquals(StockReservationStatus.HELD, saved.getValue().getStatus());
+        assertTrue(saved.getValue().isStockDeducted());
+        assertEquals(List.of(new ReservedQuantity(1L, 2), new ReservedQuantity(2L, 4)), saved.getValue().getLines());
+        assertEquals(saved.getValue().getId(), response.getReservationId());
+
+        // le moteur reçoit l'ID de la réservation enregistrée
+        verify(stockEngine).reserve(eq(response.getReservationId()), eq(new TreeMap<>(Map.of(1L, 2, 2L, 4))));
+        verify(eventPublisher).publishEvent(any(StockReservationHeldEvent.class));
+    }
+
+    // reserve : une ligne en échec => exception (rollback), lignes réservées marquées ROLLED_BACK
+    @Test
+    void reserve_shouldThrowAndNotSave_whenOneLineFails() {
+        when(stockEngine.reserve(anyString(), any())).thenReturn(List.of(
+                line(1L, 2, StockReservationLineStatus.RESERVED),
+                line(2L, 5, StockReservationLineStatus.INSUFFICIENT_STOCK)));
+
+        StockReservationException ex = assertThrows(StockReservationException.class,
+                () -> reservationService.reserve(request(
+                        new StockReservationLineDTO(1L, 2), new StockReservationLineDTO(2L, 5))));
+
+        assertFalse(ex.getResult().isReserved());
+        assertEquals(StockReservationLineStatus.ROLLED_BACK, ex.getResult().getLines().get(0).getStatus());
+        assertEquals(StockReservationLineStatus.INSUFFICIENT_STOCK, ex.getResult().getLines().get(1).getStatus());
+        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // confirm : HELD non échue => CONFIRMED
+    @Test
+    void confirm_shouldConfirm_whenHeldAndNotExpired() {
+        StockReservation held = reservation("r1", StockReservationStatus.HELD, LocalDateTime.now().plusMinutes(5));
+        StockReservation confirmed = reservation("r1", StockReservationStatus.CONFIRMED, held.getExpiresAt());
+        when(reservationRepository.findById("r1")).thenReturn(Optional.of(held), Optional.of(confirmed));
+        when(reservationRepository.transition(eq("r1"), any(), eq(StockReservationStatus.CONFIRMED), any()))
+                .thenReturn(1);
+
+        StockReservationDetailsDTO details = reservationService.confirm("r1");
+
+        assertEquals(StockReservationStatus.CONFIRMED, details.getStatus());
+        verify(productMetrics).incrementReservationTransition(StockReservationStatus.CONFIRMED);
+        verify(stockEngine, never()).release(anyString(), any());
+    }
+
+    // confirm : HELD échue => expirée sur place (stock rendu) puis refusée
+    @Test
+    void confirm_shouldExpireAndThrow_whenHeldButPastExpiry() {
+        StockReservation held = reservation("r1", StockReservationStatus.HELD, LocalDateTime.now().minusSeconds(1));
+        StockReservation expired = reservation("r1", StockReservationStatus.EXPIRED, held.getExpiresAt());
+        when(reservationRepository.findById("r1")).thenReturn(Optional.of(held), Optional.of(held), Optional.of(expired));
+        when(reservationRepository.transition(eq("r1"), any(), eq(StockReservationStatus.EXPIRED), any()))
+                .thenReturn(1);
+
+        assertThrows(StockReservationStateException.class, () -> reservationService.confirm("r1"));
+
+        verify(reservationRepository, never()).transition(any(), any(), eq(StockReservationStatus.CONFIRMED), any());
+        verify(stockEngine).release("r1", new TreeMap<>(Map.of(10L, 3)));
+    }
+
+    // release : idempotent, le stock n'est rendu qu'à la première libération
+    @Test
+    void release_shouldRestockOnlyOnce_whenCalledTwice() {
+        StockReservation confirmed = reservation("r1", StockReservationStatus.CONFIRMED, LocalDateTime.now());
+        when(reservationRepository.findById("r1")).thenReturn(Optional.of(confirmed));
+        when(reservationRepository.transition(eq("r1"), any(), eq(StockReservationStatus.RELEASED), any()))
+                .thenReturn(1, 0);
+        when(stockEngine.writesThrough()).thenReturn(true);
+
+        reservationService.release("r1");
+        reservationService.release("r1");
+
+        verify(stockEngine, times(1)).release("r1", new TreeMap<>(Map.of(10L, 3)));
+        verify(reservationRepository, times(1)).updateStockDeducted("r1", false);
+        verify(productMetrics, times(1)).incrementReservationTransition(StockReservationStatus.RELEASED);
+    }
+
+    // expire : une réservation qui n'est plus HELD (confirmée entre-temps) n'est pas touchée
+    @Test
+    void expire_shouldDoNothing_whenNoLongerHeld() {
+        when(reservationRepository.transition(eq("r1"), any(), eq(StockReservationStatus.EXPIRED), any()))
+                .thenReturn(0);
+
+        assertFalse(reservationService.expire("r1"));
+
+        verify(stockEngine, never()).release(anyString(), any());
+        verifyNoInteractions(productMetrics);
+    }
+
+    // expire : moteur memory => le drapeau stock_deducted est laissé au flush du moteur
+    @Test
+    void expire_shouldLeaveStockDeductedFlagToEngine_whenEngineIsNotWriteThrough() {
+        StockReservation held = reservation("r1", StockReservationStatus.HELD, LocalDateTime.now());
+        when(reservationRepository.findById("r1")).thenReturn(Optional.of(held));
+        when(reservationRepository.transition(eq("r1"), any(), eq(StockReservationStatus.EXPIRED), any()))
+                .thenReturn(1);
+        when(stockEngine.writesThrough()).thenReturn(false);
+
+        assertTrue(reservationService.expire("r1"));
+
+        verify(stockEngine).release("r1", new TreeMap<>(Map.of(10L, 3)));
+        verify(reservationRepository, never()).updateStockDeducted(anyString(), anyBoolean());
+    }
+
+    private static StockReservationRequestDTO request(StockReservationLineDTO... lines) {
+        return StockReservationRequestDTO.builder().lines(List.of(lines)).build();
+    }
+
+    private static StockReservationLineResultDTO line(Long productId, int quantity, StockReservationLineStatus status) {
+        return StockReservationLineResultDTO.builder().productId(productId).quantity(quantity).status(status).build();
+    }
+
+    private static StockReservation reservation(String id, StockReservationStatus status, LocalDateTime expiresAt) {
+        return StockReservation.builder()
+                .id(id)
+                .status(status)
+                .expiresAt(expiresAt)
+                .lines(List.of(new ReservedQuantity(10L, 3)))
+                .build();
+    }
+}
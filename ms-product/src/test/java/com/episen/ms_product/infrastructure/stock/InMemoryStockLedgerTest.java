@@ -0,0 +1,300 @@
+package com.episen.ms_product.infrastructure.stock;
+
+import com.episen.ms_product.application.dto.StockReservationLineResultDTO;
+import com.episen.ms_product.application.dto.StockReservationLineStatus;
+import com.episen.ms_product.domain.entity.Product;
+import com.episen.ms_product.domain.entity.ReservedQuantity;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.ProductRepository;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryStockLedgerTest {
+
+    @Mock private ProductRepository productRepository;
+    @Mock private StockReservationRepository reservationRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // écritures du flush : écart par produit, drapeau stock_deducted par réservation
+    private final Map<Long, Long> stockWrites = new HashMap<>();
+    private final Map<String, Boolean> reservationWrites = new HashMap<>();
+    private final AtomicBoolean failNextFlush = new AtomicBoolean();
+
+    private InMemoryStockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            if (failNextFlush.getAndSet(false)) {
+                throw new DataAccessResourceFailureException("base indisponible");
+            }
+            String sql = inv.getArgument(0);
+            List<Object[]> rows = inv.getArgument(1);
+            for (Object[] row : rows) {
+                if (sql.startsWith("UPDATE products")) {
+                    stockWrites.merge((Long) row[2], (Long) row[0], Long::sum);
+                } else {
+                    reservationWrites.put((String) row[1], (Boolean) row[0]);
+                }
+            }
+            return new int[rows.size()];
+        });
+        ledger = new InMemoryStockLedger(productRepository, reservationRepository, jdbcTemplate,
+                transactionManager, meterRegistry, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Tout ou rien : une ligne insuffisante rend le stock déjà pris, rien n'est écrit en base
+    @Test
+    void reserve_shouldTakeNothing_whenOneLineIsShort() {
+        start(stock(1L, 10), stock(2L, 1));
+
+        List<StockReservationLineResultDTO> results = ledger.reserve("r1", quantities(1L, 3, 2L, 2));
+
+        assertEquals(StockReservationLineStatus.RESERVED, results.get(0).getStatus());
+        assertEquals(StockReservationLineStatus.INSUFFICIENT_STOCK, results.get(1).getStatus());
+        assertEquals(10, available(1L));
+        assertEquals(1, available(2L));
+
+        ledger.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    // Rollback de la transaction de réservation : le stock pris est rendu, aucun écart enregistré
+    @Test
+    void reserve_shouldGiveStockBack_whenTransactionRollsBack() {
+        start(stock(1L, 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.reserve("r1", quantities(1L, 4));
+        assertEquals(6, available(1L));
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(10, available(1L));
+        ledger.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    // Commit : l'écart et le drapeau de la réservation sont écrits par le flush suivant, pas avant
+    @Test
+    void reserve_shouldFlushDeltaAndReservationFlag_onlyAfterCommit() {
+        start(stock(1L, 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.reserve("r1", quantities(1L, 4));
+        ledger.flush();
+        verifyNoInteractions(jdbcTemplate);
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        ledger.flush();
+
+        assertEquals(Map.of(1L, -4L), stockWrites);
+        assertEquals(Map.of("r1", true), reservationWrites);
+        assertEquals(6, available(1L));
+    }
+
+    // Libération annulée : rien n'est crédité ; libération validée : crédité une seule fois
+    @Test
+    void release_shouldCreditStock_onlyWhenTransactionCommits() {
+        start(stock(1L, 10));
+        ledger.reserve("r1", quantities(1L, 4));
+        ledger.flush();
+        stockWrites.clear();
+        reservationWrites.clear();
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.release("r1", quantities(1L, 4));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        ledger.flush();
+
+        assertEquals(6, available(1L));
+        assertTrue(stockWrites.isEmpty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.release("r1", quantities(1L, 4));
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        ledger.flush();
+
+        assertEquals(10, available(1L));
+        assertEquals(Map.of(1L, 4L), stockWrites);
+        assertEquals(Map.of("r1", false), reservationWrites);
+    }
+
+    // Saisie de stock annulée : la cellule garde l'ancienne valeur, rien n'est flushé ; validée : appliquée
+    @Test
+    void assignStock_shouldApplyStock_onlyWhenTransactionCommits() {
+        start(stock(1L, 10));
+        Product product = Product.builder().id(1L).stock(10).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.assignStock(product, 25);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        ledger.flush();
+
+        assertEquals(10, available(1L));
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.assignStock(product, 25);
+        assertEquals(10, available(1L));
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        ledger.flush();
+
+        assertEquals(25, available(1L));
+        assertEquals(Map.of(1L, 15L), stockWrites);
+    }
+
+    // Flush en échec : écarts et mouvements remis en attente, réécrits une seule fois ensuite
+    @Test
+    void flush_shouldRestorePendingWrites_whenBatchFails() {
+        start(stock(1L, 10));
+        ledger.reserve("r1", quantities(1L, 4));
+
+        failNextFlush.set(true);
+        ledger.flush();
+
+        assertTrue(stockWrites.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("products.stock.ledger.flush.failures").count());
+
+        ledger.flush();
+        ledger.flush();
+
+        assertEquals(Map.of(1L, -4L), stockWrites);
+        assertEquals(Map.of("r1", true), reservationWrites);
+    }
+
+    // Reprise : les mouvements validés mais non flushés avant l'arrêt sont rejoués
+    @Test
+    void recover_shouldReplayReservationMovementsMissingFromDatabase() {
+        StockReservation held = reservation("r1", StockReservationStatus.HELD, 1L, 4);
+        StockReservation expired = reservation("r2", StockReservationStatus.EXPIRED, 2L, 3);
+        when(reservationRepository.findByStatusInAndStockDeducted(any(), eq(false))).thenReturn(List.of(held));
+        when(reservationRepository.findByStatusInAndStockDeducted(any(), eq(true))).thenReturn(List.of(expired));
+
+        start(stock(1L, 10), stock(2L, 5));
+
+        // r1 : décrément jamais écrit => re-décrémenté ; r2 : décrément écrit mais pas le crédit => re-crédité
+        assertEquals(6, available(1L));
+        assertEquals(8, available(2L));
+
+        ledger.flush();
+        assertEquals(Map.of(1L, -4L, 2L, 3L), stockWrites);
+        assertEquals(Map.of("r1", true, "r2", false), reservationWrites);
+    }
+
+    // Concurrence : les CAS ne vendent jamais plus que le stock disponible
+    @Test
+    void reserve_shouldNeverOversell_underConcurrentReservations() throws InterruptedException {
+        start(stock(1L, 100));
+
+        int threads = 16;
+        int attemptsPerThread = 20;
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                go.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (ledger.reserve("r" + thread + "-" + i, quantities(1L, 1)).get(0).getStatus()
+                            == StockReservationLineStatus.RESERVED) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, reserved.get());
+        assertEquals(0, available(1L));
+
+        ledger.flush();
+        assertEquals(Map.of(1L, -100L), stockWrites);
+        assertEquals(100, reservationWrites.size());
+    }
+
+    private void start(Object[]... stocks) {
+        when(productRepository.findAllStocks()).thenReturn(List.of(stocks));
+        ledger.afterSingletonsInstantiated();
+    }
+
+    private int available(Long productId) {
+        return ledger.availableStock(Product.builder().id(productId).stock(-1).build());
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Object[] stock(Long productId, int stock) {
+        return new Object[]{productId, stock};
+    }
+
+    private static SortedMap<Long, Integer> quantities(Object... productIdAndQuantity) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (int i = 0; i < productIdAndQuantity.length; i += 2) {
+            quantities.put((Long) productIdAndQuantity[i], (Integer) productIdAndQuantity[i + 1]);
+        }
+        return quantities;
+    }
+
+    private static StockReservation reservation(String id, StockReservationStatus status, Long productId, int quantity) {
+        return StockReservation.builder()
+                .id(id)
+                .status(status)
+                .expiresAt(LocalDateTime.now())
+                .lines(new ArrayList<>(List.of(new ReservedQuantity(productId, quantity))))
+                .build();
+    }
+}
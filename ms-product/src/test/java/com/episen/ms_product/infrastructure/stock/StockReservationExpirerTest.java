@@ -0,0 +1,79 @@
+package com.episen.ms_product.infrastructure.stock;
+
+import com.episen.ms_product.application.service.StockReservationHeldEvent;
+import com.episen.ms_product.application.service.StockReservationService;
+import com.episen.ms_product.domain.entity.StockReservation;
+import com.episen.ms_product.domain.entity.StockReservationStatus;
+import com.episen.ms_product.domain.repository.StockReservationRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationExpirerTest {
+
+    @Mock private StockReservationService reservationService;
+    @Mock private StockReservationRepository reservationRepository;
+
+    @InjectMocks private StockReservationExpirer expirer;
+
+    @AfterEach
+    void tearDown() {
+        expirer.stop();
+    }
+
+    // Démarrage : les réservations HELD rechargées sont expirées à leur échéance, pas avant
+    @Test
+    void start_shouldExpireReloadedReservations_whenDue() {
+        when(reservationRepository.findByStatus(StockReservationStatus.HELD)).thenReturn(List.of(
+                held("due", LocalDateTime.now().minusSeconds(1)),
+                held("later", LocalDateTime.now().plusHours(1))));
+
+        expirer.start();
+
+        verify(reservationService, timeout(2000)).expire("due");
+        verify(reservationService, after(200).never()).expire("later");
+    }
+
+    // Une expiration en échec est retentée plus tard, sans bloquer les suivantes
+    @Test
+    void onReservationHeld_shouldKeepExpiringOthers_whenOneExpiryFails() {
+        when(reservationRepository.findByStatus(StockReservationStatus.HELD)).thenReturn(List.of());
+        when(reservationService.expire("broken")).thenThrow(new IllegalStateException("base indisponible"));
+        expirer.start();
+
+        expirer.onReservationHeld(new StockReservationHeldEvent("broken", LocalDateTime.now().minusSeconds(2)));
+        expirer.onReservationHeld(new StockReservationHeldEvent("ok", LocalDateTime.now().minusSeconds(1)));
+
+        verify(reservationService, timeout(2000)).expire("broken");
+        verify(reservationService, timeout(2000)).expire("ok");
+    }
+
+    // Balayage : chaque réservation échue est expirée, même si une autre échoue
+    @Test
+    void sweep_shouldExpireEveryDueReservation() {
+        when(reservationRepository.findIdsByStatusAndExpiresAtBefore(eq(StockReservationStatus.HELD), any()))
+                .thenReturn(List.of("r1", "r2"));
+        when(reservationService.expire("r1")).thenThrow(new IllegalStateException("conflit"));
+
+        expirer.sweep();
+
+        verify(reservationService).expire("r1");
+        verify(reservationService).expire("r2");
+    }
+
+    private static StockReservation held(String id, LocalDateTime expiresAt) {
+        return StockReservation.builder().id(id).status(StockReservationStatus.HELD).expiresAt(expiresAt).build();
+    }
+}